@@ -0,0 +1,37 @@
+package com.jobscheduler.controller;
+
+import com.jobscheduler.dto.DeadLetterEntry;
+import com.jobscheduler.service.DeadLetterService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/dead-letters")
+@CrossOrigin(origins = "*")
+public class DeadLetterController {
+
+    @Autowired
+    private DeadLetterService deadLetterService;
+
+    @GetMapping
+    public ResponseEntity<List<DeadLetterEntry>> getDeadLetters(@RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(deadLetterService.getEntries(limit));
+    }
+
+    @PostMapping("/{partition}/{offset}/replay")
+    public ResponseEntity<DeadLetterEntry> replay(@PathVariable int partition, @PathVariable long offset) {
+        return deadLetterService.replay(partition, offset)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/replay")
+    public ResponseEntity<List<DeadLetterEntry>> replayAll(
+            @RequestParam(required = false) String topic,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(deadLetterService.replayAll(topic, limit));
+    }
+}
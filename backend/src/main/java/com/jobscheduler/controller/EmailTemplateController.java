@@ -0,0 +1,48 @@
+package com.jobscheduler.controller;
+
+import com.jobscheduler.dto.EmailTemplateRequest;
+import com.jobscheduler.entity.EmailTemplate;
+import com.jobscheduler.service.EmailTemplateService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/email/templates")
+@CrossOrigin(origins = "*")
+public class EmailTemplateController {
+
+    @Autowired
+    private EmailTemplateService emailTemplateService;
+
+    // Saves a new version; earlier versions stay available to jobs that pin them
+    @PostMapping
+    public ResponseEntity<?> saveTemplate(@Valid @RequestBody EmailTemplateRequest request) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(emailTemplateService.saveTemplate(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "error", e.getMessage()));
+        } catch (DataIntegrityViolationException e) {
+            // Another version of the same template was saved at the same time
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("success", false, "error", "Template was modified concurrently, please retry"));
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<EmailTemplate>> getTemplates() {
+        return ResponseEntity.ok(emailTemplateService.getTemplates());
+    }
+
+    @GetMapping("/{name}")
+    public ResponseEntity<List<EmailTemplate>> getTemplateVersions(@PathVariable String name) {
+        List<EmailTemplate> versions = emailTemplateService.getTemplateVersions(name);
+        return versions.isEmpty() ? ResponseEntity.notFound().build() : ResponseEntity.ok(versions);
+    }
+}
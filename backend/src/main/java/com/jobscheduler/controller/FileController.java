@@ -1,12 +1,17 @@
 package com.jobscheduler.controller;
 
 import com.jobscheduler.service.MinioService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -15,6 +20,8 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class FileController {
 
+    private static final int MAX_FIELD_BYTES = 1024;
+
     @Autowired
     private MinioService minioService;
 
@@ -24,20 +31,73 @@ public class FileController {
             @RequestParam(value = "bucket", required = false) String bucket) {
         
         try {
-            String objectName = minioService.uploadFile(file, bucket);
+            MinioService.StoredObject stored = minioService.uploadFile(file, bucket);
             String presignedUrl = minioService.getPresignedUrl(
-                bucket != null ? bucket : "job-scheduler-files", 
-                objectName, 
+                stored.getBucketName(), 
+                stored.getObjectName(), 
                 3600 // 1 hour expiry
             );
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("objectName", objectName);
+            response.put("objectName", stored.getObjectName());
             response.put("presignedUrl", presignedUrl);
             response.put("fileName", file.getOriginalFilename());
             response.put("fileSize", file.getSize());
             response.put("contentType", file.getContentType());
+            response.put("contentHash", stored.getContentHash());
+            response.put("deduplicated", stored.isDeduplicated());
+
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    /**
+     * Streams the file part of a multipart body straight into a parallel MinIO multipart upload
+     * while it arrives, instead of letting the servlet spool the request before it is uploaded.
+     * Fields after the file part are not read, so the bucket goes first or in the query string.
+     */
+    @PostMapping(value = "/upload/stream", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Map<String, Object>> uploadFileStream(HttpServletRequest request) {
+        try {
+            // getParameter would make the container parse the whole body; query params come back still encoded
+            String bucket = ServletUriComponentsBuilder.fromRequest(request).build().getQueryParams().getFirst("bucket");
+            if (bucket != null) {
+                bucket = UriUtils.decode(bucket, StandardCharsets.UTF_8);
+            }
+            MultipartStreamReader reader = new MultipartStreamReader(request.getInputStream(), request.getContentType());
+            MultipartStreamReader.Part part;
+            while ((part = reader.nextPart()) != null && !part.isFile()) {
+                if ("bucket".equals(part.getName())) {
+                    bucket = new String(part.getContent().readNBytes(MAX_FIELD_BYTES), StandardCharsets.UTF_8).trim();
+                }
+            }
+            if (part == null) {
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("success", false);
+                errorResponse.put("error", "No file part in the request");
+                return ResponseEntity.badRequest().body(errorResponse);
+            }
+
+            MinioService.StoredObject stored = minioService.uploadFile(part.getContent(), part.getFilename(),
+                    part.getContentType(), bucket);
+            String presignedUrl = minioService.getPresignedUrl(stored.getBucketName(), stored.getObjectName(), 3600);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("objectName", stored.getObjectName());
+            response.put("presignedUrl", presignedUrl);
+            response.put("fileName", part.getFilename());
+            response.put("fileSize", stored.getSize());
+            response.put("contentType", part.getContentType());
+            response.put("contentHash", stored.getContentHash());
+            response.put("deduplicated", stored.isDeduplicated());
 
             return ResponseEntity.ok(response);
 
@@ -76,14 +136,22 @@ public class FileController {
             @RequestParam String objectName) {
         
         try {
-            minioService.deleteFile(bucket, objectName);
+            boolean removed = minioService.deleteFile(bucket, objectName);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("message", "File deleted successfully");
+            response.put("removed", removed);
+            response.put("message", removed ? "File deleted successfully"
+                    : "Reference released, the file is kept for other uploads");
             
             return ResponseEntity.ok(response);
 
+        } catch (IllegalStateException e) {
+            // The last reference stays while binary jobs run the file
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("success", false);
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
         } catch (Exception e) {
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("success", false);
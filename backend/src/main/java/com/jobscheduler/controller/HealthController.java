@@ -1,7 +1,21 @@
 package com.jobscheduler.controller;
 
 import com.jobscheduler.config.ApplicationConfig;
+import com.jobscheduler.scheduler.ArtifactPrefetcher;
+import com.jobscheduler.service.ArtifactCacheService;
+import com.jobscheduler.service.BinaryAdmissionService;
+import com.jobscheduler.service.BinaryJobExecutor;
+import com.jobscheduler.service.EmailAttachmentCache;
+import com.jobscheduler.service.EmailRateLimiter;
 import com.jobscheduler.service.EmailService;
+import com.jobscheduler.service.EmailTemplateService;
+import com.jobscheduler.service.JobPayloadService;
+import com.jobscheduler.service.MinioService;
+import com.jobscheduler.service.RunningBinaryRegistry;
+import com.jobscheduler.service.SchedulingService;
+import com.jobscheduler.service.SmtpTransportPool;
+import com.jobscheduler.worker.JvmWorkerPool;
+import com.jobscheduler.worker.PythonForkServer;
 import io.minio.MinioClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -27,6 +41,48 @@ public class HealthController {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private SchedulingService schedulingService;
+
+    @Autowired
+    private BinaryJobExecutor binaryJobExecutor;
+
+    @Autowired
+    private JobPayloadService jobPayloadService;
+
+    @Autowired
+    private ArtifactCacheService artifactCacheService;
+
+    @Autowired
+    private BinaryAdmissionService binaryAdmissionService;
+
+    @Autowired
+    private RunningBinaryRegistry runningBinaryRegistry;
+
+    @Autowired(required = false)
+    private ArtifactPrefetcher artifactPrefetcher;
+
+    @Autowired(required = false)
+    private SmtpTransportPool smtpTransportPool;
+
+    @Autowired
+    private EmailTemplateService emailTemplateService;
+
+    @Autowired
+    private EmailRateLimiter emailRateLimiter;
+
+    @Autowired
+    private EmailAttachmentCache emailAttachmentCache;
+
+    @Autowired(required = false)
+    private JvmWorkerPool jvmWorkerPool;
+
+    @Autowired(required = false)
+    private PythonForkServer pythonForkServer;
+
+    @Autowired
+    private MinioService minioService;
+
     @Autowired
     private MinioClient minioClient;
 
@@ -55,8 +111,53 @@ public class HealthController {
             "configured", emailService.isConfigured(),
             "enabled", appConfig.getEmail().isEnabled()
         ));
+        if (smtpTransportPool != null) {
+            services.put("smtpPool", smtpTransportPool.getStatistics());
+        }
+        services.put("emailTemplates", emailTemplateService.getStatistics());
+        services.put("emailDelivery", emailService.getDeliveryStatistics());
+        services.put("emailRateLimit", emailRateLimiter.getStatistics());
+        services.put("emailAttachmentCache", emailAttachmentCache.getStatistics());
+
+        // Scheduler engine
+        Map<String, Object> scheduler = new HashMap<>(Map.of(
+            "engine", schedulingService.getEngineName(),
+            "pendingJobs", schedulingService.getPendingCount()
+        ));
+        scheduler.putAll(schedulingService.getEngineStatistics());
+        services.put("scheduler", scheduler);
+
+        // Binary execution pool
+        services.put("binaryExecution", Map.of(
+            "inFlight", binaryJobExecutor.getInFlight(),
+            "intakePaused", binaryJobExecutor.isPaused()
+        ));
+
+        // Job payload cache for claim-check messages
+        services.put("jobPayloadCache", jobPayloadService.getCacheStatistics());
+
+        // Warm JVM workers for .jar jobs
+        if (jvmWorkerPool != null) {
+            services.put("jvmWorkerPool", jvmWorkerPool.getStatistics());
+        }
+
+        // Fork server for .py jobs
+        if (pythonForkServer != null) {
+            services.put("pythonForkServer", pythonForkServer.getStatistics());
+        }
+
+        // CPU and memory budget of running binaries
+        services.put("binaryAdmission", binaryAdmissionService.getStatistics());
+        services.put("runningBinaries", runningBinaryRegistry.getStatistics());
+
+        // Local cache of MinIO binaries
+        services.put("artifactCache", artifactCacheService.getCacheStatistics());
+        if (artifactPrefetcher != null) {
+            services.put("artifactPrefetch", artifactPrefetcher.getStatistics());
+        }
 
         // MinIO service
+        services.put("minioMetadataCache", minioService.getMetadataCacheStatistics());
         try {
             minioClient.listBuckets();
             services.put("minio", Map.of("status", "UP"));
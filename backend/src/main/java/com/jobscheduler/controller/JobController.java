@@ -1,8 +1,14 @@
 package com.jobscheduler.controller;
 
+import com.jobscheduler.dto.BatchJobRequest;
+import com.jobscheduler.dto.BatchJobResponse;
 import com.jobscheduler.dto.BinaryJobRequest;
+import com.jobscheduler.dto.EmailDeliveryProgress;
 import com.jobscheduler.dto.EmailJobRequest;
+import com.jobscheduler.dto.JobExecutionResponse;
 import com.jobscheduler.dto.JobResponse;
+import com.jobscheduler.dto.OutputTail;
+import com.jobscheduler.dto.RunningBinaryResponse;
 import com.jobscheduler.entity.Job;
 import com.jobscheduler.service.JobService;
 import jakarta.validation.Valid;
@@ -38,6 +44,17 @@ public class JobController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<BatchJobResponse> createJobsBatch(@RequestBody BatchJobRequest request) {
+        try {
+            BatchJobResponse response = jobService.createJobsBatch(request);
+            HttpStatus status = response.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+            return new ResponseEntity<>(response, status);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping
     public ResponseEntity<List<JobResponse>> getAllJobs() {
         List<JobResponse> jobs = jobService.getAllJobs();
@@ -67,6 +84,54 @@ public class JobController {
                   .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/executions")
+    public ResponseEntity<Page<JobExecutionResponse>> getJobExecutions(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return jobService.getJobExecutions(id, PageRequest.of(page, size))
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}/output")
+    public ResponseEntity<OutputTail> getLiveOutput(@PathVariable Long id,
+                                                    @RequestParam(defaultValue = "0") long since) {
+        return jobService.getLiveOutput(id, since)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}/runs")
+    public ResponseEntity<List<RunningBinaryResponse>> getRunningBinaries(@PathVariable Long id) {
+        return jobService.getRunningBinaries(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}/email-delivery")
+    public ResponseEntity<EmailDeliveryProgress> getEmailDelivery(@PathVariable Long id) {
+        return jobService.getEmailDelivery(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/{id}/runs/{runId}/cancel")
+    public ResponseEntity<Void> cancelRun(@PathVariable Long id, @PathVariable String runId) {
+        return jobService.cancelRun(id, runId)
+                ? ResponseEntity.accepted().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    @PostMapping("/{id}/cancel")
+    public ResponseEntity<JobResponse> cancelJob(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(jobService.cancelJob(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @GetMapping("/status/{status}")
     public ResponseEntity<List<JobResponse>> getJobsByStatus(@PathVariable Job.JobStatus status) {
         List<JobResponse> jobs = jobService.getJobsByStatus(status);
@@ -85,9 +150,12 @@ public class JobController {
     }
 
     @PostMapping("/{id}/execute")
-    public ResponseEntity<JobResponse> executeJobNow(@PathVariable Long id) {
+    public ResponseEntity<JobResponse> executeJobNow(@PathVariable Long id,
+                                                    @RequestParam(defaultValue = "0") int delayMinutes) {
         try {
-            JobResponse response = jobService.executeJobNow(id);
+            JobResponse response = delayMinutes > 0 ?
+                                   jobService.executeJobLater(id, delayMinutes) :
+                                   jobService.executeJobNow(id);
             return ResponseEntity.ok(response);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
@@ -0,0 +1,246 @@
+package com.jobscheduler.controller;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads a multipart/form-data body part by part straight from the request stream. Each part's
+ * content is handed out as a stream that ends at the next boundary, so a file part can be
+ * passed on while it arrives instead of being spooled to memory or disk first.
+ */
+class MultipartStreamReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_HEADER_BYTES = 8 * 1024;
+    private static final Pattern BOUNDARY = Pattern.compile("boundary=(?:\"([^\"]+)\"|([^;\\s]+))",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern DISPOSITION_PARAM = Pattern.compile("(name|filename)=\"([^\"]*)\"",
+            Pattern.CASE_INSENSITIVE);
+
+    private final InputStream in;
+    // CRLF, two dashes and the boundary: what ends every part
+    private final byte[] delimiter;
+    private final byte[] buffer;
+    private int head;
+    private int tail;
+
+    private PartStream current;
+    private boolean finished;
+
+    MultipartStreamReader(InputStream in, String contentType) throws IOException {
+        Matcher matcher = contentType != null ? BOUNDARY.matcher(contentType) : null;
+        if (matcher == null || !matcher.find()) {
+            throw new IOException("Not a multipart request: " + contentType);
+        }
+        String boundary = matcher.group(1) != null ? matcher.group(1) : matcher.group(2);
+        this.in = in;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        this.buffer = new byte[Math.max(BUFFER_SIZE, delimiter.length * 2)];
+        // The first boundary has no CRLF in front of it; pretend it does and skip the preamble as a part
+        buffer[0] = '\r';
+        buffer[1] = '\n';
+        tail = 2;
+        current = new PartStream();
+    }
+
+    /**
+     * Skips whatever is left of the current part and returns the next one, or null after the
+     * closing boundary.
+     */
+    Part nextPart() throws IOException {
+        if (finished) {
+            return null;
+        }
+        current.skip(Long.MAX_VALUE);
+        if (!fill(2)) {
+            throw new EOFException("Multipart body ended without a closing boundary");
+        }
+        if (buffer[head] == '-' && buffer[head + 1] == '-') {
+            finished = true;
+            return null;
+        }
+        readLine(); // rest of the boundary line
+
+        String name = null;
+        String filename = null;
+        String partContentType = null;
+        int headerBytes = 0;
+        String line;
+        while (!(line = readLine()).isEmpty()) {
+            headerBytes += line.length();
+            if (headerBytes > MAX_HEADER_BYTES) {
+                throw new IOException("Multipart headers exceed " + MAX_HEADER_BYTES + " bytes");
+            }
+            int colon = line.indexOf(':');
+            if (colon < 0) {
+                continue;
+            }
+            String header = line.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+            String value = line.substring(colon + 1).trim();
+            if (header.equals("content-disposition")) {
+                Matcher params = DISPOSITION_PARAM.matcher(value);
+                while (params.find()) {
+                    if (params.group(1).equalsIgnoreCase("name")) {
+                        name = params.group(2);
+                    } else {
+                        filename = params.group(2);
+                    }
+                }
+            } else if (header.equals("content-type")) {
+                partContentType = value;
+            }
+        }
+        current = new PartStream();
+        return new Part(name, filename, partContentType, current);
+    }
+
+    // Reads up to CRLF, consuming it
+    private String readLine() throws IOException {
+        int scanned = head;
+        while (true) {
+            for (int i = scanned; i + 1 < tail; i++) {
+                if (buffer[i] == '\r' && buffer[i + 1] == '\n') {
+                    String line = new String(buffer, head, i - head, StandardCharsets.UTF_8);
+                    head = i + 2;
+                    return line;
+                }
+            }
+            scanned = Math.max(head, tail - 1);
+            int buffered = tail - head;
+            if (buffered >= MAX_HEADER_BYTES) {
+                throw new IOException("Multipart header line exceeds " + MAX_HEADER_BYTES + " bytes");
+            }
+            int offset = head;
+            if (!fill(buffered + 1)) {
+                throw new EOFException("Multipart body ended inside the part headers");
+            }
+            scanned -= offset - head;
+        }
+    }
+
+    /**
+     * Makes at least count bytes available from head, compacting the buffer first if needed.
+     * Returns false if the body ends before that.
+     */
+    private boolean fill(int count) throws IOException {
+        if (tail - head >= count) {
+            return true;
+        }
+        if (head > 0) {
+            System.arraycopy(buffer, head, buffer, 0, tail - head);
+            tail -= head;
+            head = 0;
+        }
+        while (tail < count) {
+            int read = in.read(buffer, tail, buffer.length - tail);
+            if (read < 0) {
+                return false;
+            }
+            tail += read;
+        }
+        return true;
+    }
+
+    private int indexOfDelimiter() {
+        int last = tail - delimiter.length;
+        outer:
+        for (int i = head; i <= last; i++) {
+            if (buffer[i] != delimiter[0]) {
+                continue;
+            }
+            for (int j = 1; j < delimiter.length; j++) {
+                if (buffer[i + j] != delimiter[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * One part of the body. Its content can only be read until the reader moves on to the next
+     * part.
+     */
+    static final class Part {
+        private final String name;
+        private final String filename;
+        private final String contentType;
+        private final InputStream content;
+
+        private Part(String name, String filename, String contentType, InputStream content) {
+            this.name = name;
+            this.filename = filename;
+            this.contentType = contentType;
+            this.content = content;
+        }
+
+        String getName() { return name; }
+        String getFilename() { return filename; }
+        String getContentType() { return contentType; }
+        InputStream getContent() { return content; }
+
+        boolean isFile() {
+            return filename != null;
+        }
+    }
+
+    // Content of the current part: everything up to the next delimiter
+    private final class PartStream extends InputStream {
+        private boolean done;
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (done || current != this) {
+                return -1;
+            }
+            if (len == 0) {
+                return 0;
+            }
+            while (true) {
+                int end = indexOfDelimiter();
+                if (end == head) {
+                    head += delimiter.length;
+                    done = true;
+                    return -1;
+                }
+                // Without a delimiter in the buffer, its last bytes may still be the start of one
+                int available = end >= 0 ? end - head : tail - head - (delimiter.length - 1);
+                if (available > 0) {
+                    int count = Math.min(len, available);
+                    System.arraycopy(buffer, head, b, off, count);
+                    head += count;
+                    return count;
+                }
+                if (!fill(tail - head + 1)) {
+                    throw new EOFException("Multipart body ended inside a part");
+                }
+            }
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = 0;
+            byte[] scratch = new byte[8192];
+            while (skipped < n) {
+                int read = read(scratch, 0, (int) Math.min(scratch.length, n - skipped));
+                if (read < 0) {
+                    break;
+                }
+                skipped += read;
+            }
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.jobscheduler.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchJobRequest {
+
+    private List<BinaryJobRequest> binaryJobs = new ArrayList<>();
+    private List<EmailJobRequest> emailJobs = new ArrayList<>();
+
+    // Constructors
+    public BatchJobRequest() {}
+
+    public BatchJobRequest(List<BinaryJobRequest> binaryJobs, List<EmailJobRequest> emailJobs) {
+        this.binaryJobs = binaryJobs;
+        this.emailJobs = emailJobs;
+    }
+
+    public int size() {
+        return (binaryJobs != null ? binaryJobs.size() : 0) + (emailJobs != null ? emailJobs.size() : 0);
+    }
+
+    // Getters and Setters
+    public List<BinaryJobRequest> getBinaryJobs() { return binaryJobs; }
+    public void setBinaryJobs(List<BinaryJobRequest> binaryJobs) { this.binaryJobs = binaryJobs; }
+
+    public List<EmailJobRequest> getEmailJobs() { return emailJobs; }
+    public void setEmailJobs(List<EmailJobRequest> emailJobs) { this.emailJobs = emailJobs; }
+}
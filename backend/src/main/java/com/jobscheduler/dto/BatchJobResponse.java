@@ -0,0 +1,85 @@
+package com.jobscheduler.dto;
+
+import com.jobscheduler.entity.Job;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchJobResponse {
+
+    private int total;
+    private int succeeded;
+    private int failed;
+    private List<ItemResult> results = new ArrayList<>();
+
+    // Constructors
+    public BatchJobResponse() {}
+
+    public void addResult(ItemResult result) {
+        results.add(result);
+        total++;
+        if (result.isSuccess()) {
+            succeeded++;
+        } else {
+            failed++;
+        }
+    }
+
+    // Getters and Setters
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+
+    public int getSucceeded() { return succeeded; }
+    public void setSucceeded(int succeeded) { this.succeeded = succeeded; }
+
+    public int getFailed() { return failed; }
+    public void setFailed(int failed) { this.failed = failed; }
+
+    public List<ItemResult> getResults() { return results; }
+    public void setResults(List<ItemResult> results) { this.results = results; }
+
+    // Outcome of one request, identified by its type and position in that type's list
+    public static class ItemResult {
+        private Job.JobType type;
+        private int index;
+        private boolean success;
+        private JobResponse job;
+        private String error;
+
+        public ItemResult() {}
+
+        public static ItemResult created(Job.JobType type, int index, JobResponse job) {
+            ItemResult result = new ItemResult();
+            result.type = type;
+            result.index = index;
+            result.success = true;
+            result.job = job;
+            return result;
+        }
+
+        public static ItemResult rejected(Job.JobType type, int index, String error) {
+            ItemResult result = new ItemResult();
+            result.type = type;
+            result.index = index;
+            result.success = false;
+            result.error = error;
+            return result;
+        }
+
+        // Getters and Setters
+        public Job.JobType getType() { return type; }
+        public void setType(Job.JobType type) { this.type = type; }
+
+        public int getIndex() { return index; }
+        public void setIndex(int index) { this.index = index; }
+
+        public boolean isSuccess() { return success; }
+        public void setSuccess(boolean success) { this.success = success; }
+
+        public JobResponse getJob() { return job; }
+        public void setJob(JobResponse job) { this.job = job; }
+
+        public String getError() { return error; }
+        public void setError(String error) { this.error = error; }
+    }
+}
@@ -2,6 +2,8 @@ package com.jobscheduler.dto;
 
 import com.jobscheduler.entity.Job;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
 
 import java.time.LocalDateTime;
 
@@ -15,6 +17,22 @@ public class BinaryJobRequest extends JobRequest {
     private String originalFilename;
     private String contentType;
 
+    // MinIO object holding the binary, as returned by /api/files/upload
+    private String minioBucket;
+    private String minioObjectName;
+
+    @Pattern(regexp = "[0-9a-f]{64}", message = "Content hash must be a lower-case hex SHA-256")
+    private String contentHash;
+
+    @Positive(message = "CPU limit must be positive")
+    private Integer cpuMillicores;
+
+    @Positive(message = "Memory limit must be positive")
+    private Integer memoryMb;
+
+    @Positive(message = "Timeout must be positive")
+    private Long timeoutSeconds;
+
     // Constructors
     public BinaryJobRequest() {
         super();
@@ -42,4 +60,22 @@ public class BinaryJobRequest extends JobRequest {
 
     public String getContentType() { return contentType; }
     public void setContentType(String contentType) { this.contentType = contentType; }
+
+    public String getMinioBucket() { return minioBucket; }
+    public void setMinioBucket(String minioBucket) { this.minioBucket = minioBucket; }
+
+    public String getMinioObjectName() { return minioObjectName; }
+    public void setMinioObjectName(String minioObjectName) { this.minioObjectName = minioObjectName; }
+
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+
+    public Integer getCpuMillicores() { return cpuMillicores; }
+    public void setCpuMillicores(Integer cpuMillicores) { this.cpuMillicores = cpuMillicores; }
+
+    public Integer getMemoryMb() { return memoryMb; }
+    public void setMemoryMb(Integer memoryMb) { this.memoryMb = memoryMb; }
+
+    public Long getTimeoutSeconds() { return timeoutSeconds; }
+    public void setTimeoutSeconds(Long timeoutSeconds) { this.timeoutSeconds = timeoutSeconds; }
 }
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.jobscheduler.dto;
+
+import com.jobscheduler.entity.Job;
+
+import java.time.LocalDateTime;
+
+public class DeadLetterEntry {
+
+    private int partition;
+    private long offset;
+    private String key;
+    private Long jobId;
+    private Job.JobType jobType;
+    private String originalTopic;
+    private int attempts;
+    private String lastError;
+    private String failedAt;
+    private LocalDateTime deadLetteredAt;
+    // Inlined job payload, or the raw bytes in Base64 if the record is not a job envelope
+    private String payload;
+
+    // Constructors
+    public DeadLetterEntry() {}
+
+    // Getters and Setters
+    public int getPartition() { return partition; }
+    public void setPartition(int partition) { this.partition = partition; }
+
+    public long getOffset() { return offset; }
+    public void setOffset(long offset) { this.offset = offset; }
+
+    public String getKey() { return key; }
+    public void setKey(String key) { this.key = key; }
+
+    public Long getJobId() { return jobId; }
+    public void setJobId(Long jobId) { this.jobId = jobId; }
+
+    public Job.JobType getJobType() { return jobType; }
+    public void setJobType(Job.JobType jobType) { this.jobType = jobType; }
+
+    public String getOriginalTopic() { return originalTopic; }
+    public void setOriginalTopic(String originalTopic) { this.originalTopic = originalTopic; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public String getFailedAt() { return failedAt; }
+    public void setFailedAt(String failedAt) { this.failedAt = failedAt; }
+
+    public LocalDateTime getDeadLetteredAt() { return deadLetteredAt; }
+    public void setDeadLetteredAt(LocalDateTime deadLetteredAt) { this.deadLetteredAt = deadLetteredAt; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+}
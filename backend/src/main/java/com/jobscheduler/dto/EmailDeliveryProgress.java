@@ -0,0 +1,70 @@
+package com.jobscheduler.dto;
+
+import com.jobscheduler.entity.Job;
+
+import java.time.LocalDateTime;
+
+public class EmailDeliveryProgress {
+
+    private Long jobId;
+    // RUNNING while chunks are in flight, then COMPLETED if every chunk was sent and FAILED otherwise
+    private Job.JobStatus status;
+    private int recipients;
+    private int chunks;
+    private int sentChunks;
+    private int failedChunks;
+    private int sentRecipients;
+    private int failedRecipients;
+    // Chunk sends repeated after a failed attempt
+    private int retries;
+    private String lastError;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+
+    // Constructors
+    public EmailDeliveryProgress() {}
+
+    // Summary recorded as the job run's error when some recipients were not reached
+    public String describeFailure() {
+        String summary = "Email sent to " + sentRecipients + " of " + recipients + " recipients; "
+                + failedChunks + " of " + chunks + " chunks failed";
+        return lastError != null ? summary + ": " + lastError : summary;
+    }
+
+    // Getters and Setters
+    public Long getJobId() { return jobId; }
+    public void setJobId(Long jobId) { this.jobId = jobId; }
+
+    public Job.JobStatus getStatus() { return status; }
+    public void setStatus(Job.JobStatus status) { this.status = status; }
+
+    public int getRecipients() { return recipients; }
+    public void setRecipients(int recipients) { this.recipients = recipients; }
+
+    public int getChunks() { return chunks; }
+    public void setChunks(int chunks) { this.chunks = chunks; }
+
+    public int getSentChunks() { return sentChunks; }
+    public void setSentChunks(int sentChunks) { this.sentChunks = sentChunks; }
+
+    public int getFailedChunks() { return failedChunks; }
+    public void setFailedChunks(int failedChunks) { this.failedChunks = failedChunks; }
+
+    public int getSentRecipients() { return sentRecipients; }
+    public void setSentRecipients(int sentRecipients) { this.sentRecipients = sentRecipients; }
+
+    public int getFailedRecipients() { return failedRecipients; }
+    public void setFailedRecipients(int failedRecipients) { this.failedRecipients = failedRecipients; }
+
+    public int getRetries() { return retries; }
+    public void setRetries(int retries) { this.retries = retries; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+}
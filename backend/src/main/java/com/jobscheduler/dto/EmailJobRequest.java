@@ -3,9 +3,11 @@ package com.jobscheduler.dto;
 import com.jobscheduler.entity.Job;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 public class EmailJobRequest extends JobRequest {
 
@@ -19,6 +21,12 @@ public class EmailJobRequest extends JobRequest {
     private String content;
 
     private String template = "default";
+
+    @Positive(message = "Template version must be positive")
+    private Integer templateVersion;
+
+    private Map<String, String> templateVariables;
+    private Map<String, Map<String, String>> recipientVariables;
     private List<String> attachments;
     private String htmlContent;
     private String senderEmail;
@@ -50,6 +58,15 @@ public class EmailJobRequest extends JobRequest {
     public String getTemplate() { return template; }
     public void setTemplate(String template) { this.template = template; }
 
+    public Integer getTemplateVersion() { return templateVersion; }
+    public void setTemplateVersion(Integer templateVersion) { this.templateVersion = templateVersion; }
+
+    public Map<String, String> getTemplateVariables() { return templateVariables; }
+    public void setTemplateVariables(Map<String, String> templateVariables) { this.templateVariables = templateVariables; }
+
+    public Map<String, Map<String, String>> getRecipientVariables() { return recipientVariables; }
+    public void setRecipientVariables(Map<String, Map<String, String>> recipientVariables) { this.recipientVariables = recipientVariables; }
+
     public List<String> getAttachments() { return attachments; }
     public void setAttachments(List<String> attachments) { this.attachments = attachments; }
 
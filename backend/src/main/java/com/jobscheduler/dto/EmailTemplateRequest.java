@@ -0,0 +1,31 @@
+package com.jobscheduler.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+
+public class EmailTemplateRequest {
+
+    @NotBlank(message = "Template name is required")
+    @Pattern(regexp = "[A-Za-z0-9._-]+", message = "Template name may only contain letters, digits, '.', '_' and '-'")
+    private String name;
+
+    private String subject;
+    private String content;
+    private String htmlContent;
+
+    // Constructors
+    public EmailTemplateRequest() {}
+
+    // Getters and Setters
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getSubject() { return subject; }
+    public void setSubject(String subject) { this.subject = subject; }
+
+    public String getContent() { return content; }
+    public void setContent(String content) { this.content = content; }
+
+    public String getHtmlContent() { return htmlContent; }
+    public void setHtmlContent(String htmlContent) { this.htmlContent = htmlContent; }
+}
@@ -0,0 +1,62 @@
+package com.jobscheduler.dto;
+
+import com.jobscheduler.entity.Job;
+import com.jobscheduler.entity.JobExecution;
+
+import java.time.LocalDateTime;
+
+public class JobExecutionResponse {
+
+    private Long id;
+    private Job.JobStatus status;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private Long durationMs;
+    private Integer exitCode;
+    private String errorMessage;
+    private String executionDetails;
+    private String logObjectName;
+
+    // Constructors
+    public JobExecutionResponse() {}
+
+    public JobExecutionResponse(JobExecution execution) {
+        this.id = execution.getId();
+        this.status = execution.getStatus();
+        this.startedAt = execution.getStartedAt();
+        this.completedAt = execution.getCompletedAt();
+        this.durationMs = execution.getDurationMs();
+        this.exitCode = execution.getExitCode();
+        this.errorMessage = execution.getErrorMessage();
+        this.executionDetails = execution.getExecutionDetails();
+        this.logObjectName = execution.getLogObjectName();
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Job.JobStatus getStatus() { return status; }
+    public void setStatus(Job.JobStatus status) { this.status = status; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+
+    public Long getDurationMs() { return durationMs; }
+    public void setDurationMs(Long durationMs) { this.durationMs = durationMs; }
+
+    public Integer getExitCode() { return exitCode; }
+    public void setExitCode(Integer exitCode) { this.exitCode = exitCode; }
+
+    public String getErrorMessage() { return errorMessage; }
+    public void setErrorMessage(String errorMessage) { this.errorMessage = errorMessage; }
+
+    public String getExecutionDetails() { return executionDetails; }
+    public void setExecutionDetails(String executionDetails) { this.executionDetails = executionDetails; }
+
+    public String getLogObjectName() { return logObjectName; }
+    public void setLogObjectName(String logObjectName) { this.logObjectName = logObjectName; }
+}
@@ -0,0 +1,40 @@
+package com.jobscheduler.dto;
+
+public class OutputTail {
+
+    private Long jobId;
+    // Byte offset of the first returned byte in the run's output
+    private long offset;
+    // Offset to pass as ?since= on the next poll
+    private long nextOffset;
+    // True when output after the requested offset has already left the tail
+    private boolean truncated;
+    private String output;
+
+    // Constructors
+    public OutputTail() {}
+
+    public OutputTail(Long jobId, long offset, long nextOffset, boolean truncated, String output) {
+        this.jobId = jobId;
+        this.offset = offset;
+        this.nextOffset = nextOffset;
+        this.truncated = truncated;
+        this.output = output;
+    }
+
+    // Getters and Setters
+    public Long getJobId() { return jobId; }
+    public void setJobId(Long jobId) { this.jobId = jobId; }
+
+    public long getOffset() { return offset; }
+    public void setOffset(long offset) { this.offset = offset; }
+
+    public long getNextOffset() { return nextOffset; }
+    public void setNextOffset(long nextOffset) { this.nextOffset = nextOffset; }
+
+    public boolean isTruncated() { return truncated; }
+    public void setTruncated(boolean truncated) { this.truncated = truncated; }
+
+    public String getOutput() { return output; }
+    public void setOutput(String output) { this.output = output; }
+}
@@ -0,0 +1,47 @@
+package com.jobscheduler.dto;
+
+import java.time.LocalDateTime;
+
+public class RunningBinaryResponse {
+
+    private String runId;
+    private Long jobId;
+    private LocalDateTime registeredAt;
+    // Null while the run waits for admission or its artifact
+    private LocalDateTime startedAt;
+    // The process, or the pooled JVM running the job; null for forked Python jobs
+    private Long pid;
+    private long timeoutSeconds;
+
+    // Constructors
+    public RunningBinaryResponse() {}
+
+    public RunningBinaryResponse(String runId, Long jobId, LocalDateTime registeredAt, LocalDateTime startedAt,
+                                 Long pid, long timeoutSeconds) {
+        this.runId = runId;
+        this.jobId = jobId;
+        this.registeredAt = registeredAt;
+        this.startedAt = startedAt;
+        this.pid = pid;
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    // Getters and Setters
+    public String getRunId() { return runId; }
+    public void setRunId(String runId) { this.runId = runId; }
+
+    public Long getJobId() { return jobId; }
+    public void setJobId(Long jobId) { this.jobId = jobId; }
+
+    public LocalDateTime getRegisteredAt() { return registeredAt; }
+    public void setRegisteredAt(LocalDateTime registeredAt) { this.registeredAt = registeredAt; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public Long getPid() { return pid; }
+    public void setPid(Long pid) { this.pid = pid; }
+
+    public long getTimeoutSeconds() { return timeoutSeconds; }
+    public void setTimeoutSeconds(long timeoutSeconds) { this.timeoutSeconds = timeoutSeconds; }
+}
@@ -10,7 +10,7 @@ import java.time.LocalDateTime;
 public class BinaryJob extends Job {
 
     @NotBlank
-    @Column(name = "file_path", nullable = false)
+    @Column(name = "file_path")
     private String filePath;
 
     @Column(name = "file_size")
@@ -31,6 +31,21 @@ public class BinaryJob extends Job {
     @Column(name = "minio_object_name")
     private String minioObjectName;
 
+    // Hex SHA-256 of the binary; the same for every job that runs the same content
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    // Declared resource limits; when absent the cost learned from earlier runs is used
+    @Column(name = "cpu_millicores")
+    private Integer cpuMillicores;
+
+    @Column(name = "memory_mb")
+    private Integer memoryMb;
+
+    // Runs are killed after this long; the configured default applies when absent
+    @Column(name = "timeout_seconds")
+    private Long timeoutSeconds;
+
     // Constructors
     public BinaryJob() {
         super();
@@ -69,4 +84,16 @@ public class BinaryJob extends Job {
 
     public String getMinioObjectName() { return minioObjectName; }
     public void setMinioObjectName(String minioObjectName) { this.minioObjectName = minioObjectName; }
+
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+
+    public Integer getCpuMillicores() { return cpuMillicores; }
+    public void setCpuMillicores(Integer cpuMillicores) { this.cpuMillicores = cpuMillicores; }
+
+    public Integer getMemoryMb() { return memoryMb; }
+    public void setMemoryMb(Integer memoryMb) { this.memoryMb = memoryMb; }
+
+    public Long getTimeoutSeconds() { return timeoutSeconds; }
+    public void setTimeoutSeconds(Long timeoutSeconds) { this.timeoutSeconds = timeoutSeconds; }
 }
\ No newline at end of file
@@ -6,7 +6,9 @@ import jakarta.validation.constraints.NotEmpty;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Entity
 @DiscriminatorValue("EMAIL")
@@ -19,16 +21,33 @@ public class EmailJob extends Job {
     private List<String> recipients = new ArrayList<>();
 
     @NotBlank
-    @Column(name = "subject", nullable = false)
+    @Column(name = "subject")
     private String subject;
 
     @NotBlank
-    @Column(name = "content", nullable = false, columnDefinition = "TEXT")
+    @Column(name = "content", columnDefinition = "TEXT")
     private String content;
 
+    // Name of a stored email template, or "default" for the job's own subject and content
     @Column(name = "template")
     private String template = "default";
 
+    // Version of the stored template; the latest version at send time when absent
+    @Column(name = "template_version")
+    private Integer templateVersion;
+
+    // Values for {{name}} placeholders shared by all recipients
+    @ElementCollection
+    @CollectionTable(name = "email_template_variables", joinColumns = @JoinColumn(name = "job_id"))
+    @MapKeyColumn(name = "variable_name")
+    @Column(name = "variable_value", columnDefinition = "TEXT")
+    private Map<String, String> templateVariables = new HashMap<>();
+
+    // Per-recipient values, keyed by recipient address; these take precedence over the shared ones
+    @Convert(converter = RecipientVariablesConverter.class)
+    @Column(name = "recipient_variables", columnDefinition = "TEXT")
+    private Map<String, Map<String, String>> recipientVariables;
+
     @ElementCollection
     @CollectionTable(name = "email_attachments", joinColumns = @JoinColumn(name = "job_id"))
     @Column(name = "attachment_path")
@@ -74,6 +93,15 @@ public class EmailJob extends Job {
     public String getTemplate() { return template; }
     public void setTemplate(String template) { this.template = template; }
 
+    public Integer getTemplateVersion() { return templateVersion; }
+    public void setTemplateVersion(Integer templateVersion) { this.templateVersion = templateVersion; }
+
+    public Map<String, String> getTemplateVariables() { return templateVariables; }
+    public void setTemplateVariables(Map<String, String> templateVariables) { this.templateVariables = templateVariables; }
+
+    public Map<String, Map<String, String>> getRecipientVariables() { return recipientVariables; }
+    public void setRecipientVariables(Map<String, Map<String, String>> recipientVariables) { this.recipientVariables = recipientVariables; }
+
     public List<String> getAttachments() { return attachments; }
     public void setAttachments(List<String> attachments) { this.attachments = attachments; }
 
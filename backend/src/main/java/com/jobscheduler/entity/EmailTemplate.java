@@ -0,0 +1,73 @@
+package com.jobscheduler.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * One version of a named email template. Versions are never changed once saved; saving a template
+ * under an existing name adds the next version, so a compiled version can be cached for good.
+ */
+@Entity
+@Table(name = "email_templates",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"name", "version"}))
+public class EmailTemplate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
+    // Each part is optional; an email job's own subject and content fill in what the template leaves out
+    @Column(name = "subject")
+    private String subject;
+
+    @Column(name = "content", columnDefinition = "TEXT")
+    private String content;
+
+    @Column(name = "html_content", columnDefinition = "TEXT")
+    private String htmlContent;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public EmailTemplate() {}
+
+    public EmailTemplate(String name, Integer version, String subject, String content, String htmlContent) {
+        this.name = name;
+        this.version = version;
+        this.subject = subject;
+        this.content = content;
+        this.htmlContent = htmlContent;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public Integer getVersion() { return version; }
+    public void setVersion(Integer version) { this.version = version; }
+
+    public String getSubject() { return subject; }
+    public void setSubject(String subject) { this.subject = subject; }
+
+    public String getContent() { return content; }
+    public void setContent(String content) { this.content = content; }
+
+    public String getHtmlContent() { return htmlContent; }
+    public void setHtmlContent(String htmlContent) { this.htmlContent = htmlContent; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
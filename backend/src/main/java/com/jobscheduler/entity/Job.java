@@ -16,10 +16,17 @@ import java.util.List;
 @DiscriminatorColumn(name = "job_type", discriminatorType = DiscriminatorType.STRING)
 public abstract class Job {
 
+    // Pooled sequence so bulk inserts can be JDBC-batched (IDENTITY forces one round trip per row)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "job_seq")
+    @SequenceGenerator(name = "job_seq", sequenceName = "jobs_seq", allocationSize = 50)
     private Long id;
 
+    // Bumped on every entity update; job messages carry it so consumers can tell stale cached payloads
+    @Version
+    @Column(name = "version")
+    private Long version;
+
     @NotBlank
     @Column(nullable = false)
     private String name;
@@ -82,6 +89,9 @@ public abstract class Job {
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
 
@@ -37,6 +37,14 @@ public class JobExecution {
     @Column(name = "duration_ms")
     private Long durationMs;
 
+    // Process exit code for binary jobs, null for other job types
+    @Column(name = "exit_code")
+    private Integer exitCode;
+
+    // MinIO object in the job log bucket holding the full gzip-compressed output
+    @Column(name = "log_object_name")
+    private String logObjectName;
+
     // Constructors
     public JobExecution() {}
 
@@ -69,4 +77,10 @@ public class JobExecution {
 
     public Long getDurationMs() { return durationMs; }
     public void setDurationMs(Long durationMs) { this.durationMs = durationMs; }
+
+    public Integer getExitCode() { return exitCode; }
+    public void setExitCode(Integer exitCode) { this.exitCode = exitCode; }
+
+    public String getLogObjectName() { return logObjectName; }
+    public void setLogObjectName(String logObjectName) { this.logObjectName = logObjectName; }
 }
\ No newline at end of file
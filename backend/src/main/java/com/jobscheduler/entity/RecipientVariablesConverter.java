@@ -0,0 +1,43 @@
+package com.jobscheduler.entity;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Map;
+
+/**
+ * Stores an email job's per-recipient template variables as one JSON document.
+ */
+@Converter
+public class RecipientVariablesConverter implements AttributeConverter<Map<String, Map<String, String>>, String> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, Map<String, String>>> TYPE = new TypeReference<>() {};
+
+    @Override
+    public String convertToDatabaseColumn(Map<String, Map<String, String>> variables) {
+        if (variables == null || variables.isEmpty()) {
+            return null;
+        }
+        try {
+            return MAPPER.writeValueAsString(variables);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Recipient variables cannot be stored as JSON", e);
+        }
+    }
+
+    @Override
+    public Map<String, Map<String, String>> convertToEntityAttribute(String json) {
+        if (json == null || json.isEmpty()) {
+            return null;
+        }
+        try {
+            return MAPPER.readValue(json, TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Stored recipient variables are not valid JSON", e);
+        }
+    }
+}
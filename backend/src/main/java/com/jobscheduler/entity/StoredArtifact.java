@@ -0,0 +1,92 @@
+package com.jobscheduler.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Index entry for an uploaded file, so that another upload of the same content to the same
+ * bucket can reuse the stored object. The extension is part of the key because it decides how a
+ * binary is launched. Every upload that was handed the object holds a reference on it, and the
+ * object is removed only once the last of them is deleted.
+ */
+@Entity
+@Table(name = "stored_artifacts",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"bucket_name", "content_hash", "extension"}),
+       indexes = @Index(columnList = "bucket_name, object_name"))
+public class StoredArtifact {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "bucket_name", nullable = false)
+    private String bucketName;
+
+    @Column(name = "object_name", nullable = false)
+    private String objectName;
+
+    // Hex SHA-256 of the object's content
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    // Lower-case file extension without the dot, empty when there is none
+    @Column(name = "extension", nullable = false)
+    private String extension;
+
+    @Column(name = "size", nullable = false)
+    private Long size;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    // Uploads holding the object: the first one and each upload deduplicated onto it since
+    @Column(name = "reference_count", nullable = false)
+    private int referenceCount = 1;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public StoredArtifact() {}
+
+    public StoredArtifact(String bucketName, String objectName, String contentHash, String extension,
+                          Long size, String contentType) {
+        this.bucketName = bucketName;
+        this.objectName = objectName;
+        this.contentHash = contentHash;
+        this.extension = extension;
+        this.size = size;
+        this.contentType = contentType;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getBucketName() { return bucketName; }
+    public void setBucketName(String bucketName) { this.bucketName = bucketName; }
+
+    public String getObjectName() { return objectName; }
+    public void setObjectName(String objectName) { this.objectName = objectName; }
+
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+
+    public String getExtension() { return extension; }
+    public void setExtension(String extension) { this.extension = extension; }
+
+    public Long getSize() { return size; }
+    public void setSize(Long size) { this.size = size; }
+
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+
+    public int getReferenceCount() { return referenceCount; }
+    public void setReferenceCount(int referenceCount) { this.referenceCount = referenceCount; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
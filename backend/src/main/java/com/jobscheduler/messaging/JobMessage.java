@@ -0,0 +1,46 @@
+package com.jobscheduler.messaging;
+
+import com.jobscheduler.entity.Job;
+
+/**
+ * Decoded job envelope. Carries enough to identify a fire; the job payload itself is either
+ * inlined (small jobs) or left in the database and fetched by the consumer (claim check).
+ */
+public final class JobMessage {
+
+    private final Job.JobType jobType;
+    private final long jobId;
+    private final long jobVersion;
+    private final long fireTime;
+    private final byte[] payload;
+
+    public JobMessage(Job.JobType jobType, long jobId, long jobVersion, long fireTime, byte[] payload) {
+        this.jobType = jobType;
+        this.jobId = jobId;
+        this.jobVersion = jobVersion;
+        this.fireTime = fireTime;
+        this.payload = payload;
+    }
+
+    public Job.JobType getJobType() { return jobType; }
+
+    public long getJobId() { return jobId; }
+
+    public long getJobVersion() { return jobVersion; }
+
+    // Epoch millis at which the job was fired
+    public long getFireTime() { return fireTime; }
+
+    // Inlined JSON payload, or null when the consumer has to fetch the job
+    public byte[] getPayload() { return payload; }
+
+    public boolean hasPayload() {
+        return payload != null;
+    }
+
+    @Override
+    public String toString() {
+        return "JobMessage{type=" + jobType + ", jobId=" + jobId + ", jobVersion=" + jobVersion +
+               ", fireTime=" + fireTime + ", payloadBytes=" + (payload != null ? payload.length : 0) + "}";
+    }
+}
@@ -0,0 +1,97 @@
+package com.jobscheduler.messaging;
+
+import com.jobscheduler.entity.Job;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Binary encoding of {@link JobMessage}, format version 1:
+ *
+ * <pre>
+ *  offset  size  field
+ *       0     1  magic 'J'
+ *       1     1  format version
+ *       2     1  job type (1 = BINARY, 2 = EMAIL)
+ *       3     1  flags (bit 0: payload inlined)
+ *       4     8  job id
+ *      12     8  job version
+ *      20     8  fire time, epoch millis
+ *      28     4  payload length   (only when inlined)
+ *      32     n  payload, UTF-8 JSON
+ * </pre>
+ *
+ * A reference-only message is 28 bytes. Decoding rejects other magic bytes and format
+ * versions, so a format change must bump {@link #FORMAT_VERSION} and keep decoding the old one.
+ */
+public final class JobMessageCodec {
+
+    public static final byte MAGIC = 'J';
+    public static final byte FORMAT_VERSION = 1;
+
+    private static final int HEADER_SIZE = 28;
+    private static final byte FLAG_INLINE_PAYLOAD = 1;
+
+    private JobMessageCodec() {}
+
+    public static byte[] encode(JobMessage message) {
+        byte[] payload = message.getPayload();
+        int size = HEADER_SIZE + (payload != null ? 4 + payload.length : 0);
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(MAGIC);
+        buffer.put(FORMAT_VERSION);
+        buffer.put(typeCode(message.getJobType()));
+        buffer.put(payload != null ? FLAG_INLINE_PAYLOAD : 0);
+        buffer.putLong(message.getJobId());
+        buffer.putLong(message.getJobVersion());
+        buffer.putLong(message.getFireTime());
+        if (payload != null) {
+            buffer.putInt(payload.length);
+            buffer.put(payload);
+        }
+        return buffer.array();
+    }
+
+    public static JobMessage decode(byte[] bytes) {
+        if (bytes == null || bytes.length < HEADER_SIZE || bytes[0] != MAGIC) {
+            throw new IllegalArgumentException("Not a job message envelope");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.get();
+        byte formatVersion = buffer.get();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported job message format version: " + formatVersion);
+        }
+        Job.JobType jobType = jobType(buffer.get());
+        byte flags = buffer.get();
+        long jobId = buffer.getLong();
+        long jobVersion = buffer.getLong();
+        long fireTime = buffer.getLong();
+
+        byte[] payload = null;
+        if ((flags & FLAG_INLINE_PAYLOAD) != 0) {
+            int length = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                throw new IllegalArgumentException("Truncated job message payload");
+            }
+            payload = new byte[length];
+            buffer.get(payload);
+        }
+        return new JobMessage(jobType, jobId, jobVersion, fireTime, payload);
+    }
+
+    private static byte typeCode(Job.JobType jobType) {
+        switch (jobType) {
+            case BINARY: return 1;
+            case EMAIL: return 2;
+            default: throw new IllegalArgumentException("Unsupported job type: " + jobType);
+        }
+    }
+
+    private static Job.JobType jobType(byte code) {
+        switch (code) {
+            case 1: return Job.JobType.BINARY;
+            case 2: return Job.JobType.EMAIL;
+            default: throw new IllegalArgumentException("Unknown job type code: " + code);
+        }
+    }
+}
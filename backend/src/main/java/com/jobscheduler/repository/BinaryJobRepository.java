@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -13,9 +14,17 @@ public interface BinaryJobRepository extends JpaRepository<BinaryJob, Long> {
 
     List<BinaryJob> findByOriginalFilename(String originalFilename);
 
+    long countByMinioBucketAndMinioObjectName(String minioBucket, String minioObjectName);
+
     @Query("SELECT b FROM BinaryJob b WHERE b.minioBucket = :bucket")
     List<BinaryJob> findByMinioBucket(@Param("bucket") String bucket);
 
     @Query("SELECT b FROM BinaryJob b WHERE b.fileSize > :minSize")
     List<BinaryJob> findByFileSizeGreaterThan(@Param("minSize") Long minSize);
+
+    // MinIO-backed jobs that can still fire: one-shots scheduled up to latest and all live recurring jobs
+    @Query("SELECT b FROM BinaryJob b WHERE b.minioBucket IS NOT NULL AND b.minioObjectName IS NOT NULL " +
+           "AND ((b.repeatPattern = 'ONCE' AND b.status = 'PENDING' AND b.scheduledTime <= :latest) " +
+           "OR (b.repeatPattern != 'ONCE' AND b.status != 'CANCELLED'))")
+    List<BinaryJob> findPrefetchCandidates(@Param("latest") LocalDateTime latest);
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.jobscheduler.repository;
+
+import com.jobscheduler.entity.EmailTemplate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface EmailTemplateRepository extends JpaRepository<EmailTemplate, Long> {
+
+    Optional<EmailTemplate> findByNameAndVersion(String name, Integer version);
+
+    List<EmailTemplate> findByNameOrderByVersionDesc(String name);
+
+    @Query("SELECT MAX(t.version) FROM EmailTemplate t WHERE t.name = :name")
+    Integer findLatestVersion(@Param("name") String name);
+
+    // Latest version of every template
+    @Query("SELECT t FROM EmailTemplate t WHERE t.version = " +
+           "(SELECT MAX(o.version) FROM EmailTemplate o WHERE o.name = t.name) ORDER BY t.name")
+    List<EmailTemplate> findLatestVersions();
+}
@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -22,6 +23,12 @@ public interface JobRepository extends JpaRepository<Job, Long> {
     @Query("SELECT j FROM Job j WHERE j.nextRun <= :now AND j.status = 'PENDING' AND j.repeatPattern != 'ONCE'")
     List<Job> findRecurringJobsReadyForExecution(@Param("now") LocalDateTime now);
 
+    @Query("SELECT j FROM Job j WHERE j.status = 'PENDING' OR (j.repeatPattern != 'ONCE' AND j.status != 'CANCELLED')")
+    List<Job> findSchedulableJobs();
+
+    @Query("SELECT j.id FROM Job j WHERE j.id IN :ids AND j.status <> 'CANCELLED'")
+    List<Long> findActiveIds(@Param("ids") Collection<Long> ids);
+
     Page<Job> findByStatusOrderByCreatedAtDesc(Job.JobStatus status, Pageable pageable);
 
     @Query("SELECT j FROM Job j WHERE j.name LIKE %:name%")
@@ -0,0 +1,164 @@
+package com.jobscheduler.repository;
+
+import com.jobscheduler.entity.Job;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Status transitions as single conditional UPDATEs, without loading the entity. A transition
+ * never touches cancelled jobs, applies only while the job is still at the version the caller
+ * saw (when one is given), and increments {@code execution_count} in the statement itself.
+ * The entity version is not bumped, so status changes do not invalidate cached job payloads or
+ * the versions carried by scheduled snapshots; status changes should therefore come through here
+ * rather than through a JPA save.
+ */
+@Repository
+public class JobStatusRepository {
+
+    private static final String TRANSITION_SQL =
+            "UPDATE jobs SET status = ?, updated_at = ?, last_run = COALESCE(?, last_run), " +
+            "execution_count = COALESCE(execution_count, 0) + ? " +
+            "WHERE id = ? AND status <> 'CANCELLED' AND version = COALESCE(?, version)";
+
+    // Skips rows a consumer has already picked up for this fire, and cancelled jobs
+    private static final String MARK_FIRED_SQL =
+            "UPDATE jobs SET status = 'RUNNING', updated_at = ? " +
+            "WHERE id = ? AND status <> 'CANCELLED' AND (last_run IS NULL OR last_run < ?)";
+
+    // Status set on request: applies to cancelled jobs as well, and whatever their version
+    private static final String SET_STATUS_SQL =
+            "UPDATE jobs SET status = ?, updated_at = ?, last_run = COALESCE(?, last_run) WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Returns whether the job exists
+    public boolean set(Long jobId, Job.JobStatus status, LocalDateTime lastRun) {
+        Object[] args = {status.name(), Timestamp.valueOf(LocalDateTime.now()),
+                lastRun != null ? Timestamp.valueOf(lastRun) : null, jobId};
+        int[] types = {Types.VARCHAR, Types.TIMESTAMP, Types.TIMESTAMP, Types.BIGINT};
+        return jdbcTemplate.update(SET_STATUS_SQL, args, types) > 0;
+    }
+
+    // Returns whether the transition was applied
+    public boolean apply(Transition transition) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return jdbcTemplate.update(TRANSITION_SQL, ps -> bind(ps, transition, now)) > 0;
+    }
+
+    // Applies the transitions as one JDBC batch and returns those that matched no row
+    public List<Transition> applyAll(List<Transition> transitions) {
+        if (transitions.isEmpty()) {
+            return List.of();
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = jdbcTemplate.batchUpdate(TRANSITION_SQL, transitions, transitions.size(),
+                (ps, transition) -> bind(ps, transition, now));
+        List<Transition> skipped = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // SUCCESS_NO_INFO (-2) from some drivers says nothing either way, so only 0 counts as skipped
+                if (count == 0) {
+                    skipped.add(transitions.get(index));
+                }
+                index++;
+            }
+        }
+        return skipped;
+    }
+
+    // RUNNING marks for fires whose message has been published, unless a consumer got there first
+    public int markFired(Map<Long, LocalDateTime> firedAtByJob) {
+        if (firedAtByJob.isEmpty()) {
+            return 0;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Map.Entry<Long, LocalDateTime>> marks = new ArrayList<>(firedAtByJob.entrySet());
+        int[][] counts = jdbcTemplate.batchUpdate(MARK_FIRED_SQL, marks, marks.size(), (ps, mark) -> {
+            ps.setTimestamp(1, now);
+            ps.setLong(2, mark.getKey());
+            ps.setTimestamp(3, Timestamp.valueOf(mark.getValue()));
+        });
+        return applied(counts);
+    }
+
+    private static void bind(PreparedStatement ps, Transition transition, Timestamp now) throws SQLException {
+        ps.setString(1, transition.status.name());
+        ps.setTimestamp(2, now);
+        if (transition.startedAt != null) {
+            ps.setTimestamp(3, Timestamp.valueOf(transition.startedAt));
+        } else {
+            ps.setNull(3, Types.TIMESTAMP);
+        }
+        ps.setInt(4, transition.executions);
+        ps.setLong(5, transition.jobId);
+        if (transition.expectedVersion != null) {
+            ps.setLong(6, transition.expectedVersion);
+        } else {
+            ps.setNull(6, Types.BIGINT);
+        }
+    }
+
+    private static int applied(int[][] counts) {
+        int applied = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // SUCCESS_NO_INFO (-2) from some drivers is unknown rather than applied
+                applied += count > 0 ? 1 : 0;
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * One status change for one job. Transitions for the same job can be merged, which keeps the
+     * latest status, the latest start time and the sum of the execution increments.
+     */
+    public static final class Transition {
+        private final Long jobId;
+        private final Long expectedVersion;
+        private final Job.JobStatus status;
+        private final LocalDateTime startedAt;
+        private final int executions;
+
+        private Transition(Long jobId, Long expectedVersion, Job.JobStatus status, LocalDateTime startedAt, int executions) {
+            this.jobId = jobId;
+            this.expectedVersion = expectedVersion;
+            this.status = status;
+            this.startedAt = startedAt;
+            this.executions = executions;
+        }
+
+        // A run has started: RUNNING, last_run set and one more execution counted
+        public static Transition started(Long jobId, Long expectedVersion, LocalDateTime startedAt) {
+            return new Transition(jobId, expectedVersion, Job.JobStatus.RUNNING, startedAt, 1);
+        }
+
+        public static Transition to(Long jobId, Long expectedVersion, Job.JobStatus status) {
+            return new Transition(jobId, expectedVersion, status, null, 0);
+        }
+
+        public Transition merge(Transition later) {
+            LocalDateTime startedAt = later.startedAt != null ? later.startedAt : this.startedAt;
+            Long expectedVersion = this.expectedVersion != null ? this.expectedVersion : later.expectedVersion;
+            return new Transition(jobId, expectedVersion, later.status, startedAt, executions + later.executions);
+        }
+
+        public Long getJobId() { return jobId; }
+
+        public Long getExpectedVersion() { return expectedVersion; }
+
+        public Job.JobStatus getStatus() { return status; }
+    }
+}
@@ -0,0 +1,39 @@
+package com.jobscheduler.repository;
+
+import com.jobscheduler.entity.StoredArtifact;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StoredArtifactRepository extends JpaRepository<StoredArtifact, Long> {
+
+    Optional<StoredArtifact> findByBucketNameAndContentHashAndExtension(String bucketName, String contentHash,
+                                                                        String extension);
+
+    List<StoredArtifact> findByBucketNameAndObjectName(String bucketName, String objectName);
+
+    // Matches nothing once the last reference has been deleted
+    @Transactional
+    @Modifying
+    @Query("UPDATE StoredArtifact a SET a.referenceCount = a.referenceCount + 1 WHERE a.id = :id")
+    int addReference(@Param("id") Long id);
+
+    // Matches nothing when the caller holds the last reference
+    @Transactional
+    @Modifying
+    @Query("UPDATE StoredArtifact a SET a.referenceCount = a.referenceCount - 1 WHERE a.id = :id AND a.referenceCount > 1")
+    int releaseReference(@Param("id") Long id);
+
+    // Matches nothing when another upload has taken a reference in the meantime
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM StoredArtifact a WHERE a.id = :id AND a.referenceCount = 1")
+    int deleteLastReference(@Param("id") Long id);
+}
@@ -0,0 +1,144 @@
+package com.jobscheduler.scheduler;
+
+import com.jobscheduler.entity.BinaryJob;
+import com.jobscheduler.repository.BinaryJobRepository;
+import com.jobscheduler.service.ArtifactCacheService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Downloads the MinIO artifacts of binary jobs into the artifact cache shortly before they are
+ * due, so the run that follows finds them on disk instead of fetching them on its critical
+ * path. Due times come from the same trigger timing the scheduler engines use, plus the job's
+ * delay. Whether it paid off shows up as prefetch hits and misses in the cache statistics.
+ */
+@Component
+@ConditionalOnProperty(name = "app.binary.prefetch.enabled", havingValue = "true", matchIfMissing = true)
+public class ArtifactPrefetcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactPrefetcher.class);
+
+    // Scheduled times are wall-clock times in the job's zone, up to 26 hours away from ours
+    private static final Duration ZONE_SLACK = Duration.ofHours(26);
+
+    @Autowired
+    private BinaryJobRepository binaryJobRepository;
+
+    @Autowired
+    private ArtifactCacheService artifactCacheService;
+
+    @Value("${app.binary.prefetch.lookahead-minutes:10}")
+    private long lookaheadMinutes;
+
+    @Value("${app.binary.prefetch.concurrency:2}")
+    private int concurrency;
+
+    private ExecutorService prefetchExecutor;
+
+    // bucket/object of prefetches queued or downloading, so slow ones are not queued twice
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong scans = new AtomicLong();
+    private final AtomicLong due = new AtomicLong();
+    private final AtomicLong downloaded = new AtomicLong();
+    private final AtomicLong alreadyCached = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        prefetchExecutor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "artifact-prefetch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        prefetchExecutor.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${app.binary.prefetch.scan-interval-ms:60000}")
+    public void scan() {
+        if (!artifactCacheService.isEnabled()) {
+            return;
+        }
+        scans.incrementAndGet();
+        Instant now = Instant.now();
+        Instant horizon = now.plus(Duration.ofMinutes(lookaheadMinutes));
+        List<BinaryJob> candidates = binaryJobRepository.findPrefetchCandidates(
+                LocalDateTime.now().plusMinutes(lookaheadMinutes).plus(ZONE_SLACK));
+
+        // Earliest run first, one prefetch per artifact however many jobs share it
+        Map<String, Instant> runTimes = new HashMap<>();
+        Map<String, BinaryJob> jobs = new HashMap<>();
+        for (BinaryJob job : candidates) {
+            Instant runAt = JobTriggers.nextFireTime(job, now)
+                    .plus(Duration.ofMinutes(job.getDelayMinutes() != null ? job.getDelayMinutes() : 0));
+            String ref = job.getMinioBucket() + "/" + job.getMinioObjectName();
+            Instant earliest = runTimes.get(ref);
+            if (!runAt.isAfter(horizon) && (earliest == null || runAt.isBefore(earliest))) {
+                runTimes.put(ref, runAt);
+                jobs.put(ref, job);
+            }
+        }
+        runTimes.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue())
+                .forEach(artifact -> submit(artifact.getKey(), jobs.get(artifact.getKey()), artifact.getValue()));
+    }
+
+    public Map<String, Object> getStatistics() {
+        return Map.of(
+            "lookaheadMinutes", lookaheadMinutes,
+            "scans", scans.get(),
+            "due", due.get(),
+            "downloaded", downloaded.get(),
+            "alreadyCached", alreadyCached.get(),
+            "failures", failures.get(),
+            "inFlight", inFlight.size()
+        );
+    }
+
+    private void submit(String ref, BinaryJob job, Instant runAt) {
+        if (!inFlight.add(ref)) {
+            return;
+        }
+        due.incrementAndGet();
+        prefetchExecutor.execute(() -> {
+            try {
+                if (artifactCacheService.prefetch(job.getMinioBucket(), job.getMinioObjectName())) {
+                    downloaded.incrementAndGet();
+                    logger.info("Prefetched artifact {} for job {} due at {}", ref, job.getId(), runAt);
+                } else {
+                    alreadyCached.incrementAndGet();
+                }
+            } catch (Exception e) {
+                failures.incrementAndGet();
+                logger.warn("Could not prefetch artifact {} for job {}: {}", ref, job.getId(), e.getMessage());
+            } finally {
+                inFlight.remove(ref);
+            }
+        });
+    }
+}
@@ -0,0 +1,211 @@
+package com.jobscheduler.scheduler;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel. Level 0 buckets span one tick and every higher level's bucket
+ * spans a full rotation of the level below, so a few hundred buckets per level cover years
+ * of future deadlines. Scheduling and cancelling are O(1) linked-list operations; advancing
+ * the clock touches one bucket per level per tick, cascading entries down a level when their
+ * coarse bucket comes due.
+ *
+ * <p>Entries never fire early: a deadline fires on the first {@link #advanceTo} call whose
+ * time is at or past the end of the tick containing it.
+ *
+ * <p>Not thread-safe; callers serialise access.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final long tickMs;
+    private final int mask;
+    private final long[] levelTickMs;
+    private final Bucket<T>[][] levels;
+
+    // Start of the oldest tick that has not been expired yet
+    private long currentTime;
+    private long size;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, int levelCount, long startMs) {
+        if (tickMs <= 0) {
+            throw new IllegalArgumentException("tickMs must be positive");
+        }
+        if (wheelSize < 2 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("wheelSize must be a power of two");
+        }
+        if (levelCount < 1) {
+            throw new IllegalArgumentException("levelCount must be at least 1");
+        }
+        this.tickMs = tickMs;
+        this.mask = wheelSize - 1;
+        this.levelTickMs = new long[levelCount];
+        this.levels = new Bucket[levelCount][];
+
+        long levelTick = tickMs;
+        for (int level = 0; level < levelCount; level++) {
+            levelTickMs[level] = levelTick;
+            levels[level] = new Bucket[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                levels[level][i] = new Bucket<>();
+            }
+            levelTick = Math.multiplyExact(levelTick, wheelSize);
+        }
+        this.currentTime = startMs - Math.floorMod(startMs, tickMs);
+    }
+
+    public Timeout<T> schedule(long deadlineMs, T payload) {
+        Timeout<T> timeout = new Timeout<>(deadlineMs, payload);
+        insert(timeout);
+        size++;
+        return timeout;
+    }
+
+    public boolean cancel(Timeout<T> timeout) {
+        if (timeout.bucket == null) {
+            return false;
+        }
+        timeout.unlink();
+        size--;
+        return true;
+    }
+
+    /**
+     * Expires every tick that ended at or before {@code nowMs}, handing each due entry to
+     * {@code expired}. The callback may schedule new entries.
+     */
+    public int advanceTo(long nowMs, Consumer<Timeout<T>> expired) {
+        int fired = 0;
+        while (currentTime + tickMs <= nowMs) {
+            Timeout<T> due = levels[0][index(currentTime, 0)].drain();
+            currentTime += tickMs;
+            cascade();
+            while (due != null) {
+                Timeout<T> next = due.next;
+                due.next = null;
+                size--;
+                fired++;
+                expired.accept(due);
+                due = next;
+            }
+        }
+        return fired;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public long getCurrentTime() {
+        return currentTime;
+    }
+
+    public long getTickMs() {
+        return tickMs;
+    }
+
+    // Re-inserts entries of every higher-level bucket the clock has just entered
+    private void cascade() {
+        for (int level = 1; level < levels.length; level++) {
+            if (currentTime % levelTickMs[level] != 0) {
+                // Higher levels only turn over on a boundary of this one
+                return;
+            }
+            Timeout<T> entry = levels[level][index(currentTime, level)].drain();
+            while (entry != null) {
+                Timeout<T> next = entry.next;
+                entry.next = null;
+                insert(entry);
+                entry = next;
+            }
+        }
+    }
+
+    private void insert(Timeout<T> timeout) {
+        long deadline = timeout.deadlineMs;
+        if (deadline < currentTime + tickMs) {
+            // Already due: fire with the current tick
+            levels[0][index(currentTime, 0)].add(timeout);
+            return;
+        }
+
+        int top = levels.length - 1;
+        for (int level = 0; level <= top; level++) {
+            long levelTick = levelTickMs[level];
+            long levelStart = currentTime - currentTime % levelTick;
+            if (deadline < levelStart + levelTick * (mask + 1)) {
+                levels[level][index(deadline, level)].add(timeout);
+                return;
+            }
+        }
+
+        // Beyond the top level's horizon: park in its last bucket and re-evaluate on cascade
+        long topTick = levelTickMs[top];
+        long topStart = currentTime - currentTime % topTick;
+        levels[top][index(topStart - topTick, top)].add(timeout);
+    }
+
+    private int index(long timeMs, int level) {
+        return (int) ((timeMs / levelTickMs[level]) & mask);
+    }
+
+    public static final class Timeout<T> {
+
+        private final long deadlineMs;
+        private final T payload;
+
+        private Bucket<T> bucket;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(long deadlineMs, T payload) {
+            this.deadlineMs = deadlineMs;
+            this.payload = payload;
+        }
+
+        public long getDeadlineMs() { return deadlineMs; }
+
+        public T getPayload() { return payload; }
+
+        public boolean isPending() { return bucket != null; }
+
+        private void unlink() {
+            if (prev != null) {
+                prev.next = next;
+            } else {
+                bucket.head = next;
+            }
+            if (next != null) {
+                next.prev = prev;
+            }
+            prev = null;
+            next = null;
+            bucket = null;
+        }
+    }
+
+    private static final class Bucket<T> {
+
+        private Timeout<T> head;
+
+        void add(Timeout<T> timeout) {
+            timeout.bucket = this;
+            timeout.prev = null;
+            timeout.next = head;
+            if (head != null) {
+                head.prev = timeout;
+            }
+            head = timeout;
+        }
+
+        // Detaches the whole list; returned entries are chained through next only
+        Timeout<T> drain() {
+            Timeout<T> first = head;
+            head = null;
+            for (Timeout<T> t = first; t != null; t = t.next) {
+                t.bucket = null;
+                t.prev = null;
+            }
+            return first;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.jobscheduler.scheduler;
+
+import com.jobscheduler.entity.Job;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+/**
+ * Trigger timing shared by all scheduler engines.
+ */
+final class JobTriggers {
+
+    private JobTriggers() {}
+
+    static Instant firstFireTime(Job job) {
+        return job.getScheduledTime().atZone(ZoneId.of(job.getTimezone())).toInstant();
+    }
+
+    // Next fire at or after now; a one-shot job whose time has passed keeps its scheduled time
+    static Instant nextFireTime(Job job, Instant now) {
+        Instant first = firstFireTime(job);
+        Duration interval = repeatInterval(job.getRepeatPattern());
+        if (interval == null || first.isAfter(now)) {
+            return first;
+        }
+        long missed = Duration.between(first, now).toMillis() / interval.toMillis() + 1;
+        return first.plus(interval.multipliedBy(missed));
+    }
+
+    // Returns null for patterns that fire only once
+    static Duration repeatInterval(Job.RepeatPattern repeatPattern) {
+        switch (repeatPattern) {
+            case DAILY:
+                return Duration.ofHours(24);
+            case WEEKLY:
+                return Duration.ofHours(24 * 7);
+            case MONTHLY:
+                return Duration.ofHours(24 * 30); // Approximate
+            case YEARLY:
+                return Duration.ofHours(24 * 365); // Approximate
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.jobscheduler.scheduler;
+
+import com.jobscheduler.entity.Job;
+import org.quartz.*;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Component
+@ConditionalOnProperty(name = "app.scheduler.engine", havingValue = "quartz", matchIfMissing = true)
+public class QuartzSchedulerEngine implements SchedulerEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuartzSchedulerEngine.class);
+
+    static final String JOB_GROUP = "job-group";
+    static final String TRIGGER_GROUP = "trigger-group";
+
+    @Autowired
+    private Scheduler scheduler;
+
+    @Autowired
+    private ScheduledJobDispatcher dispatcher;
+
+    @Override
+    public String getName() {
+        return "quartz";
+    }
+
+    @Override
+    public void schedule(Job job) {
+        try {
+            scheduler.scheduleJob(createJobDetail(job), createTrigger(job));
+            logger.info("Job {} scheduled successfully", job.getId());
+        } catch (SchedulerException e) {
+            logger.error("Error scheduling job: {}", job.getId(), e);
+            throw new RuntimeException("Failed to schedule job", e);
+        }
+    }
+
+    @Override
+    public void scheduleAll(List<? extends Job> jobs) {
+        if (jobs.isEmpty()) {
+            return;
+        }
+        Map<JobDetail, Set<? extends Trigger>> triggersAndJobs = new LinkedHashMap<>();
+        for (Job job : jobs) {
+            triggersAndJobs.put(createJobDetail(job), Set.of(createTrigger(job)));
+        }
+        try {
+            // One store operation for the whole batch instead of one per job
+            scheduler.scheduleJobs(triggersAndJobs, false);
+            logger.info("{} jobs scheduled successfully", jobs.size());
+        } catch (SchedulerException e) {
+            logger.error("Error scheduling batch of {} jobs", jobs.size(), e);
+            throw new RuntimeException("Failed to schedule jobs", e);
+        }
+    }
+
+    @Override
+    public void cancel(Long jobId) {
+        try {
+            scheduler.deleteJob(new JobKey("job-" + jobId, JOB_GROUP));
+            logger.info("Job {} cancelled successfully", jobId);
+        } catch (SchedulerException e) {
+            logger.error("Error cancelling job: {}", jobId, e);
+        }
+    }
+
+    @Override
+    public long getPendingCount() {
+        try {
+            return scheduler.getTriggerKeys(GroupMatcher.triggerGroupEquals(TRIGGER_GROUP)).size();
+        } catch (SchedulerException e) {
+            logger.error("Error counting pending triggers", e);
+            return -1;
+        }
+    }
+
+    private JobDetail createJobDetail(Job job) {
+        JobBuilder jobBuilder = JobBuilder.newJob(JobExecutionJob.class)
+                .withIdentity("job-" + job.getId(), JOB_GROUP)
+                .usingJobData("jobId", job.getId())
+                .usingJobData("jobType", job.getJobType().name());
+
+        String snapshot = dispatcher.createSnapshot(job);
+        if (snapshot != null) {
+            jobBuilder.usingJobData("snapshot", snapshot)
+                    .usingJobData("snapshotVersion", ScheduledJobDispatcher.SNAPSHOT_VERSION);
+        }
+        return jobBuilder.build();
+    }
+
+    private Trigger createTrigger(Job job) {
+        TriggerBuilder<Trigger> triggerBuilder = TriggerBuilder.newTrigger()
+                .withIdentity("trigger-" + job.getId(), TRIGGER_GROUP)
+                .startAt(Date.from(JobTriggers.firstFireTime(job)));
+
+        // Add repeat schedule if needed
+        if (job.getRepeatPattern() != Job.RepeatPattern.ONCE) {
+            triggerBuilder.withSchedule(createScheduleBuilder(job.getRepeatPattern()));
+        }
+
+        return triggerBuilder.build();
+    }
+
+    private SimpleScheduleBuilder createScheduleBuilder(Job.RepeatPattern repeatPattern) {
+        Duration interval = JobTriggers.repeatInterval(repeatPattern);
+        if (interval == null) {
+            return SimpleScheduleBuilder.simpleSchedule();
+        }
+        return SimpleScheduleBuilder.simpleSchedule()
+                .withIntervalInMilliseconds(interval.toMillis())
+                .repeatForever();
+    }
+
+    // Quartz Job class
+    public static class JobExecutionJob implements org.quartz.Job {
+
+        @Autowired
+        private ScheduledJobDispatcher dispatcher;
+
+        @Override
+        public void execute(JobExecutionContext context) throws JobExecutionException {
+            JobDataMap dataMap = context.getJobDetail().getJobDataMap();
+            Long jobId = dataMap.getLong("jobId");
+            String jobType = dataMap.getString("jobType");
+            String snapshot = dataMap.getString("snapshot");
+            int snapshotVersion = dataMap.containsKey("snapshotVersion") ? dataMap.getInt("snapshotVersion") : 0;
+
+            logger.info("Executing scheduled job: {} of type: {}", jobId, jobType);
+
+            try {
+                // Trigger job execution via Kafka
+                dispatcher.dispatch(jobId, Job.JobType.valueOf(jobType), snapshot, snapshotVersion);
+            } catch (Exception e) {
+                logger.error("Error executing scheduled job: {}", jobId, e);
+                throw new JobExecutionException("Failed to execute job", e);
+            }
+        }
+    }
+}
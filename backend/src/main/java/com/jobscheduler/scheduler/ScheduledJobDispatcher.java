@@ -0,0 +1,103 @@
+package com.jobscheduler.scheduler;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jobscheduler.entity.Job;
+import com.jobscheduler.service.JobPayloadService;
+import com.jobscheduler.service.JobService;
+import com.jobscheduler.service.JobStatusWriter;
+import com.jobscheduler.service.KafkaProducerService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Turns a due trigger into a Kafka job message.
+ *
+ * <p>In {@code entity} dispatch mode every fire goes through {@link JobService#executeJobNow},
+ * which loads and re-saves the job. In {@code snapshot} mode the engine stores a compact
+ * snapshot of the job with the trigger when it is scheduled; a fire publishes that snapshot
+ * directly and leaves the RUNNING transition to {@link JobStatusWriter}. Snapshots carry a
+ * format version and anything written by a different version falls back to the entity path.
+ */
+@Component
+public class ScheduledJobDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduledJobDispatcher.class);
+
+    public static final int SNAPSHOT_VERSION = 2;
+
+    @Autowired
+    @Lazy
+    private JobService jobService;
+
+    @Autowired
+    private KafkaProducerService kafkaProducerService;
+
+    @Autowired
+    private JobStatusWriter jobStatusWriter;
+
+    @Autowired
+    private JobPayloadService jobPayloadService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.scheduler.dispatch-mode:entity}")
+    private String dispatchMode;
+
+    public boolean isSnapshotMode() {
+        return "snapshot".equalsIgnoreCase(dispatchMode);
+    }
+
+    // Returns null in entity mode or when the job cannot be snapshotted
+    public String createSnapshot(Job job) {
+        if (!isSnapshotMode()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(jobPayloadService.toPayloadNode(job));
+        } catch (Exception e) {
+            // e.g. uninitialized lazy collections on a detached entity
+            logger.warn("Could not snapshot job {}, it will be dispatched through the entity path", job.getId(), e);
+            return null;
+        }
+    }
+
+    public void dispatch(Long jobId, Job.JobType jobType, String snapshot, int snapshotVersion) {
+        if (snapshot == null || snapshotVersion != SNAPSHOT_VERSION || !isSnapshotMode()) {
+            jobService.executeScheduledJob(jobId);
+            return;
+        }
+        JsonNode node = readSnapshot(jobId, snapshot);
+        if (node == null) {
+            jobService.executeScheduledJob(jobId);
+            return;
+        }
+        int delayMinutes = node.path("delayMinutes").asInt(0);
+        kafkaProducerService.sendJobSnapshot(jobType, jobId, node.path("version").asLong(0), snapshot, delayMinutes);
+        if (delayMinutes <= 0) {
+            // Deferred runs stay PENDING until a consumer picks them up
+            jobStatusWriter.markRunning(jobId, LocalDateTime.now());
+        }
+    }
+
+    // Null when the snapshot cannot be read, so the job goes through the entity path instead
+    private JsonNode readSnapshot(Long jobId, String snapshot) {
+        try {
+            JsonNode node = objectMapper.readTree(snapshot);
+            if (node != null && node.isObject()) {
+                return node;
+            }
+            logger.warn("Snapshot of job {} is not a JSON object, dispatching it through the entity path", jobId);
+        } catch (Exception e) {
+            logger.warn("Could not read the snapshot of job {}, dispatching it through the entity path", jobId, e);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,32 @@
+package com.jobscheduler.scheduler;
+
+import com.jobscheduler.entity.Job;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Backend that holds pending triggers and fires them when they come due.
+ * Selected with {@code app.scheduler.engine} ({@code quartz} or {@code timing-wheel}).
+ */
+public interface SchedulerEngine {
+
+    String getName();
+
+    void schedule(Job job);
+
+    default void scheduleAll(List<? extends Job> jobs) {
+        for (Job job : jobs) {
+            schedule(job);
+        }
+    }
+
+    void cancel(Long jobId);
+
+    long getPendingCount();
+
+    // Engine-specific figures reported next to the engine name and pending count
+    default Map<String, Object> getStatistics() {
+        return Map.of();
+    }
+}
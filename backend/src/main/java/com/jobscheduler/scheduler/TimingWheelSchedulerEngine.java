@@ -0,0 +1,258 @@
+package com.jobscheduler.scheduler;
+
+import com.jobscheduler.entity.Job;
+import com.jobscheduler.repository.JobRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory scheduler engine backed by a {@link HierarchicalTimingWheel}. Pending jobs cost
+ * one small node each instead of a Quartz JobDetail and Trigger, which keeps scheduling and
+ * cancelling cheap with millions of pending one-shot jobs. Pending state lives only in memory
+ * and is rebuilt from the jobs table on startup.
+ */
+@Component
+@ConditionalOnProperty(name = "app.scheduler.engine", havingValue = "timing-wheel")
+public class TimingWheelSchedulerEngine implements SchedulerEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimingWheelSchedulerEngine.class);
+
+    private static final int LEVELS = 4;
+
+    @Autowired
+    private ScheduledJobDispatcher dispatcher;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Value("${app.scheduler.timing-wheel.tick-ms:100}")
+    private long tickMs;
+
+    @Value("${app.scheduler.timing-wheel.wheel-size:512}")
+    private int wheelSize;
+
+    @Value("${app.scheduler.timing-wheel.dispatch-threads:4}")
+    private int dispatchThreads;
+
+    private final Object lock = new Object();
+    private final Map<Long, HierarchicalTimingWheel.Timeout<ScheduledJob>> timeouts = new HashMap<>();
+
+    private HierarchicalTimingWheel<ScheduledJob> wheel;
+    private ExecutorService dispatchExecutor;
+    private Thread ticker;
+    private volatile boolean running;
+    private volatile long lastTickMs;
+    private final AtomicLong tickFailures = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        wheel = new HierarchicalTimingWheel<>(tickMs, wheelSize, LEVELS, System.currentTimeMillis());
+
+        AtomicInteger threadCount = new AtomicInteger();
+        dispatchExecutor = Executors.newFixedThreadPool(dispatchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "timing-wheel-dispatch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        running = true;
+        ticker = new Thread(this::tickLoop, "timing-wheel-ticker");
+        ticker.setDaemon(true);
+        ticker.start();
+        logger.info("Timing wheel scheduler started with {}ms ticks and {} buckets per level", tickMs, wheelSize);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        ticker.interrupt();
+        dispatchExecutor.shutdown();
+        try {
+            dispatchExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverPendingJobs() {
+        List<Job> jobs = jobRepository.findSchedulableJobs();
+        long now = System.currentTimeMillis();
+        for (Job job : jobs) {
+            long deadline = JobTriggers.firstFireTime(job).toEpochMilli();
+            Duration interval = JobTriggers.repeatInterval(job.getRepeatPattern());
+            if (interval != null) {
+                // Recurring jobs resume at their next occurrence rather than replaying missed ones
+                deadline = nextOccurrenceAfter(deadline, interval.toMillis(), now);
+            }
+            add(job, deadline, interval);
+        }
+        logger.info("Recovered {} pending jobs into the timing wheel", jobs.size());
+    }
+
+    @Override
+    public String getName() {
+        return "timing-wheel";
+    }
+
+    @Override
+    public void schedule(Job job) {
+        add(job, JobTriggers.firstFireTime(job).toEpochMilli(), JobTriggers.repeatInterval(job.getRepeatPattern()));
+        logger.info("Job {} scheduled successfully", job.getId());
+    }
+
+    @Override
+    public void scheduleAll(List<? extends Job> jobs) {
+        for (Job job : jobs) {
+            add(job, JobTriggers.firstFireTime(job).toEpochMilli(), JobTriggers.repeatInterval(job.getRepeatPattern()));
+        }
+        logger.info("{} jobs scheduled successfully", jobs.size());
+    }
+
+    @Override
+    public void cancel(Long jobId) {
+        synchronized (lock) {
+            HierarchicalTimingWheel.Timeout<ScheduledJob> timeout = timeouts.remove(jobId);
+            if (timeout != null) {
+                wheel.cancel(timeout);
+            }
+        }
+        logger.info("Job {} cancelled successfully", jobId);
+    }
+
+    @Override
+    public long getPendingCount() {
+        synchronized (lock) {
+            return wheel.size();
+        }
+    }
+
+    // Pending jobs only fire while the ticker is alive and ticking
+    @Override
+    public Map<String, Object> getStatistics() {
+        return Map.of(
+            "tickerAlive", ticker != null && ticker.isAlive(),
+            "msSinceLastTick", lastTickMs > 0 ? System.currentTimeMillis() - lastTickMs : -1,
+            "tickFailures", tickFailures.get()
+        );
+    }
+
+    private void add(Job job, long deadline, Duration interval) {
+        ScheduledJob scheduledJob = new ScheduledJob(job.getId(), job.getJobType(),
+                interval != null ? interval.toMillis() : 0, dispatcher.createSnapshot(job));
+        synchronized (lock) {
+            HierarchicalTimingWheel.Timeout<ScheduledJob> previous = timeouts.put(job.getId(),
+                    wheel.schedule(deadline, scheduledJob));
+            if (previous != null) {
+                wheel.cancel(previous);
+            }
+        }
+    }
+
+    private void tickLoop() {
+        List<ScheduledJob> due = new ArrayList<>();
+        while (running) {
+            long now = System.currentTimeMillis();
+            try {
+                tick(now, due);
+            } catch (Exception e) {
+                // The ticker is the only thread firing jobs, so it must outlive any one bad tick
+                tickFailures.incrementAndGet();
+                logger.error("Timing wheel tick failed, continuing with the next one", e);
+            } finally {
+                due.clear();
+            }
+            lastTickMs = now;
+
+            long sleepMs = wheel.getTickMs() - (System.currentTimeMillis() % wheel.getTickMs());
+            try {
+                Thread.sleep(sleepMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void tick(long now, List<ScheduledJob> due) {
+        try {
+            synchronized (lock) {
+                wheel.advanceTo(now, timeout -> onExpired(timeout, now, due));
+            }
+        } finally {
+            // Jobs already taken off the wheel still fire when the advance fails part way
+            for (ScheduledJob scheduledJob : due) {
+                dispatchExecutor.execute(() -> fire(scheduledJob));
+            }
+        }
+    }
+
+    // Runs under lock
+    private void onExpired(HierarchicalTimingWheel.Timeout<ScheduledJob> timeout, long now, List<ScheduledJob> due) {
+        ScheduledJob scheduledJob = timeout.getPayload();
+        if (timeouts.get(scheduledJob.jobId) != timeout) {
+            // Replaced or cancelled while its bucket was being expired
+            return;
+        }
+        due.add(scheduledJob);
+
+        if (scheduledJob.intervalMs > 0) {
+            long next = nextOccurrenceAfter(timeout.getDeadlineMs(), scheduledJob.intervalMs, now);
+            timeouts.put(scheduledJob.jobId, wheel.schedule(next, scheduledJob));
+        } else {
+            timeouts.remove(scheduledJob.jobId);
+        }
+    }
+
+    private void fire(ScheduledJob scheduledJob) {
+        logger.info("Executing scheduled job: {} of type: {}", scheduledJob.jobId, scheduledJob.jobType);
+        try {
+            // Trigger job execution via Kafka
+            dispatcher.dispatch(scheduledJob.jobId, scheduledJob.jobType, scheduledJob.snapshot,
+                    ScheduledJobDispatcher.SNAPSHOT_VERSION);
+        } catch (Exception e) {
+            logger.error("Error executing scheduled job: {}", scheduledJob.jobId, e);
+        }
+    }
+
+    private static long nextOccurrenceAfter(long deadline, long intervalMs, long now) {
+        if (deadline > now) {
+            return deadline;
+        }
+        long missed = (now - deadline) / intervalMs + 1;
+        return deadline + missed * intervalMs;
+    }
+
+    private static final class ScheduledJob {
+        private final Long jobId;
+        private final Job.JobType jobType;
+        private final long intervalMs;
+        private final String snapshot;
+
+        private ScheduledJob(Long jobId, Job.JobType jobType, long intervalMs, String snapshot) {
+            this.jobId = jobId;
+            this.jobType = jobType;
+            this.intervalMs = intervalMs;
+            this.snapshot = snapshot;
+        }
+    }
+}
@@ -0,0 +1,453 @@
+package com.jobscheduler.service;
+
+import io.minio.StatObjectResponse;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local disk cache of binaries stored in MinIO. Entries are addressed by bucket, object and
+ * ETag, so a re-uploaded object is fetched again while unchanged ones are served from disk
+ * after a single metadata request. Downloads are fetched in parallel parts and verified against
+ * the object size and the MD5s carried in the ETag. Concurrent requests for the same artifact
+ * share one download, and the least recently used entries not currently in use are evicted
+ * once the cache grows past its size limit.
+ */
+@Service
+public class ArtifactCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactCacheService.class);
+
+    private static final String METADATA_FILE = ".artifact";
+    private static final String PARTIAL_PREFIX = ".partial-";
+    private static final int MAX_EXPECTED_RUNS = 10_000;
+
+    @Autowired
+    private MinioService minioService;
+
+    @Value("${app.binary.artifact-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.binary.artifact-cache.directory:${java.io.tmpdir}/job-scheduler-artifacts}")
+    private String directory;
+
+    @Value("${app.binary.artifact-cache.max-size-mb:10240}")
+    private long maxSizeMb;
+
+    private Path root;
+    private long maxBytes;
+
+    // Access-ordered: iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes;
+
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> downloads = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong sharedDownloads = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong prefetched = new AtomicLong();
+    private final AtomicLong prefetchHits = new AtomicLong();
+    private final AtomicLong prefetchMisses = new AtomicLong();
+    private final AtomicLong hitNanos = new AtomicLong();
+    private final AtomicLong missNanos = new AtomicLong();
+
+    // Objects prefetched for a run that has not acquired them yet, most recent last
+    private final Map<String, Boolean> expectedRuns = Collections.synchronizedMap(
+            new LinkedHashMap<>(64, 0.75f, false) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                    return size() > MAX_EXPECTED_RUNS;
+                }
+            });
+
+    @PostConstruct
+    public void init() throws IOException {
+        maxBytes = maxSizeMb * 1024 * 1024;
+        if (!enabled) {
+            return;
+        }
+        root = Paths.get(directory).toAbsolutePath();
+        Files.createDirectories(root);
+        loadIndex();
+        evictIfNeeded();
+        logger.info("Artifact cache at {} holds {} entries ({} MB of {} MB)",
+                root, entries.size(), totalBytes / (1024 * 1024), maxSizeMb);
+    }
+
+    /**
+     * Returns a local copy of the object, downloading it only if the current version is not
+     * cached yet. The copy stays on disk until the returned artifact is closed.
+     */
+    public Artifact acquire(String bucketName, String objectName) throws Exception {
+        if (!enabled) {
+            Path file = minioService.downloadFile(bucketName, objectName);
+            return new Artifact(file, () -> deleteQuietly(file));
+        }
+        long start = System.nanoTime();
+        Boolean prefetched = expectedRuns.remove(bucketName + "/" + objectName);
+        Fetch fetch = fetch(bucketName, objectName);
+        long elapsed = System.nanoTime() - start;
+        if (fetch.downloaded) {
+            misses.incrementAndGet();
+            missNanos.addAndGet(elapsed);
+        } else {
+            hits.incrementAndGet();
+            hitNanos.addAndGet(elapsed);
+        }
+        if (prefetched != null) {
+            (fetch.downloaded ? prefetchMisses : prefetchHits).incrementAndGet();
+        }
+        return fetch.artifact;
+    }
+
+    /**
+     * Makes sure the current version of the object is in the cache ahead of a run, without
+     * keeping it pinned. The next acquire of the object counts as a prefetch hit or miss.
+     * Returns whether anything had to be downloaded.
+     */
+    public boolean prefetch(String bucketName, String objectName) throws Exception {
+        if (!enabled) {
+            return false;
+        }
+        expectedRuns.put(bucketName + "/" + objectName, Boolean.TRUE);
+        Fetch fetch = fetch(bucketName, objectName);
+        fetch.artifact.close();
+        if (fetch.downloaded) {
+            prefetched.incrementAndGet();
+        }
+        return fetch.downloaded;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    private Fetch fetch(String bucketName, String objectName) throws Exception {
+        StatObjectResponse stat = minioService.statFile(bucketName, objectName);
+        String etag = normalizeETag(stat.etag());
+        String key = cacheKey(bucketName, objectName, etag);
+
+        while (true) {
+            Entry entry = pin(key);
+            if (entry != null) {
+                return new Fetch(lease(entry), false);
+            }
+
+            CompletableFuture<Void> download = new CompletableFuture<>();
+            CompletableFuture<Void> running = downloads.putIfAbsent(key, download);
+            if (running != null) {
+                // Another thread is fetching this artifact; wait for it and pin its entry
+                sharedDownloads.incrementAndGet();
+                awaitDownload(running);
+                continue;
+            }
+
+            try {
+                entry = pin(key);
+                if (entry != null) {
+                    return new Fetch(lease(entry), false);
+                }
+                Artifact artifact = download(bucketName, objectName, etag, stat.size(), key);
+                download.complete(null);
+                return new Fetch(artifact, true);
+            } catch (Exception e) {
+                download.completeExceptionally(e);
+                throw e;
+            } finally {
+                downloads.remove(key, download);
+            }
+        }
+    }
+
+    public Map<String, Object> getCacheStatistics() {
+        synchronized (entries) {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("enabled", enabled);
+            stats.put("hits", hits.get());
+            stats.put("misses", misses.get());
+            stats.put("sharedDownloads", sharedDownloads.get());
+            stats.put("evictions", evictions.get());
+            stats.put("prefetched", prefetched.get());
+            stats.put("prefetchHits", prefetchHits.get());
+            stats.put("prefetchMisses", prefetchMisses.get());
+            stats.put("averageHitMs", hits.get() > 0 ? hitNanos.get() / hits.get() / 1_000_000 : 0);
+            stats.put("averageMissMs", misses.get() > 0 ? missNanos.get() / misses.get() / 1_000_000 : 0);
+            stats.put("entries", entries.size());
+            stats.put("sizeBytes", totalBytes);
+            stats.put("maxSizeBytes", maxBytes);
+            return stats;
+        }
+    }
+
+    private Artifact download(String bucketName, String objectName, String etag, long expectedSize, String key)
+            throws Exception {
+        Path partial = root.resolve(PARTIAL_PREFIX + UUID.randomUUID());
+        Path entryDir = root.resolve(key);
+        try {
+            Files.createDirectories(partial);
+            Path file = partial.resolve(fileName(objectName));
+
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            minioService.downloadToFile(bucketName, objectName, etag, expectedSize, file, sha256);
+            long size = expectedSize;
+
+            file.toFile().setExecutable(true);
+            file.toFile().setWritable(false, false);
+
+            Entry entry = new Entry(key, entryDir, entryDir.resolve(file.getFileName()), size,
+                    HexFormat.of().formatHex(sha256.digest()));
+            writeMetadata(partial, entry, bucketName, objectName, etag);
+
+            if (size > maxBytes) {
+                // Too large to keep: hand out the download itself and drop it after the run
+                logger.warn("Artifact {}/{} ({} bytes) exceeds the cache size limit, not caching",
+                        bucketName, objectName, size);
+                return new Artifact(file, () -> deleteQuietly(partial));
+            }
+
+            // A directory left behind by an eviction still deleting it would block the move
+            deleteQuietly(entryDir);
+            Files.move(partial, entryDir, StandardCopyOption.ATOMIC_MOVE);
+            // Runs use the file in place but get their own working directory; nothing may add to the entry
+            entryDir.toFile().setWritable(false, false);
+            entry.pins = 1;
+            synchronized (entries) {
+                entries.put(key, entry);
+                totalBytes += size;
+            }
+            evictIfNeeded();
+            logger.info("Cached artifact {}/{} ({} bytes, sha256 {})", bucketName, objectName, size, entry.sha256);
+            return lease(entry);
+        } catch (Exception e) {
+            deleteQuietly(partial);
+            throw e;
+        }
+    }
+
+    private Artifact lease(Entry entry) {
+        return new Artifact(entry.file, () -> release(entry));
+    }
+
+    private Entry pin(String key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            entry.pins++;
+            return entry;
+        }
+    }
+
+    private void release(Entry entry) {
+        synchronized (entries) {
+            entry.pins--;
+        }
+        // Persist recency so the LRU order survives a restart
+        try {
+            Files.setLastModifiedTime(entry.dir.resolve(METADATA_FILE), FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            logger.debug("Could not update access time of {}", entry.dir, e);
+        }
+        evictIfNeeded();
+    }
+
+    private void evictIfNeeded() {
+        List<Entry> evicted = new ArrayList<>();
+        synchronized (entries) {
+            Iterator<Entry> it = entries.values().iterator();
+            while (totalBytes > maxBytes && it.hasNext()) {
+                Entry entry = it.next();
+                if (entry.pins > 0) {
+                    continue;
+                }
+                it.remove();
+                totalBytes -= entry.size;
+                evicted.add(entry);
+            }
+        }
+        for (Entry entry : evicted) {
+            evictions.incrementAndGet();
+            deleteQuietly(entry.dir);
+            logger.info("Evicted cached artifact {} ({} bytes)", entry.file.getFileName(), entry.size);
+        }
+    }
+
+    // Rebuilds the index from disk, oldest access first, and clears leftovers of interrupted downloads
+    private void loadIndex() throws IOException {
+        List<Entry> found = new ArrayList<>();
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(root)) {
+            for (Path dir : dirs) {
+                Entry entry = Files.isDirectory(dir) && !dir.getFileName().toString().startsWith(PARTIAL_PREFIX)
+                        ? readMetadata(dir) : null;
+                if (entry == null) {
+                    deleteQuietly(dir);
+                } else {
+                    found.add(entry);
+                }
+            }
+        }
+        found.sort(Comparator.comparing(entry -> entry.lastAccess));
+        synchronized (entries) {
+            for (Entry entry : found) {
+                entries.put(entry.key, entry);
+                totalBytes += entry.size;
+            }
+        }
+    }
+
+    private static void writeMetadata(Path dir, Entry entry, String bucketName, String objectName, String etag)
+            throws IOException {
+        Properties metadata = new Properties();
+        metadata.setProperty("bucket", bucketName);
+        metadata.setProperty("object", objectName);
+        metadata.setProperty("etag", etag);
+        metadata.setProperty("file", entry.file.getFileName().toString());
+        metadata.setProperty("size", Long.toString(entry.size));
+        metadata.setProperty("sha256", entry.sha256);
+        try (Writer writer = Files.newBufferedWriter(dir.resolve(METADATA_FILE), StandardCharsets.UTF_8)) {
+            metadata.store(writer, null);
+        }
+    }
+
+    private static Entry readMetadata(Path dir) {
+        Path metadataFile = dir.resolve(METADATA_FILE);
+        try (Reader reader = Files.newBufferedReader(metadataFile, StandardCharsets.UTF_8)) {
+            Properties metadata = new Properties();
+            metadata.load(reader);
+            Path file = dir.resolve(metadata.getProperty("file"));
+            long size = Long.parseLong(metadata.getProperty("size"));
+            if (!Files.isRegularFile(file) || Files.size(file) != size) {
+                return null;
+            }
+            Entry entry = new Entry(dir.getFileName().toString(), dir, file, size, metadata.getProperty("sha256"));
+            entry.lastAccess = Files.getLastModifiedTime(metadataFile);
+            return entry;
+        } catch (Exception e) {
+            logger.warn("Discarding unreadable cache entry {}", dir, e);
+            return null;
+        }
+    }
+
+    private static void awaitDownload(CompletableFuture<Void> download) throws Exception {
+        try {
+            download.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static String cacheKey(String bucketName, String objectName, String etag) throws NoSuchAlgorithmException {
+        byte[] digest = MessageDigest.getInstance("SHA-256")
+                .digest((bucketName + "/" + objectName + "@" + etag).getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest);
+    }
+
+    private static String normalizeETag(String etag) {
+        return etag == null ? "" : etag.replace("\"", "").toLowerCase();
+    }
+
+    // Keep the object's own file name: the extension decides how the binary is launched
+    private static String fileName(String objectName) {
+        return Paths.get(objectName).getFileName().toString();
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            // Cache entry directories are read-only, which would keep their files from being deleted
+            path.toFile().setWritable(true, true);
+            FileSystemUtils.deleteRecursively(path);
+        } catch (IOException e) {
+            logger.warn("Could not delete {}", path, e);
+        }
+    }
+
+    /**
+     * A local copy of an artifact. Closing it releases the cache entry, or deletes the file if it
+     * was not cached.
+     */
+    public static final class Artifact implements AutoCloseable {
+        private final Path path;
+        private final Runnable onClose;
+        private boolean closed;
+
+        private Artifact(Path path, Runnable onClose) {
+            this.path = path;
+            this.onClose = onClose;
+        }
+
+        public Path getPath() { return path; }
+
+        @Override
+        public synchronized void close() {
+            if (!closed) {
+                closed = true;
+                onClose.run();
+            }
+        }
+    }
+
+    private static final class Fetch {
+        private final Artifact artifact;
+        private final boolean downloaded;
+
+        private Fetch(Artifact artifact, boolean downloaded) {
+            this.artifact = artifact;
+            this.downloaded = downloaded;
+        }
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final Path dir;
+        private final Path file;
+        private final long size;
+        private final String sha256;
+        private FileTime lastAccess;
+        private int pins;
+
+        private Entry(String key, Path dir, Path file, long size, String sha256) {
+            this.key = key;
+            this.dir = dir;
+            this.file = file;
+            this.size = size;
+            this.sha256 = sha256;
+        }
+    }
+}
@@ -0,0 +1,435 @@
+package com.jobscheduler.service;
+
+import com.jobscheduler.entity.BinaryJob;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admits binary runs against the host's CPU and memory budget instead of letting every
+ * execution thread start a process. A run's cost is what the job declares, otherwise what
+ * earlier runs of the same binary were measured to use, otherwise the configured default.
+ * Runs that do not fit wait in arrival order, so a large job is not starved by a stream of
+ * small ones. Declared limits are also enforced on cold-launched processes, with a cgroup v2
+ * child group per run or, failing that, a memory rlimit. Jobs that declare limits are then
+ * always cold-launched; the rest may run in the JVM pool or the Python fork server, which are
+ * admitted by cost but not confined.
+ */
+@Service
+public class BinaryAdmissionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BinaryAdmissionService.class);
+
+    private static final int MAX_LEARNED_COSTS = 10_000;
+    private static final double LEARNED_HEADROOM = 1.2;
+    private static final double LEARNING_RATE = 0.3;
+    private static final long MIN_CPU_MILLICORES = 50;
+    private static final long MIN_MEMORY_MB = 16;
+    private static final long CLOCK_TICKS_PER_SECOND = 100;
+    private static final long PAGE_SIZE = 4096;
+
+    @Value("${app.binary.admission.enabled:true}")
+    private boolean enabled;
+
+    // 0 means all available processors
+    @Value("${app.binary.admission.cpu-millicores:0}")
+    private long cpuCapacity;
+
+    // 0 means 80% of physical memory
+    @Value("${app.binary.admission.memory-mb:0}")
+    private long memoryCapacity;
+
+    @Value("${app.binary.admission.default-cpu-millicores:500}")
+    private long defaultCpu;
+
+    @Value("${app.binary.admission.default-memory-mb:256}")
+    private long defaultMemory;
+
+    // none, rlimit or cgroup
+    @Value("${app.binary.admission.enforcement:none}")
+    private String enforcement;
+
+    @Value("${app.binary.admission.cgroup-root:}")
+    private String cgroupRoot;
+
+    @Value("${app.binary.admission.sample-interval-ms:1000}")
+    private long sampleIntervalMs;
+
+    private final Deque<Lease> waiting = new ArrayDeque<>();
+    private long cpuInUse;
+    private long memoryInUse;
+    private int running;
+
+    private final Map<String, long[]> learned = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, long[]> eldest) {
+            return size() > MAX_LEARNED_COSTS;
+        }
+    };
+
+    private final Set<Lease> sampled = ConcurrentHashMap.newKeySet();
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong queued = new AtomicLong();
+    private final AtomicLong cgroupSequence = new AtomicLong();
+    private ScheduledExecutorService sampler;
+
+    @PostConstruct
+    public void start() {
+        if (cpuCapacity <= 0) {
+            cpuCapacity = Runtime.getRuntime().availableProcessors() * 1000L;
+        }
+        if (memoryCapacity <= 0) {
+            long physical = ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean())
+                    .getTotalMemorySize();
+            memoryCapacity = physical / (1024 * 1024) * 8 / 10;
+        }
+        if (enforcement.equals("cgroup") && !cgroupUsable()) {
+            logger.warn("cgroup-root {} is not a cgroup v2 group with cpu and memory delegated, using rlimits", cgroupRoot);
+            enforcement = "rlimit";
+        }
+        if (enforcement.equals("rlimit")) {
+            logger.info("Enforcing declared memory limits with rlimits; CPU limits are only admitted, not enforced");
+        }
+
+        sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "binary-usage-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sampler.scheduleWithFixedDelay(this::sampleAll, sampleIntervalMs, sampleIntervalMs, TimeUnit.MILLISECONDS);
+        logger.info("Binary admission {} with {} millicores and {} MB, enforcement {}",
+                enabled ? "enabled" : "disabled", cpuCapacity, memoryCapacity, enforcement);
+    }
+
+    @PreDestroy
+    public void stop() {
+        sampler.shutdownNow();
+    }
+
+    /**
+     * Waits until the job's cost fits in the remaining budget and reserves it. Closing the
+     * lease releases the reservation and records what the run used.
+     */
+    public Lease admit(BinaryJob job) throws InterruptedException {
+        String key = costKey(job);
+        long[] cost = cost(job, key);
+        Lease lease = new Lease(job, key, cost[0], cost[1]);
+        if (!enabled) {
+            return lease;
+        }
+        synchronized (this) {
+            waiting.addLast(lease);
+            if (waiting.peekFirst() != lease || !fits(lease)) {
+                queued.incrementAndGet();
+                logger.info("Queueing job {} needing {} millicores and {} MB ({} running, {} waiting)",
+                        job.getId(), lease.cpu, lease.memory, running, waiting.size() - 1);
+            }
+            try {
+                while (waiting.peekFirst() != lease || !fits(lease)) {
+                    wait();
+                }
+            } catch (InterruptedException e) {
+                waiting.remove(lease);
+                notifyAll();
+                throw e;
+            }
+            waiting.removeFirst();
+            cpuInUse += lease.cpu;
+            memoryInUse += lease.memory;
+            running++;
+            lease.reserved = true;
+            // The next in line may fit as well
+            notifyAll();
+        }
+        admitted.incrementAndGet();
+        return lease;
+    }
+
+    public synchronized Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("enforcement", enforcement);
+        stats.put("cpuMillicores", cpuCapacity);
+        stats.put("memoryMb", memoryCapacity);
+        stats.put("cpuInUse", cpuInUse);
+        stats.put("memoryInUse", memoryInUse);
+        stats.put("running", running);
+        stats.put("waiting", waiting.size());
+        stats.put("admitted", admitted.get());
+        stats.put("queued", queued.get());
+        stats.put("learnedCosts", learned.size());
+        return stats;
+    }
+
+    private boolean fits(Lease lease) {
+        return cpuInUse + lease.cpu <= cpuCapacity && memoryInUse + lease.memory <= memoryCapacity;
+    }
+
+    private synchronized void release(Lease lease) {
+        if (lease.reserved) {
+            cpuInUse -= lease.cpu;
+            memoryInUse -= lease.memory;
+            running--;
+            lease.reserved = false;
+            notifyAll();
+        }
+    }
+
+    // Declared limits win; otherwise the learned cost with some headroom, otherwise the default
+    private synchronized long[] cost(BinaryJob job, String key) {
+        long[] usage = learned.get(key);
+        long cpu = job.getCpuMillicores() != null ? job.getCpuMillicores()
+                : usage != null ? Math.max(MIN_CPU_MILLICORES, (long) (usage[0] * LEARNED_HEADROOM)) : defaultCpu;
+        long memory = job.getMemoryMb() != null ? job.getMemoryMb()
+                : usage != null ? Math.max(MIN_MEMORY_MB, (long) (usage[1] * LEARNED_HEADROOM)) : defaultMemory;
+        // A job larger than the whole budget still runs, alone
+        return new long[] { Math.min(cpu, cpuCapacity), Math.min(memory, memoryCapacity) };
+    }
+
+    // CPU follows a moving average; memory follows the peak up at once and decays slowly
+    private synchronized void learn(String key, long cpu, long memory) {
+        long[] previous = learned.get(key);
+        if (previous == null) {
+            learned.put(key, new long[] { cpu, memory });
+        } else {
+            long averageCpu = (long) (previous[0] + LEARNING_RATE * (cpu - previous[0]));
+            long averageMemory = (long) (previous[1] + LEARNING_RATE * (memory - previous[1]));
+            learned.put(key, new long[] { averageCpu, Math.max(memory, averageMemory) });
+        }
+    }
+
+    private static String costKey(BinaryJob job) {
+        if (job.getMinioBucket() != null && job.getMinioObjectName() != null) {
+            return job.getMinioBucket() + "/" + job.getMinioObjectName();
+        }
+        return job.getFilePath();
+    }
+
+    private boolean cgroupUsable() {
+        if (cgroupRoot.isBlank()) {
+            return false;
+        }
+        try {
+            String controllers = Files.readString(Paths.get(cgroupRoot, "cgroup.subtree_control"));
+            return controllers.contains("cpu") && controllers.contains("memory");
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void sampleAll() {
+        for (Lease lease : sampled) {
+            try {
+                lease.sample();
+            } catch (Exception e) {
+                logger.debug("Could not sample resource usage of job {}", lease.job.getId(), e);
+            }
+        }
+    }
+
+    /**
+     * A reservation of CPU and memory for one run.
+     */
+    public final class Lease implements AutoCloseable {
+        private final BinaryJob job;
+        private final String key;
+        private final long cpu;
+        private final long memory;
+        private boolean reserved;
+
+        private Path cgroup;
+        private ProcessHandle process;
+        private long startedAt;
+        private volatile long cpuTicks;
+        private volatile long peakRss;
+
+        private Lease(BinaryJob job, String key, long cpu, long memory) {
+            this.job = job;
+            this.key = key;
+            this.cpu = cpu;
+            this.memory = memory;
+        }
+
+        /**
+         * Whether the job's declared limits are enforced, in which case it must be launched as a
+         * process of its own rather than in a shared JVM worker or the Python fork server.
+         */
+        public boolean confines() {
+            return !enforcement.equals("none") && (job.getMemoryMb() != null || job.getCpuMillicores() != null);
+        }
+
+        /**
+         * JVM options that hold a {@code java} command to the declared memory under rlimits. A JVM
+         * reserves far more address space than it uses, so it gets a heap of three quarters of the
+         * limit instead of an address-space rlimit, leaving the rest for metaspace, stacks and code.
+         */
+        public List<String> javaOptions() {
+            if (!enforcement.equals("rlimit") || job.getMemoryMb() == null) {
+                return List.of();
+            }
+            return List.of("-Xmx" + Math.max(MIN_MEMORY_MB, job.getMemoryMb() * 3L / 4) + "m");
+        }
+
+        /**
+         * Wraps the command so the process starts inside the job's declared limits. Commands of
+         * jobs that declare no limits, or with enforcement off, are returned unchanged, and so are
+         * {@code java} commands under rlimits, which are limited by {@link #javaOptions()}.
+         */
+        public List<String> confine(List<String> command) throws IOException {
+            List<String> confined = new ArrayList<>();
+            if (enforcement.equals("cgroup")) {
+                cgroup = Paths.get(cgroupRoot, "job-" + job.getId() + "-" + cgroupSequence.incrementAndGet());
+                Files.createDirectory(cgroup);
+                write("cpu.max", job.getCpuMillicores() != null ? (job.getCpuMillicores() * 100) + " 100000" : "max 100000");
+                write("memory.max", job.getMemoryMb() != null ? Long.toString(job.getMemoryMb() * 1024L * 1024L) : "max");
+                // The shell joins the group before exec, so everything the job starts is inside it
+                confined.addAll(List.of("sh", "-c", "echo $$ > \"$0/cgroup.procs\" && exec \"$@\"", cgroup.toString()));
+            } else if (enforcement.equals("rlimit") && job.getMemoryMb() != null && !command.get(0).equals("java")) {
+                confined.addAll(List.of("sh", "-c", "ulimit -v \"$0\" && exec \"$@\"",
+                        Long.toString(job.getMemoryMb() * 1024L)));
+            }
+            confined.addAll(command);
+            return confined;
+        }
+
+        // Starts measuring the process so later runs of the same binary can be admitted by what it used
+        public void watch(Process started) {
+            process = started.toHandle();
+            startedAt = System.nanoTime();
+            if (cgroup == null) {
+                sampled.add(this);
+            }
+        }
+
+        @Override
+        public void close() {
+            sampled.remove(this);
+            try {
+                if (process != null) {
+                    recordUsage();
+                }
+            } finally {
+                removeCgroup();
+                release(this);
+            }
+        }
+
+        private void recordUsage() {
+            long elapsedMicros = Math.max(1, (System.nanoTime() - startedAt) / 1000);
+            long cpuMicros;
+            long peakBytes;
+            if (cgroup != null) {
+                cpuMicros = readStat("cpu.stat", "usage_usec");
+                peakBytes = readStat("memory.peak", null);
+            } else {
+                cpuMicros = cpuTicks * 1_000_000 / CLOCK_TICKS_PER_SECOND;
+                peakBytes = peakRss;
+            }
+            // Runs too short to be sampled teach nothing
+            if (cpuMicros > 0 || peakBytes > 0) {
+                learn(key, cpuMicros * 1000 / elapsedMicros, peakBytes / (1024 * 1024));
+            }
+        }
+
+        // CPU of the process, its reaped children and its live descendants, and their combined RSS
+        private void sample() throws IOException {
+            ProcessHandle root = process;
+            if (root == null || !root.isAlive()) {
+                return;
+            }
+            long ticks = 0;
+            long rss = 0;
+            List<ProcessHandle> tree = new ArrayList<>();
+            tree.add(root);
+            root.descendants().forEach(tree::add);
+            for (ProcessHandle handle : tree) {
+                String stat;
+                try {
+                    stat = Files.readString(Paths.get("/proc", Long.toString(handle.pid()), "stat"));
+                } catch (IOException e) {
+                    // Exited between listing and reading
+                    continue;
+                }
+                // Fields after the command name, which may itself contain spaces
+                String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+                ticks += Long.parseLong(fields[11]) + Long.parseLong(fields[12]);
+                if (handle == root) {
+                    ticks += Long.parseLong(fields[13]) + Long.parseLong(fields[14]);
+                }
+                rss += Long.parseLong(fields[21]) * PAGE_SIZE;
+            }
+            cpuTicks = Math.max(cpuTicks, ticks);
+            peakRss = Math.max(peakRss, rss);
+        }
+
+        private void write(String file, String value) throws IOException {
+            Files.writeString(cgroup.resolve(file), value, StandardCharsets.US_ASCII);
+        }
+
+        private long readStat(String file, String name) {
+            try {
+                for (String line : Files.readAllLines(cgroup.resolve(file))) {
+                    String[] parts = line.trim().split(" ");
+                    if (name == null) {
+                        return Long.parseLong(parts[0]);
+                    }
+                    if (parts[0].equals(name)) {
+                        return Long.parseLong(parts[1]);
+                    }
+                }
+            } catch (IOException | NumberFormatException e) {
+                logger.debug("Could not read {} of {}", file, cgroup, e);
+            }
+            return 0;
+        }
+
+        private void removeCgroup() {
+            if (cgroup == null) {
+                return;
+            }
+            try {
+                // Anything the job left behind goes with the group
+                if (Files.exists(cgroup.resolve("cgroup.kill"))) {
+                    write("cgroup.kill", "1");
+                }
+                for (int attempt = 0; ; attempt++) {
+                    try {
+                        Files.delete(cgroup);
+                        return;
+                    } catch (IOException e) {
+                        if (attempt == 10) {
+                            throw e;
+                        }
+                        Thread.sleep(100);
+                    }
+                }
+            } catch (IOException e) {
+                logger.warn("Could not remove cgroup {}", cgroup, e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.jobscheduler.service;
+
+/**
+ * Outcome of one binary run: whether it succeeded or was cancelled, the process exit code when
+ * the process ran to completion, an error description otherwise, and where its output was kept.
+ */
+public class BinaryExecutionResult {
+
+    private final boolean success;
+    private final boolean cancelled;
+    private final Integer exitCode;
+    private final String error;
+    private final String output;
+    private final String logObjectName;
+
+    private BinaryExecutionResult(boolean success, boolean cancelled, Integer exitCode, String error, String output,
+                                  String logObjectName) {
+        this.success = success;
+        this.cancelled = cancelled;
+        this.exitCode = exitCode;
+        this.error = error;
+        this.output = output;
+        this.logObjectName = logObjectName;
+    }
+
+    public static BinaryExecutionResult exited(int exitCode) {
+        return new BinaryExecutionResult(exitCode == 0, false, exitCode,
+                exitCode == 0 ? null : "Process exited with code " + exitCode, null, null);
+    }
+
+    public static BinaryExecutionResult failed(String error) {
+        return new BinaryExecutionResult(false, false, null, error, null, null);
+    }
+
+    // Stopped on request rather than by failing
+    public static BinaryExecutionResult cancelled(String reason) {
+        return new BinaryExecutionResult(false, true, null, reason, null, null);
+    }
+
+    // The tail of the output and the MinIO object holding the full compressed log, if any
+    public BinaryExecutionResult withOutput(String output, String logObjectName) {
+        return new BinaryExecutionResult(success, cancelled, exitCode, error, output, logObjectName);
+    }
+
+    public boolean isSuccess() { return success; }
+
+    public boolean isCancelled() { return cancelled; }
+
+    public Integer getExitCode() { return exitCode; }
+
+    public String getError() { return error; }
+
+    public String getOutput() { return output; }
+
+    public String getLogObjectName() { return logObjectName; }
+}
@@ -1,18 +1,21 @@
 package com.jobscheduler.service;
 
 import com.jobscheduler.entity.BinaryJob;
+import com.jobscheduler.worker.JvmWorkerPool;
+import com.jobscheduler.worker.PythonForkServer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 @Service
@@ -21,50 +24,66 @@ public class BinaryExecutionService {
     private static final Logger logger = LoggerFactory.getLogger(BinaryExecutionService.class);
 
     @Autowired
-    private MinioService minioService;
+    private ArtifactCacheService artifactCacheService;
 
-    public boolean executeBinaryJob(BinaryJob job) {
+    @Autowired
+    private BinaryOutputService binaryOutputService;
+
+    @Autowired
+    private BinaryAdmissionService binaryAdmissionService;
+
+    @Autowired
+    private RunningBinaryRegistry runningBinaryRegistry;
+
+    // Present only when app.binary.jvm-pool.enabled is set
+    @Autowired(required = false)
+    private JvmWorkerPool jvmWorkerPool;
+
+    // Present only when app.binary.python-pool.enabled is set
+    @Autowired(required = false)
+    private PythonForkServer pythonForkServer;
+
+    public BinaryExecutionResult executeBinaryJob(BinaryJob job) {
         logger.info("Starting execution of binary job: {}", job.getId());
 
+        try (RunningBinaryRegistry.RunningBinary run = runningBinaryRegistry.register(job)) {
+            BinaryExecutionResult result = executeBinaryJob(job, run);
+            return run.isCancelled() ? stopped(run, result) : result;
+        }
+    }
+
+    private BinaryExecutionResult executeBinaryJob(BinaryJob job, RunningBinaryRegistry.RunningBinary run) {
         try {
-            // Download file from MinIO if needed
-            Path localFilePath = downloadFileFromStorage(job);
+            if (job.getMinioBucket() != null && job.getMinioObjectName() != null) {
+                // Served from the local artifact cache, downloading only when the object changed
+                try (ArtifactCacheService.Artifact artifact =
+                         artifactCacheService.acquire(job.getMinioBucket(), job.getMinioObjectName())) {
+                    return executeBinary(artifact.getPath(), job, run);
+                }
+            }
+
+            // Use local file path
+            Path localFilePath = job.getFilePath() != null ? Paths.get(job.getFilePath()) : null;
             
             if (localFilePath == null || !Files.exists(localFilePath)) {
                 logger.error("Binary file not found for job: {}", job.getId());
-                return false;
+                return BinaryExecutionResult.failed("Binary file not found");
             }
 
             // Make file executable (for Unix-like systems)
             makeFileExecutable(localFilePath);
 
             // Execute the binary
-            boolean success = executeBinary(localFilePath, job);
+            BinaryExecutionResult result = executeBinary(localFilePath, job, run);
 
             // Clean up temporary file
             cleanupTempFile(localFilePath);
 
-            return success;
+            return result;
 
         } catch (Exception e) {
             logger.error("Error executing binary job: {}", job.getId(), e);
-            return false;
-        }
-    }
-
-    private Path downloadFileFromStorage(BinaryJob job) {
-        try {
-            if (job.getMinioBucket() != null && job.getMinioObjectName() != null) {
-                // Download from MinIO
-                return minioService.downloadFile(job.getMinioBucket(), job.getMinioObjectName());
-            } else if (job.getFilePath() != null) {
-                // Use local file path
-                return Paths.get(job.getFilePath());
-            }
-            return null;
-        } catch (Exception e) {
-            logger.error("Error downloading file for job: {}", job.getId(), e);
-            return null;
+            return BinaryExecutionResult.failed(e.toString());
         }
     }
 
@@ -79,57 +98,135 @@ public class BinaryExecutionService {
         }
     }
 
-    private boolean executeBinary(Path filePath, BinaryJob job) {
-        try {
-            ProcessBuilder processBuilder = new ProcessBuilder();
-            
-            // Determine execution command based on file type
-            String fileName = filePath.getFileName().toString().toLowerCase();
-            if (fileName.endsWith(".py")) {
-                processBuilder.command("python3", filePath.toString());
-            } else if (fileName.endsWith(".sh")) {
-                processBuilder.command("bash", filePath.toString());
-            } else if (fileName.endsWith(".jar")) {
-                processBuilder.command("java", "-jar", filePath.toString());
-            } else {
-                // Assume it's a native executable
-                processBuilder.command(filePath.toString());
+    private BinaryExecutionResult executeBinary(Path filePath, BinaryJob job, RunningBinaryRegistry.RunningBinary run) {
+        // Waits here while the host has no room for the job's CPU and memory
+        try (BinaryAdmissionService.Lease lease = binaryAdmissionService.admit(job)) {
+            // The binary may sit in a shared cache entry, so whatever a run writes goes to a directory of its own
+            Path workingDirectory = Files.createTempDirectory("binary-job-" + job.getId() + "-");
+            try {
+                return launch(filePath, workingDirectory, job, lease, run);
+            } finally {
+                deleteWorkingDirectory(workingDirectory);
             }
+        } catch (IOException | InterruptedException e) {
+            logger.error("Error executing binary for job: {}", job.getId(), e);
+            return BinaryExecutionResult.failed(e.toString());
+        }
+    }
 
-            processBuilder.directory(filePath.getParent().toFile());
-            processBuilder.redirectErrorStream(true);
+    private BinaryExecutionResult launch(Path filePath, Path workingDirectory, BinaryJob job,
+                                         BinaryAdmissionService.Lease lease,
+                                         RunningBinaryRegistry.RunningBinary run) throws IOException, InterruptedException {
+        // Determine execution command based on file type
+        String fileName = filePath.getFileName().toString().toLowerCase();
+
+        // Pooled workers and forked interpreters cannot be confined, so jobs with enforced limits start cold
+        if (fileName.endsWith(".jar") && jvmWorkerPool != null && !lease.confines()) {
+            JvmWorkerPool.Worker worker = jvmWorkerPool.borrow();
+            if (worker != null) {
+                return executeInWorker(worker, filePath, job, run);
+            }
+        }
 
-            logger.info("Executing command: {} for job: {}", processBuilder.command(), job.getId());
+        if (fileName.endsWith(".py") && pythonForkServer != null && !lease.confines()) {
+            PythonForkServer.Run forked = pythonForkServer.start(filePath, workingDirectory);
+            if (forked != null) {
+                return executeInForkServer(forked, filePath, job, run);
+            }
+        }
 
-            Process process = processBuilder.start();
+        List<String> command;
+        if (fileName.endsWith(".py")) {
+            command = List.of("python3", filePath.toString());
+        } else if (fileName.endsWith(".sh")) {
+            command = List.of("bash", filePath.toString());
+        } else if (fileName.endsWith(".jar")) {
+            command = new ArrayList<>(List.of("java"));
+            command.addAll(lease.javaOptions());
+            command.addAll(List.of("-jar", filePath.toString()));
+        } else {
+            // Assume it's a native executable
+            command = List.of(filePath.toString());
+        }
 
-            // Read output
-            StringBuilder output = new StringBuilder();
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    output.append(line).append("\n");
-                    logger.debug("Job {} output: {}", job.getId(), line);
-                }
-            }
+        ProcessBuilder processBuilder = new ProcessBuilder(lease.confine(command));
+        processBuilder.directory(workingDirectory.toFile());
+        processBuilder.redirectErrorStream(true);
 
-            // Wait for process to complete with timeout
-            boolean finished = process.waitFor(30, TimeUnit.MINUTES);
-            
-            if (!finished) {
-                logger.error("Binary execution timed out for job: {}", job.getId());
-                process.destroyForcibly();
-                return false;
-            }
+        logger.info("Executing command: {} for job: {}", processBuilder.command(), job.getId());
 
-            int exitCode = process.exitValue();
-            logger.info("Binary execution completed for job: {} with exit code: {}", job.getId(), exitCode);
+        Process process = processBuilder.start();
+        lease.watch(process);
+        // Cancellation and the job's timeout kill everything the process started, not just the process
+        run.attach(process.pid(), () -> {
+            List<ProcessHandle> descendants = process.descendants().toList();
+            process.destroyForcibly();
+            descendants.forEach(ProcessHandle::destroyForcibly);
+        });
 
-            return exitCode == 0;
+        // Stream output through a bounded tail and the log upload instead of buffering it
+        try (BinaryOutputService.Capture output = binaryOutputService.open(job)) {
+            output.drain(process.getInputStream());
 
-        } catch (IOException | InterruptedException e) {
-            logger.error("Error executing binary for job: {}", job.getId(), e);
-            return false;
+            return toResult(job, process.waitFor()).withOutput(output.tail(), output.finish());
+        }
+    }
+
+    // Runs the jar's main class in a pre-started JVM instead of launching a new one
+    private BinaryExecutionResult executeInWorker(JvmWorkerPool.Worker worker, Path filePath, BinaryJob job,
+                                                  RunningBinaryRegistry.RunningBinary run)
+            throws IOException, InterruptedException {
+        logger.info("Executing {} in a pooled JVM for job: {}", filePath, job.getId());
+
+        try (worker; BinaryOutputService.Capture output = binaryOutputService.open(job)) {
+            // Stopping a pooled job means replacing its worker
+            run.attach(worker.pid(), worker::kill);
+            output.drain(worker.run(filePath));
+
+            Integer exitCode = worker.awaitExit(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+
+            return toResult(job, exitCode).withOutput(output.tail(), output.finish());
+        }
+    }
+
+    // Forks the script from a warm interpreter that already has the preloaded modules imported
+    private BinaryExecutionResult executeInForkServer(PythonForkServer.Run forked, Path filePath, BinaryJob job,
+                                                      RunningBinaryRegistry.RunningBinary run)
+            throws IOException, InterruptedException {
+        logger.info("Executing {} in the Python fork server for job: {}", filePath, job.getId());
+
+        try (forked; BinaryOutputService.Capture output = binaryOutputService.open(job)) {
+            run.attach(null, forked::kill);
+            output.drain(forked.getOutput());
+
+            Integer exitCode = forked.awaitExit(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+
+            return toResult(job, exitCode).withOutput(output.tail(), output.finish());
+        }
+    }
+
+    private BinaryExecutionResult toResult(BinaryJob job, Integer exitCode) {
+        if (exitCode == null) {
+            logger.error("Binary execution timed out for job: {}", job.getId());
+            return BinaryExecutionResult.failed("Timed out");
+        }
+        logger.info("Binary execution completed for job: {} with exit code: {}", job.getId(), exitCode);
+        return BinaryExecutionResult.exited(exitCode);
+    }
+
+    // A run that was killed is reported as cancelled or timed out, whatever its exit code was
+    private BinaryExecutionResult stopped(RunningBinaryRegistry.RunningBinary run, BinaryExecutionResult result) {
+        BinaryExecutionResult stopped = run.isTimedOut()
+                ? BinaryExecutionResult.failed(run.getCancelReason())
+                : BinaryExecutionResult.cancelled(run.getCancelReason());
+        return stopped.withOutput(result.getOutput(), result.getLogObjectName());
+    }
+
+    private void deleteWorkingDirectory(Path workingDirectory) {
+        try {
+            FileSystemUtils.deleteRecursively(workingDirectory);
+        } catch (IOException e) {
+            logger.warn("Could not delete working directory: {}", workingDirectory, e);
         }
     }
 
@@ -0,0 +1,203 @@
+package com.jobscheduler.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs binary jobs on a fixed pool of worker threads so the Kafka listener thread only
+ * parses and hands off. The binary-jobs listener container is paused once
+ * {@code max-in-flight} executions are running or queued and resumed when the backlog drains
+ * to half of that; a paused container keeps polling, so a long binary never trips
+ * {@code max.poll.interval.ms}. Consumers that already polled a record when the pause is
+ * requested still hand it over, so up to {@code max-in-flight} plus two further runs can be
+ * in flight. Runs finish out of order, so each partition is committed only up to its lowest
+ * unfinished offset; a slow run holds back the commit, not the partition.
+ */
+@Service
+public class BinaryJobExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(BinaryJobExecutor.class);
+
+    public static final String LISTENER_ID = "binary-job-listener";
+
+    @Autowired
+    private KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+
+    @Value("${app.binary.execution.pool-size:4}")
+    private int poolSize;
+
+    @Value("${app.binary.execution.max-in-flight:8}")
+    private int maxInFlight;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<TopicPartition, PartitionOffsets> offsets = new HashMap<>();
+    private ExecutorService executor;
+    private volatile boolean paused;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        // The queue is unbounded only because the container stops fetching at max-in-flight;
+        // the overshoot is limited to the records of polls already in progress
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "binary-exec-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        logger.info("Binary job executor started with {} threads, pausing intake at {} in flight", poolSize, maxInFlight);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                // Unacknowledged records are redelivered after restart
+                logger.warn("{} binary executions still running at shutdown", inFlight.get());
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void submit(Runnable task) {
+        if (inFlight.incrementAndGet() >= maxInFlight) {
+            pauseIntake();
+        }
+        executor.execute(() -> {
+            try {
+                task.run();
+            } finally {
+                if (inFlight.decrementAndGet() <= maxInFlight / 2) {
+                    resumeIntake();
+                }
+            }
+        });
+    }
+
+    /**
+     * Registers a record as received. Returns false for a redelivery of a record that is still
+     * running or done but not yet committed, which must not run again.
+     */
+    public boolean track(ConsumerRecord<?, ?> record) {
+        synchronized (offsets) {
+            PartitionOffsets partition = offsets.computeIfAbsent(partitionOf(record), key -> new PartitionOffsets());
+            long offset = record.offset();
+            if (!partition.redeliveries.remove(offset)
+                    && (partition.pending.containsKey(offset) || partition.done.containsKey(offset))) {
+                return false;
+            }
+            partition.pending.put(offset, record);
+            return true;
+        }
+    }
+
+    /**
+     * Marks a record as handled and commits its partition up to the lowest offset still unfinished.
+     */
+    public void complete(ConsumerRecord<?, ?> record, Acknowledgment acknowledgment) {
+        Acknowledgment commit = null;
+        synchronized (offsets) {
+            PartitionOffsets partition = offsets.get(partitionOf(record));
+            // The partition was revoked meanwhile; its new owner redelivers from the last commit
+            if (partition == null || partition.pending.get(record.offset()) != record) {
+                return;
+            }
+            partition.pending.remove(record.offset());
+            partition.done.put(record.offset(), acknowledgment);
+            SortedMap<Long, Acknowledgment> committable = partition.pending.isEmpty()
+                    ? partition.done : partition.done.headMap(partition.pending.firstKey());
+            if (!committable.isEmpty()) {
+                commit = committable.get(committable.lastKey());
+                committable.clear();
+            }
+        }
+        if (commit != null) {
+            // Acknowledging a record commits its partition up to and including it
+            commit.acknowledge();
+        }
+    }
+
+    /**
+     * Keeps a record that could not be handled uncommitted until it is delivered again, and returns
+     * the offset its partition has to be sought back to, or -1 if the partition was revoked.
+     */
+    public long redeliver(ConsumerRecord<?, ?> record) {
+        synchronized (offsets) {
+            PartitionOffsets partition = offsets.get(partitionOf(record));
+            if (partition == null || partition.pending.get(record.offset()) != record) {
+                return -1;
+            }
+            partition.redeliveries.add(record.offset());
+            // Seeks that overtake each other must not skip an earlier record waiting for redelivery
+            return partition.redeliveries.first();
+        }
+    }
+
+    public void forget(Collection<TopicPartition> partitions) {
+        synchronized (offsets) {
+            partitions.forEach(offsets::remove);
+        }
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    private static TopicPartition partitionOf(ConsumerRecord<?, ?> record) {
+        return new TopicPartition(record.topic(), record.partition());
+    }
+
+    private synchronized void pauseIntake() {
+        MessageListenerContainer container = kafkaListenerEndpointRegistry.getListenerContainer(LISTENER_ID);
+        if (!paused && container != null && inFlight.get() >= maxInFlight) {
+            container.pause();
+            paused = true;
+            logger.info("Pausing binary job intake with {} executions in flight", inFlight.get());
+        }
+    }
+
+    private synchronized void resumeIntake() {
+        MessageListenerContainer container = kafkaListenerEndpointRegistry.getListenerContainer(LISTENER_ID);
+        if (paused && container != null && inFlight.get() <= maxInFlight / 2) {
+            container.resume();
+            paused = false;
+            logger.info("Resuming binary job intake with {} executions in flight", inFlight.get());
+        }
+    }
+
+    // Received offsets of one partition that are not committed yet
+    private static final class PartitionOffsets {
+        private final TreeMap<Long, ConsumerRecord<?, ?>> pending = new TreeMap<>();
+        private final TreeMap<Long, Acknowledgment> done = new TreeMap<>();
+        private final TreeSet<Long> redeliveries = new TreeSet<>();
+    }
+}
@@ -0,0 +1,220 @@
+package com.jobscheduler.service;
+
+import com.jobscheduler.dto.OutputTail;
+import com.jobscheduler.entity.BinaryJob;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Captures binary job output without holding it in memory. Output is read in fixed-size chunks:
+ * the last {@code tail-bytes} stay in a ring buffer that backs the live tail and ends up in the
+ * execution record, while the full stream is gzip-compressed and piped into a MinIO multipart
+ * upload running alongside the process. A slow upload slows the reader and so the process, but
+ * never grows the heap; a failed upload only loses the full log.
+ */
+@Service
+public class BinaryOutputService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BinaryOutputService.class);
+
+    private static final int READ_BUFFER_SIZE = 8192;
+    private static final int PIPE_BUFFER_SIZE = 64 * 1024;
+    private static final DateTimeFormatter LOG_NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Autowired
+    private MinioService minioService;
+
+    @Value("${app.binary.output.tail-bytes:65536}")
+    private int tailBytes;
+
+    @Value("${app.binary.output.log-upload.enabled:true}")
+    private boolean logUploadEnabled;
+
+    @Value("${app.binary.output.log-upload.bucket:job-logs}")
+    private String logBucket;
+
+    @Value("${app.binary.output.log-upload.part-size-mb:5}")
+    private int partSizeMb;
+
+    @Value("${app.binary.output.log-upload.timeout-seconds:300}")
+    private int uploadTimeoutSeconds;
+
+    private final ConcurrentHashMap<Long, Capture> running = new ConcurrentHashMap<>();
+    private ExecutorService uploadExecutor;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        // One upload per running binary, so the binary execution pool already bounds this
+        uploadExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "binary-log-upload-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        uploadExecutor.shutdownNow();
+    }
+
+    // Starts capturing the output of one run of the job
+    public Capture open(BinaryJob job) {
+        Capture capture = new Capture(job.getId(), new byte[tailBytes]);
+        if (logUploadEnabled) {
+            capture.startUpload(String.format("job-%d/%s-%s.log.gz", job.getId(),
+                    LocalDateTime.now().format(LOG_NAME_FORMAT), UUID.randomUUID().toString().substring(0, 8)));
+        }
+        running.put(job.getId(), capture);
+        return capture;
+    }
+
+    // Output of the job's in-flight run from the given offset, as far as the tail still holds it
+    public Optional<OutputTail> readSince(Long jobId, long offset) {
+        Capture capture = running.get(jobId);
+        return capture == null ? Optional.empty() : Optional.of(capture.since(offset));
+    }
+
+    /**
+     * Output of one run. Closing it ends the live tail; {@link #finish()} must be called first
+     * to complete the log upload.
+     */
+    public final class Capture implements AutoCloseable {
+        private final Long jobId;
+        private final byte[] ring;
+        private long written;
+
+        private String logObjectName;
+        private OutputStream logStream;
+        private Future<?> upload;
+
+        private Capture(Long jobId, byte[] ring) {
+            this.jobId = jobId;
+            this.ring = ring;
+        }
+
+        private void startUpload(String objectName) {
+            try {
+                PipedInputStream pipeIn = new PipedInputStream(PIPE_BUFFER_SIZE);
+                logStream = new GZIPOutputStream(new PipedOutputStream(pipeIn), READ_BUFFER_SIZE);
+                logObjectName = objectName;
+                upload = uploadExecutor.submit(() -> {
+                    // Closing the read side makes further writes fail instead of blocking
+                    try (pipeIn) {
+                        minioService.uploadStream(logBucket, objectName, pipeIn, "application/gzip",
+                                (long) partSizeMb * 1024 * 1024);
+                    }
+                    return null;
+                });
+            } catch (IOException e) {
+                logger.warn("Could not start log upload for job {}, keeping only the output tail", jobId, e);
+                logStream = null;
+            }
+        }
+
+        // Reads the stream to its end
+        public void drain(InputStream in) throws IOException {
+            byte[] buffer = new byte[READ_BUFFER_SIZE];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                append(buffer, n);
+                writeLog(buffer, n);
+            }
+        }
+
+        public String tail() {
+            return since(0).getOutput();
+        }
+
+        // Completes the log upload and returns its object name, or null if no full log was stored
+        public String finish() {
+            if (upload == null) {
+                return null;
+            }
+            boolean complete = logStream != null;
+            try {
+                if (logStream != null) {
+                    logStream.close();
+                    logStream = null;
+                }
+                upload.get(uploadTimeoutSeconds, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                logger.warn("Log upload failed for job {}", jobId, e);
+                upload.cancel(true);
+                complete = false;
+            }
+            upload = null;
+            return complete ? logObjectName : null;
+        }
+
+        @Override
+        public void close() {
+            running.remove(jobId, this);
+            if (logStream != null) {
+                // Not finished normally: stop feeding the upload, which then stores what it has
+                finish();
+            }
+        }
+
+        private synchronized void append(byte[] buffer, int length) {
+            int offset = 0;
+            if (length > ring.length) {
+                offset = length - ring.length;
+                written += offset;
+                length = ring.length;
+            }
+            int position = (int) (written % ring.length);
+            int first = Math.min(length, ring.length - position);
+            System.arraycopy(buffer, offset, ring, position, first);
+            System.arraycopy(buffer, offset + first, ring, 0, length - first);
+            written += length;
+        }
+
+        private synchronized OutputTail since(long offset) {
+            long start = Math.max(Math.min(offset, written), written - Math.min(written, ring.length));
+            byte[] bytes = new byte[(int) (written - start)];
+            int position = (int) (start % ring.length);
+            int first = Math.min(bytes.length, ring.length - position);
+            System.arraycopy(ring, position, bytes, 0, first);
+            System.arraycopy(ring, 0, bytes, first, bytes.length - first);
+            return new OutputTail(jobId, start, written, start > offset,
+                    new String(bytes, StandardCharsets.UTF_8));
+        }
+
+        private void writeLog(byte[] buffer, int length) {
+            if (logStream == null) {
+                return;
+            }
+            try {
+                logStream.write(buffer, 0, length);
+            } catch (IOException e) {
+                // The upload side closed the pipe; carry on with the tail only
+                logger.warn("Log upload for job {} stopped, keeping only the output tail", jobId, e);
+                logStream = null;
+            }
+        }
+    }
+}
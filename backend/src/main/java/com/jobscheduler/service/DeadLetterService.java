@@ -0,0 +1,178 @@
+package com.jobscheduler.service;
+
+import com.jobscheduler.dto.DeadLetterEntry;
+import com.jobscheduler.messaging.JobMessage;
+import com.jobscheduler.messaging.JobMessageCodec;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read and replay access to the dead-letter topic. Entries are read with a short-lived,
+ * manually assigned consumer so inspecting the topic never moves any consumer group.
+ * Replaying publishes a copy back to the original topic with a fresh attempt count; the
+ * dead-letter record itself stays in the topic until retention removes it.
+ */
+@Service
+public class DeadLetterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeadLetterService.class);
+
+    public static final String REPLAYED_FROM_HEADER = "x-replayed-from";
+
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+
+    @Autowired
+    private ConsumerFactory<String, byte[]> jobMessageConsumerFactory;
+
+    @Autowired
+    private KafkaTemplate<String, byte[]> jobMessageKafkaTemplate;
+
+    @Autowired
+    private JobRetryService jobRetryService;
+
+    // Newest entries first, at most limit of them
+    public List<DeadLetterEntry> getEntries(int limit) {
+        List<ConsumerRecord<String, byte[]>> records = new ArrayList<>();
+        try (Consumer<String, byte[]> consumer = jobMessageConsumerFactory.createConsumer()) {
+            List<TopicPartition> partitions = partitions(consumer);
+            if (partitions.isEmpty()) {
+                return List.of();
+            }
+            consumer.assign(partitions);
+            Map<TopicPartition, Long> beginning = consumer.beginningOffsets(partitions);
+            Map<TopicPartition, Long> end = consumer.endOffsets(partitions);
+            for (TopicPartition partition : partitions) {
+                long from = Math.max(beginning.get(partition), end.get(partition) - limit);
+                records.addAll(read(consumer, partition, from, end.get(partition)));
+            }
+        }
+        return records.stream()
+                .sorted(Comparator.comparingLong((ConsumerRecord<String, byte[]> record) -> record.timestamp()).reversed())
+                .limit(limit)
+                .map(this::toEntry)
+                .toList();
+    }
+
+    public Optional<DeadLetterEntry> replay(int partition, long offset) {
+        try (Consumer<String, byte[]> consumer = jobMessageConsumerFactory.createConsumer()) {
+            TopicPartition topicPartition = new TopicPartition(jobRetryService.getDeadLetterTopic(), partition);
+            consumer.assign(List.of(topicPartition));
+            List<ConsumerRecord<String, byte[]>> records = read(consumer, topicPartition, offset, offset + 1);
+            if (records.isEmpty()) {
+                return Optional.empty();
+            }
+            ConsumerRecord<String, byte[]> record = records.get(0);
+            republish(record);
+            return Optional.of(toEntry(record));
+        }
+    }
+
+    // Replays the newest entries, optionally only those that came from originalTopic
+    public List<DeadLetterEntry> replayAll(String originalTopic, int limit) {
+        List<DeadLetterEntry> replayed = new ArrayList<>();
+        for (DeadLetterEntry entry : getEntries(limit)) {
+            if (originalTopic == null || originalTopic.equals(entry.getOriginalTopic())) {
+                replay(entry.getPartition(), entry.getOffset()).ifPresent(replayed::add);
+            }
+        }
+        return replayed;
+    }
+
+    private void republish(ConsumerRecord<String, byte[]> record) {
+        String originalTopic = JobRetryService.headerValue(record.headers(), JobRetryService.ORIGINAL_TOPIC_HEADER);
+        if (originalTopic == null) {
+            throw new IllegalStateException("Dead-letter record at offset " + record.offset() + " has no original topic");
+        }
+        ProducerRecord<String, byte[]> replay = new ProducerRecord<>(originalTopic, record.key(), record.value());
+        for (Header header : record.headers()) {
+            if (!header.key().startsWith("x-retry-") && !REPLAYED_FROM_HEADER.equals(header.key())) {
+                replay.headers().add(header);
+            }
+        }
+        String source = record.topic() + "-" + record.partition() + "@" + record.offset();
+        replay.headers().add(REPLAYED_FROM_HEADER, source.getBytes(StandardCharsets.UTF_8));
+        try {
+            jobMessageKafkaTemplate.send(replay).get(30, TimeUnit.SECONDS);
+            logger.info("Replayed dead-letter message {} to {}", source, originalTopic);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not replay dead-letter message " + source, e);
+        }
+    }
+
+    private List<TopicPartition> partitions(Consumer<String, byte[]> consumer) {
+        List<PartitionInfo> infos = consumer.partitionsFor(jobRetryService.getDeadLetterTopic());
+        if (infos == null) {
+            return List.of();
+        }
+        return infos.stream().map(info -> new TopicPartition(info.topic(), info.partition())).toList();
+    }
+
+    private static List<ConsumerRecord<String, byte[]>> read(Consumer<String, byte[]> consumer, TopicPartition partition,
+                                                             long from, long to) {
+        List<ConsumerRecord<String, byte[]>> records = new ArrayList<>();
+        if (from >= to) {
+            return records;
+        }
+        consumer.seek(partition, from);
+        int emptyPolls = 0;
+        while (consumer.position(partition) < to && emptyPolls < 3) {
+            ConsumerRecords<String, byte[]> polled = consumer.poll(POLL_TIMEOUT);
+            emptyPolls = polled.isEmpty() ? emptyPolls + 1 : 0;
+            for (ConsumerRecord<String, byte[]> record : polled.records(partition)) {
+                if (record.offset() < to) {
+                    records.add(record);
+                }
+            }
+        }
+        return records;
+    }
+
+    private DeadLetterEntry toEntry(ConsumerRecord<String, byte[]> record) {
+        DeadLetterEntry entry = new DeadLetterEntry();
+        entry.setPartition(record.partition());
+        entry.setOffset(record.offset());
+        entry.setKey(record.key());
+        entry.setOriginalTopic(JobRetryService.headerValue(record.headers(), JobRetryService.ORIGINAL_TOPIC_HEADER));
+        entry.setAttempts(JobRetryService.parseAttempt(
+                JobRetryService.headerValue(record.headers(), JobRetryService.ATTEMPT_HEADER)));
+        entry.setLastError(JobRetryService.headerValue(record.headers(), JobRetryService.LAST_ERROR_HEADER));
+        entry.setFailedAt(JobRetryService.headerValue(record.headers(), JobRetryService.FAILED_AT_HEADER));
+        entry.setDeadLetteredAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(record.timestamp()), ZoneId.systemDefault()));
+        try {
+            JobMessage message = JobMessageCodec.decode(record.value());
+            entry.setJobId(message.getJobId());
+            entry.setJobType(message.getJobType());
+            if (message.hasPayload()) {
+                entry.setPayload(new String(message.getPayload(), StandardCharsets.UTF_8));
+            }
+        } catch (IllegalArgumentException e) {
+            // Not an envelope, which is often why it ended up here
+            entry.setPayload(record.value() != null ? Base64.getEncoder().encodeToString(record.value()) : null);
+        }
+        return entry;
+    }
+}
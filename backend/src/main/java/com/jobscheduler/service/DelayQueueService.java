@@ -0,0 +1,249 @@
+package com.jobscheduler.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.AcknowledgingMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delayed delivery of job messages through a fixed set of tiered delay topics
+ * (by default {@code job-delay-1m}, {@code job-delay-10m} and {@code job-delay-1h}).
+ *
+ * <p>A delayed message goes to the largest tier not longer than its remaining delay, with the
+ * destination topic and due time in headers. Every record in a tier topic waits the same
+ * fixed time, so records come due in offset order and the relay only has to look at the head
+ * of each partition: it pauses until the head is due, then publishes it to the destination,
+ * or to a shorter tier if time remains. Delays never touch the scheduler or the database.
+ *
+ * <p>Other services can register their own fixed-delay topics (e.g. retry topics) and get the
+ * same relay behaviour without taking part in tier routing.
+ */
+@Service
+public class DelayQueueService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DelayQueueService.class);
+
+    public static final String TARGET_TOPIC_HEADER = "x-delay-target-topic";
+    public static final String DUE_AT_HEADER = "x-delay-due-at";
+
+    @Autowired
+    private KafkaTemplate<String, byte[]> jobMessageKafkaTemplate;
+
+    @Autowired
+    private ConcurrentKafkaListenerContainerFactory<String, byte[]> jobMessageListenerContainerFactory;
+
+    @Autowired
+    private KafkaAdmin kafkaAdmin;
+
+    @Value("${app.kafka.delay.tiers:1m,10m,1h}")
+    private String tierSpec;
+
+    @Value("${app.kafka.delay.topic-prefix:job-delay-}")
+    private String topicPrefix;
+
+    @Value("${app.kafka.delay.partitions:3}")
+    private int partitions;
+
+    @Value("${app.kafka.delay.max-pause-ms:30000}")
+    private long maxPauseMs;
+
+    @Value("${app.kafka.consumer.group-id}")
+    private String groupId;
+
+    private final List<Tier> tiers = new ArrayList<>();
+    private final Map<String, Tier> dedicatedTopics = new LinkedHashMap<>();
+    private final List<ConcurrentMessageListenerContainer<String, byte[]>> relays = new ArrayList<>();
+
+    @PostConstruct
+    public void init() {
+        for (String token : tierSpec.split(",")) {
+            String label = token.trim();
+            if (!label.isEmpty()) {
+                tiers.add(new Tier(topicPrefix + label, DurationStyle.detectAndParse(label).toMillis(), false));
+            }
+        }
+        if (tiers.isEmpty()) {
+            throw new IllegalStateException("app.kafka.delay.tiers must define at least one tier");
+        }
+        tiers.sort(Comparator.comparingLong(tier -> tier.delayMs));
+
+        NewTopic[] topics = tiers.stream()
+                .map(tier -> TopicBuilder.name(tier.topic).partitions(partitions).build())
+                .toArray(NewTopic[]::new);
+        try {
+            kafkaAdmin.createOrModifyTopics(topics);
+        } catch (Exception e) {
+            logger.warn("Could not create delay topics, relying on broker auto-creation", e);
+        }
+    }
+
+    // Must be called before the application is ready; the topic is relayed like a tier
+    public void registerRelayTopic(String topic, long delayMs) {
+        dedicatedTopics.put(topic, new Tier(topic, delayMs, true));
+        try {
+            kafkaAdmin.createOrModifyTopics(TopicBuilder.name(topic).partitions(partitions).build());
+        } catch (Exception e) {
+            logger.warn("Could not create relay topic {}, relying on broker auto-creation", topic, e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startRelays() {
+        List<Tier> relayed = new ArrayList<>(tiers);
+        relayed.addAll(dedicatedTopics.values());
+        for (Tier tier : relayed) {
+            ConcurrentMessageListenerContainer<String, byte[]> container =
+                    jobMessageListenerContainerFactory.createContainer(tier.topic);
+            container.getContainerProperties().setGroupId(groupId + "-delay-relay");
+            container.getContainerProperties().setMessageListener(
+                    (AcknowledgingMessageListener<String, byte[]>) (record, ack) -> relay(record, ack, tier));
+            container.setBeanName("delay-relay-" + tier.topic);
+            container.start();
+            relays.add(container);
+        }
+        logger.info("Delay relays started for topics: {}", relayed.stream().map(tier -> tier.topic).toList());
+    }
+
+    @PreDestroy
+    public void stopRelays() {
+        relays.forEach(ConcurrentMessageListenerContainer::stop);
+    }
+
+    public List<String> getTopicNames() {
+        return tiers.stream().map(tier -> tier.topic).toList();
+    }
+
+    // Delivers the message to targetTopic once delayMs has elapsed
+    public CompletableFuture<SendResult<String, byte[]>> publish(String targetTopic, String key, byte[] message, long delayMs) {
+        long now = System.currentTimeMillis();
+        return route(targetTopic, key, message, now + delayMs, now, null);
+    }
+
+    // Parks the message in a registered relay topic for that topic's delay, then delivers it to targetTopic
+    public CompletableFuture<SendResult<String, byte[]>> publishThrough(String relayTopic, String targetTopic, String key,
+                                                                        byte[] message, Headers headers) {
+        Tier tier = dedicatedTopics.get(relayTopic);
+        if (tier == null) {
+            throw new IllegalArgumentException("Unknown relay topic: " + relayTopic);
+        }
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(relayTopic, key, message);
+        copyHeaders(headers, record);
+        record.headers().add(TARGET_TOPIC_HEADER, targetTopic.getBytes(StandardCharsets.UTF_8));
+        record.headers().add(DUE_AT_HEADER,
+                Long.toString(System.currentTimeMillis() + tier.delayMs).getBytes(StandardCharsets.UTF_8));
+        return jobMessageKafkaTemplate.send(record);
+    }
+
+    private CompletableFuture<SendResult<String, byte[]>> route(String targetTopic, String key, byte[] message,
+                                                                long dueAt, long now, Headers carried) {
+        ProducerRecord<String, byte[]> record;
+        long remaining = dueAt - now;
+        if (remaining <= 0) {
+            record = new ProducerRecord<>(targetTopic, key, message);
+        } else {
+            record = new ProducerRecord<>(tierFor(remaining).topic, key, message);
+            record.headers().add(TARGET_TOPIC_HEADER, targetTopic.getBytes(StandardCharsets.UTF_8));
+            record.headers().add(DUE_AT_HEADER, Long.toString(dueAt).getBytes(StandardCharsets.UTF_8));
+        }
+        copyHeaders(carried, record);
+        return jobMessageKafkaTemplate.send(record);
+    }
+
+    private static void copyHeaders(Headers headers, ProducerRecord<String, byte[]> record) {
+        if (headers == null) {
+            return;
+        }
+        for (Header header : headers) {
+            if (!TARGET_TOPIC_HEADER.equals(header.key()) && !DUE_AT_HEADER.equals(header.key())) {
+                record.headers().add(header);
+            }
+        }
+    }
+
+    private void relay(ConsumerRecord<String, byte[]> record, Acknowledgment acknowledgment, Tier tier) {
+        String targetTopic = headerValue(record, TARGET_TOPIC_HEADER);
+        String dueAtValue = headerValue(record, DUE_AT_HEADER);
+        if (targetTopic == null || dueAtValue == null) {
+            logger.error("Dropping delayed message without routing headers from topic: {}, partition: {}, offset: {}",
+                    record.topic(), record.partition(), record.offset());
+            acknowledgment.acknowledge();
+            return;
+        }
+
+        long dueAt = Long.parseLong(dueAtValue);
+        long now = System.currentTimeMillis();
+        // Dedicated topics deliver straight to the target, so they wait for the exact due time
+        long releaseAt = tier.dedicated ? dueAt : Math.min(record.timestamp() + tier.delayMs, dueAt);
+        if (releaseAt > now) {
+            // Head of the partition is not due yet, so nothing behind it is either
+            acknowledgment.nack(Duration.ofMillis(Math.min(releaseAt - now, maxPauseMs)));
+            return;
+        }
+
+        try {
+            route(targetTopic, record.key(), record.value(), dueAt, now, record.headers()).get(30, TimeUnit.SECONDS);
+            acknowledgment.acknowledge();
+            logger.debug("Relayed delayed message for key: {} from {} towards {}", record.key(), record.topic(), targetTopic);
+        } catch (Exception e) {
+            logger.error("Error relaying delayed message for key: {} from topic: {}", record.key(), record.topic(), e);
+            acknowledgment.nack(Duration.ofSeconds(1));
+        }
+    }
+
+    // Largest tier that does not overshoot the remaining delay, or the smallest tier
+    private Tier tierFor(long remainingMs) {
+        Tier chosen = tiers.get(0);
+        for (Tier tier : tiers) {
+            if (tier.delayMs <= remainingMs) {
+                chosen = tier;
+            }
+        }
+        return chosen;
+    }
+
+    private static String headerValue(ConsumerRecord<String, byte[]> record, String key) {
+        Header header = record.headers().lastHeader(key);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+
+    private static final class Tier {
+        private final String topic;
+        private final long delayMs;
+        private final boolean dedicated;
+
+        private Tier(String topic, long delayMs, boolean dedicated) {
+            this.topic = topic;
+            this.delayMs = delayMs;
+            this.dedicated = dedicated;
+        }
+    }
+}
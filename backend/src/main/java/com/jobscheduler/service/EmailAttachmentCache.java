@@ -0,0 +1,358 @@
+package com.jobscheduler.service;
+
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
+import jakarta.activation.DataHandler;
+import jakarta.activation.DataSource;
+import jakarta.activation.FileTypeMap;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Part;
+import jakarta.mail.internet.MimeBodyPart;
+import jakarta.mail.internet.MimeUtility;
+import jakarta.mail.internet.PreencodedMimeBodyPart;
+import jakarta.mail.util.ByteArrayDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Email attachments kept base64-encoded in memory, so a recurring job or a large fan-out attaches
+ * the same file without reading and encoding it for every message. Local files are keyed by path,
+ * size and modification time, and {@code minio://bucket/object} attachments by object and ETag,
+ * so a changed file is read again. Entries are evicted least recently used first once the encoded
+ * bytes pass max-memory-mb. Attachments above max-entry-mb are not kept in memory: they are
+ * streamed into each message as it is written, local files from disk and MinIO objects from the
+ * artifact cache's copy, so the object is downloaded once however many messages carry it.
+ */
+@Component
+public class EmailAttachmentCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailAttachmentCache.class);
+
+    public static final String MINIO_PREFIX = "minio://";
+
+    // MIME limits encoded lines to 76 characters
+    private static final Base64.Encoder ENCODER =
+            Base64.getMimeEncoder(76, "\r\n".getBytes(StandardCharsets.US_ASCII));
+
+    @Autowired
+    private MinioService minioService;
+
+    @Autowired
+    private ArtifactCacheService artifactCacheService;
+
+    private final long maxBytes;
+    private final long maxEntryBytes;
+
+    // Access-ordered: iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Encoded> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes;
+
+    // Concurrent sends of the same attachment share one encoding
+    private final ConcurrentHashMap<String, CompletableFuture<Encoded>> loading = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong uncached = new AtomicLong();
+
+    public EmailAttachmentCache(
+            @Value("${app.email.attachment-cache.max-memory-mb:64}") long maxMemoryMb,
+            @Value("${app.email.attachment-cache.max-entry-mb:8}") long maxEntryMb) {
+        this.maxBytes = maxMemoryMb * 1024 * 1024;
+        // An entry is encoded into one byte array
+        this.maxEntryBytes = Math.min(Integer.MAX_VALUE - 8, Math.min(maxBytes, maxEntryMb * 1024 * 1024));
+    }
+
+    /**
+     * Returns the attachment as a body part ready to add to a message, or empty if the file or
+     * object does not exist.
+     */
+    public Optional<MimeBodyPart> getBodyPart(String attachment) throws Exception {
+        Source source = attachment.startsWith(MINIO_PREFIX) ? minioSource(attachment) : fileSource(attachment);
+        if (source == null) {
+            return Optional.empty();
+        }
+        if (encodedSize(source.size) <= maxEntryBytes) {
+            return Optional.of(cached(source).toBodyPart());
+        }
+        uncached.incrementAndGet();
+        if (source.file != null) {
+            // Too large to keep: streamed from disk while the message is written, as before
+            MimeBodyPart part = new MimeBodyPart();
+            part.attachFile(source.file.toFile(), source.contentType, null);
+            return Optional.of(part);
+        }
+        // Too large to keep: streamed while the message is written, and only then
+        MimeBodyPart part = new MimeBodyPart();
+        part.setDataHandler(new DataHandler(new StreamedSource(source)));
+        // Set up front, as otherwise the object is read an extra time to pick an encoding
+        part.setHeader("Content-Transfer-Encoding", "base64");
+        part.setDisposition(Part.ATTACHMENT);
+        setFileName(part, source.fileName);
+        return Optional.of(part);
+    }
+
+    public Map<String, Object> getStatistics() {
+        synchronized (entries) {
+            return Map.of(
+                "hits", hits.get(),
+                "misses", misses.get(),
+                "evictions", evictions.get(),
+                "uncached", uncached.get(),
+                "entries", entries.size(),
+                "sizeBytes", totalBytes,
+                "maxSizeBytes", maxBytes
+            );
+        }
+    }
+
+    private Encoded cached(Source source) throws Exception {
+        synchronized (entries) {
+            Encoded encoded = entries.get(source.key);
+            if (encoded != null) {
+                hits.incrementAndGet();
+                return encoded;
+            }
+        }
+
+        CompletableFuture<Encoded> load = new CompletableFuture<>();
+        CompletableFuture<Encoded> running = loading.putIfAbsent(source.key, load);
+        if (running != null) {
+            hits.incrementAndGet();
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+        }
+        try {
+            misses.incrementAndGet();
+            Encoded encoded = encode(source);
+            store(source.key, encoded);
+            load.complete(encoded);
+            return encoded;
+        } catch (Exception e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(source.key, load);
+        }
+    }
+
+    private void store(String key, Encoded encoded) {
+        synchronized (entries) {
+            Encoded previous = entries.put(key, encoded);
+            if (previous != null) {
+                totalBytes -= previous.bytes.length;
+            }
+            totalBytes += encoded.bytes.length;
+            Iterator<Map.Entry<String, Encoded>> eldest = entries.entrySet().iterator();
+            while (totalBytes > maxBytes && eldest.hasNext()) {
+                Map.Entry<String, Encoded> entry = eldest.next();
+                totalBytes -= entry.getValue().bytes.length;
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private Encoded encode(Source source) throws Exception {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream((int) encodedSize(source.size));
+        try (InputStream in = source.open(); OutputStream out = ENCODER.wrap(buffer)) {
+            in.transferTo(out);
+        }
+        return new Encoded(source.fileName, source.contentType, buffer.toByteArray());
+    }
+
+    private Source fileSource(String attachment) throws IOException {
+        Path path = Paths.get(attachment);
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            logger.warn("Attachment file not found: {}", attachment);
+            return null;
+        }
+        String fileName = path.getFileName().toString();
+        String key = path.toAbsolutePath() + "|" + attributes.size() + "|" + attributes.lastModifiedTime().toMillis();
+        return new Source(key, fileName, FileTypeMap.getDefaultFileTypeMap().getContentType(fileName),
+                attributes.size(), path, () -> Files.newInputStream(path), null);
+    }
+
+    private Source minioSource(String attachment) throws Exception {
+        String location = attachment.substring(MINIO_PREFIX.length());
+        int slash = location.indexOf('/');
+        if (slash <= 0 || slash == location.length() - 1) {
+            throw new IllegalArgumentException("MinIO attachments take the form minio://bucket/object: " + attachment);
+        }
+        String bucketName = location.substring(0, slash);
+        String objectName = location.substring(slash + 1);
+        StatObjectResponse stat;
+        try {
+            stat = minioService.statFile(bucketName, objectName);
+        } catch (RuntimeException e) {
+            if (e.getCause() instanceof ErrorResponseException error && "NoSuchKey".equals(error.errorResponse().code())) {
+                logger.warn("Attachment object not found: {}", attachment);
+                return null;
+            }
+            throw e;
+        }
+        String fileName = objectName.substring(objectName.lastIndexOf('/') + 1);
+        String contentType = stat.contentType() != null
+                ? stat.contentType() : FileTypeMap.getDefaultFileTypeMap().getContentType(fileName);
+        String etag = stat.etag();
+        return new Source(attachment + "@" + etag, fileName, contentType, stat.size(), null,
+                () -> minioService.getFileStream(bucketName, objectName, etag),
+                () -> streamObject(bucketName, objectName, etag));
+    }
+
+    // The artifact cache's disk copy, kept until the stream is closed, or the object itself when the cache is off
+    private InputStream streamObject(String bucketName, String objectName, String etag) throws Exception {
+        if (!artifactCacheService.isEnabled()) {
+            return minioService.getFileStream(bucketName, objectName, etag);
+        }
+        ArtifactCacheService.Artifact artifact = artifactCacheService.acquire(bucketName, objectName);
+        try {
+            return new FilterInputStream(Files.newInputStream(artifact.getPath())) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        artifact.close();
+                    }
+                }
+            };
+        } catch (IOException e) {
+            artifact.close();
+            throw e;
+        }
+    }
+
+    private static void setFileName(MimeBodyPart part, String fileName) throws MessagingException {
+        try {
+            part.setFileName(MimeUtility.encodeText(fileName, StandardCharsets.UTF_8.name(), null));
+        } catch (UnsupportedEncodingException e) {
+            part.setFileName(fileName);
+        }
+    }
+
+    // Base64 output plus a CRLF after every 76 characters
+    private static long encodedSize(long size) {
+        long base64 = (size + 2) / 3 * 4;
+        return base64 + base64 / 76 * 2;
+    }
+
+    private interface Opener {
+        InputStream open() throws Exception;
+    }
+
+    private static final class Source {
+        private final String key;
+        private final String fileName;
+        private final String contentType;
+        private final long size;
+        // Set for local files
+        private final Path file;
+        private final Opener opener;
+        // Set for MinIO objects: how an attachment too large to keep is read for each message
+        private final Opener streamer;
+
+        private Source(String key, String fileName, String contentType, long size, Path file,
+                       Opener opener, Opener streamer) {
+            this.key = key;
+            this.fileName = fileName;
+            this.contentType = contentType;
+            this.size = size;
+            this.file = file;
+            this.opener = opener;
+            this.streamer = streamer;
+        }
+
+        private InputStream open() throws Exception {
+            return opener.open();
+        }
+    }
+
+    /**
+     * An attachment too large to keep, opened afresh each time a message carrying it is written.
+     */
+    private static final class StreamedSource implements DataSource {
+        private final Source source;
+
+        private StreamedSource(Source source) {
+            this.source = source;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            try {
+                return source.streamer.open();
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException("Could not read attachment " + source.fileName, e);
+            }
+        }
+
+        @Override
+        public OutputStream getOutputStream() throws IOException {
+            throw new IOException("Attachments are read-only");
+        }
+
+        @Override
+        public String getContentType() { return source.contentType; }
+
+        @Override
+        public String getName() { return source.fileName; }
+    }
+
+    /**
+     * An attachment's encoded bytes. Each message gets its own body part, all sharing the bytes,
+     * which are written out as they are.
+     */
+    private static final class Encoded {
+        private final String fileName;
+        private final String contentType;
+        private final byte[] bytes;
+
+        private Encoded(String fileName, String contentType, byte[] bytes) {
+            this.fileName = fileName;
+            this.contentType = contentType;
+            this.bytes = bytes;
+        }
+
+        private MimeBodyPart toBodyPart() throws MessagingException {
+            PreencodedMimeBodyPart part = new PreencodedMimeBodyPart("base64");
+            part.setDataHandler(new DataHandler(new ByteArrayDataSource(bytes, contentType)));
+            part.setDisposition(Part.ATTACHMENT);
+            setFileName(part, fileName);
+            return part;
+        }
+    }
+}
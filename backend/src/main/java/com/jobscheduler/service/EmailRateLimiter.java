@@ -0,0 +1,111 @@
+package com.jobscheduler.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets that pace outgoing email: one for messages handed to the SMTP host and one per
+ * recipient domain for the recipients addressed there, so a large send stays under provider
+ * limits. A rate of 0 means unlimited.
+ */
+@Component
+public class EmailRateLimiter {
+
+    private final TokenBucket hostBucket;
+    private final double domainRecipientsPerSecond;
+    private final Map<String, Double> domainRates = new HashMap<>();
+    private final Map<String, TokenBucket> domainBuckets = new ConcurrentHashMap<>();
+
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong throttledMillis = new AtomicLong();
+
+    public EmailRateLimiter(
+            @Value("${app.email.rate-limit.host-messages-per-second:0}") double hostMessagesPerSecond,
+            @Value("${app.email.rate-limit.domain-recipients-per-second:0}") double domainRecipientsPerSecond,
+            @Value("${app.email.rate-limit.domains:}") String domains) {
+        this.hostBucket = hostMessagesPerSecond > 0 ? new TokenBucket(hostMessagesPerSecond) : null;
+        this.domainRecipientsPerSecond = domainRecipientsPerSecond;
+        // Overrides as domain=rate pairs, e.g. "gmail.com=20,yahoo.com=10"
+        for (String entry : domains.split(",")) {
+            int separator = entry.indexOf('=');
+            if (separator > 0) {
+                domainRates.put(entry.substring(0, separator).trim().toLowerCase(Locale.ROOT),
+                        Double.parseDouble(entry.substring(separator + 1).trim()));
+            }
+        }
+    }
+
+    // Blocks until one message to these recipients may be sent
+    public void acquire(List<String> recipients) throws InterruptedException {
+        Map<String, Integer> perDomain = new HashMap<>();
+        for (String recipient : recipients) {
+            perDomain.merge(domainOf(recipient), 1, Integer::sum);
+        }
+        long waitNanos = hostBucket != null ? hostBucket.reserve(1) : 0;
+        for (Map.Entry<String, Integer> entry : perDomain.entrySet()) {
+            TokenBucket bucket = domainBucket(entry.getKey());
+            if (bucket != null) {
+                waitNanos = Math.max(waitNanos, bucket.reserve(entry.getValue()));
+            }
+        }
+        if (waitNanos > 0) {
+            throttled.incrementAndGet();
+            throttledMillis.addAndGet(TimeUnit.NANOSECONDS.toMillis(waitNanos));
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        return Map.of(
+            "hostMessagesPerSecond", hostBucket != null ? hostBucket.ratePerSecond : 0,
+            "domainRecipientsPerSecond", domainRecipientsPerSecond,
+            "domains", domainBuckets.size(),
+            "throttled", throttled.get(),
+            "throttledMillis", throttledMillis.get()
+        );
+    }
+
+    static String domainOf(String recipient) {
+        int at = recipient.lastIndexOf('@');
+        return (at >= 0 ? recipient.substring(at + 1) : "").trim().toLowerCase(Locale.ROOT);
+    }
+
+    private TokenBucket domainBucket(String domain) {
+        double rate = domainRates.getOrDefault(domain, domainRecipientsPerSecond);
+        return rate > 0 ? domainBuckets.computeIfAbsent(domain, key -> new TokenBucket(rate)) : null;
+    }
+
+    /**
+     * Holds up to one second's worth of tokens. Callers take what they need right away and may
+     * run the bucket into debt; the debt is the time they wait, so later callers queue behind them.
+     */
+    private static final class TokenBucket {
+        private final double ratePerSecond;
+        private final double tokensPerNano;
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+
+        private TokenBucket(double ratePerSecond) {
+            this.ratePerSecond = ratePerSecond;
+            this.tokensPerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.tokens = ratePerSecond;
+        }
+
+        // Takes the tokens and returns how long to wait before using them
+        private synchronized long reserve(int permits) {
+            long now = System.nanoTime();
+            tokens = Math.min(ratePerSecond, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+            tokens -= permits;
+            return tokens >= 0 ? 0 : (long) (-tokens / tokensPerNano);
+        }
+    }
+}
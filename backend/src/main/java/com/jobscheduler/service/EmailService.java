@@ -1,26 +1,67 @@
 package com.jobscheduler.service;
 
+import com.jobscheduler.dto.EmailDeliveryProgress;
 import com.jobscheduler.entity.EmailJob;
+import com.jobscheduler.entity.Job;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.Address;
 import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeBodyPart;
 import jakarta.mail.internet.MimeMessage;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSenderFailedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
-import java.io.File;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class EmailService {
 
     private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
 
+    private static final int TRACKED_DELIVERIES = 500;
+
     @Autowired
     private JavaMailSender mailSender;
 
+    // Present unless app.email.smtp-pool.enabled is false
+    @Autowired(required = false)
+    private SmtpTransportPool smtpTransportPool;
+
+    @Autowired
+    private EmailTemplateService emailTemplateService;
+
+    @Autowired
+    private EmailRateLimiter rateLimiter;
+
+    @Autowired
+    private EmailAttachmentCache attachmentCache;
+
     @Value("${spring.mail.username}")
     private String defaultSenderEmail;
 
@@ -30,61 +71,380 @@ public class EmailService {
     @Value("${app.email.enabled:false}")
     private boolean emailEnabled;
 
-    public boolean sendEmail(EmailJob emailJob) {
+    @Value("${app.email.send-concurrency:8}")
+    private int sendConcurrency;
+
+    // Recipients per message, or per batch of personalized messages
+    @Value("${app.email.fan-out.chunk-size:50}")
+    private int chunkSize;
+
+    @Value("${app.email.fan-out.concurrency:8}")
+    private int chunkConcurrency;
+
+    @Value("${app.email.fan-out.max-attempts:3}")
+    private int chunkMaxAttempts;
+
+    @Value("${app.email.fan-out.retry-backoff-ms:2000}")
+    private long chunkRetryBackoffMs;
+
+    private ExecutorService sendExecutor;
+    private ExecutorService chunkExecutor;
+
+    // Progress of deliveries in flight and of the most recent finished ones, by job ID
+    private final Map<Long, EmailDeliveryProgress> deliveries = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, EmailDeliveryProgress> eldest) {
+            return size() > TRACKED_DELIVERIES;
+        }
+    };
+
+    private final AtomicLong chunksSent = new AtomicLong();
+    private final AtomicLong chunksFailed = new AtomicLong();
+    private final AtomicLong chunkRetries = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        sendExecutor = Executors.newFixedThreadPool(sendConcurrency, runnable -> {
+            Thread thread = new Thread(runnable, "email-send-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger chunkThreadCount = new AtomicInteger();
+        chunkExecutor = Executors.newFixedThreadPool(chunkConcurrency, runnable -> {
+            Thread thread = new Thread(runnable, "email-chunk-" + chunkThreadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sendExecutor.shutdown();
+        chunkExecutor.shutdownNow();
+    }
+
+    // Sends all emails concurrently; the result at each index is how delivery of that email went
+    public List<EmailDeliveryProgress> sendEmails(List<EmailJob> emailJobs) {
+        List<CompletableFuture<EmailDeliveryProgress>> sends = emailJobs.stream()
+                .map(emailJob -> CompletableFuture.supplyAsync(() -> sendEmail(emailJob), sendExecutor))
+                .toList();
+        return sends.stream().map(CompletableFuture::join).toList();
+    }
+
+    /**
+     * Splits the recipients into chunks sent concurrently, each retried on its own, and reports
+     * the job as completed only when every chunk went out.
+     */
+    public EmailDeliveryProgress sendEmail(EmailJob emailJob) {
+        EmailDeliveryProgress progress = new EmailDeliveryProgress();
+        progress.setJobId(emailJob.getId());
+        progress.setStatus(Job.JobStatus.RUNNING);
+        progress.setRecipients(emailJob.getRecipients().size());
+        progress.setStartedAt(LocalDateTime.now());
+
         if (!emailEnabled || defaultSenderEmail == null || defaultSenderEmail.isEmpty()) {
             logger.error("Email service is not configured. Please set MAIL_USERNAME and MAIL_PASSWORD environment variables.");
-            return false;
+            progress.setLastError("Email service is not configured");
+            return finish(progress);
         }
 
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+            EmailTemplateService.PreparedEmail email = emailTemplateService.prepare(emailJob);
+            List<List<String>> chunks = chunk(emailJob.getRecipients());
+            progress.setChunks(chunks.size());
+            synchronized (deliveries) {
+                deliveries.put(emailJob.getId(), progress);
+            }
 
-            // Set sender
-            String senderEmail = emailJob.getSenderEmail() != null ? emailJob.getSenderEmail() : defaultSenderEmail;
-            String senderName = emailJob.getSenderName() != null ? emailJob.getSenderName() : defaultSenderName;
-            helper.setFrom(senderEmail, senderName);
-
-            // Set recipients
-            String[] recipients = emailJob.getRecipients().toArray(new String[0]);
-            helper.setTo(recipients);
-
-            // Set subject and content
-            helper.setSubject(emailJob.getSubject());
-            
-            // Use HTML content if available, otherwise use plain text
-            if (emailJob.getHtmlContent() != null && !emailJob.getHtmlContent().isEmpty()) {
-                helper.setText(emailJob.getContent(), emailJob.getHtmlContent());
-            } else {
-                helper.setText(emailJob.getContent(), false);
+            List<CompletableFuture<Void>> sends = chunks.stream()
+                    .map(chunk -> CompletableFuture.runAsync(() -> sendChunk(emailJob, email, chunk, progress), chunkExecutor))
+                    .toList();
+            sends.forEach(CompletableFuture::join);
+        } catch (Exception e) {
+            logger.error("Unexpected error while sending email for job ID: {}", emailJob.getId(), e);
+            synchronized (progress) {
+                progress.setLastError(e.getMessage());
             }
+        }
+
+        EmailDeliveryProgress result = finish(progress);
+        if (result.getStatus() == Job.JobStatus.COMPLETED) {
+            logger.info("Email sent successfully for job ID: {} to {} recipients in {} chunks",
+                       emailJob.getId(), result.getRecipients(), result.getChunks());
+        } else {
+            logger.error("Failed to send email for job ID: {}: {}", emailJob.getId(), result.describeFailure());
+        }
+        return result;
+    }
 
-            // Add attachments if any
-            if (emailJob.getAttachments() != null && !emailJob.getAttachments().isEmpty()) {
-                for (String attachmentPath : emailJob.getAttachments()) {
-                    File attachment = new File(attachmentPath);
-                    if (attachment.exists()) {
-                        helper.addAttachment(attachment.getName(), attachment);
-                    } else {
-                        logger.warn("Attachment file not found: {}", attachmentPath);
+    // Delivery progress of a job sent recently or being sent now
+    public Optional<EmailDeliveryProgress> getDelivery(Long jobId) {
+        EmailDeliveryProgress progress;
+        synchronized (deliveries) {
+            progress = deliveries.get(jobId);
+        }
+        if (progress == null) {
+            return Optional.empty();
+        }
+        synchronized (progress) {
+            return Optional.of(copy(progress));
+        }
+    }
+
+    public Map<String, Object> getDeliveryStatistics() {
+        long inFlight;
+        synchronized (deliveries) {
+            inFlight = deliveries.values().stream().filter(progress -> progress.getCompletedAt() == null).count();
+        }
+        return Map.of(
+            "deliveriesInFlight", inFlight,
+            "chunksSent", chunksSent.get(),
+            "chunksFailed", chunksFailed.get(),
+            "chunkRetries", chunkRetries.get()
+        );
+    }
+
+    // One chunk under the chunk size as before; larger lists are grouped by domain so each chunk is paced by one provider
+    private List<List<String>> chunk(List<String> recipients) {
+        if (recipients.size() <= chunkSize) {
+            return List.of(recipients);
+        }
+        Map<String, List<String>> byDomain = new LinkedHashMap<>();
+        for (String recipient : recipients) {
+            byDomain.computeIfAbsent(EmailRateLimiter.domainOf(recipient), domain -> new ArrayList<>()).add(recipient);
+        }
+        List<List<String>> chunks = new ArrayList<>();
+        for (List<String> domainRecipients : byDomain.values()) {
+            for (int from = 0; from < domainRecipients.size(); from += chunkSize) {
+                chunks.add(domainRecipients.subList(from, Math.min(domainRecipients.size(), from + chunkSize)));
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * Sends a chunk as one message, or as one message per recipient when the email is
+     * personalized. Addresses the server refuses with a 5xx reply are counted as failed and the
+     * message goes straight out again to the accepted ones it held back; addresses deferred with a
+     * 4xx reply and connection problems are retried with a growing backoff. Recipients that
+     * already got the email are never sent it again.
+     */
+    private void sendChunk(EmailJob emailJob, EmailTemplateService.PreparedEmail email, List<String> chunk,
+                           EmailDeliveryProgress progress) {
+        List<String> pending = chunk;
+        // Recipients waiting for the next attempt
+        List<String> deferred = new ArrayList<>();
+        int sent = 0;
+        int failed = 0;
+        Exception lastError = null;
+        int attempt = 1;
+        while (true) {
+            // Accepted recipients held back only because others in their message were refused
+            List<String> resend = new ArrayList<>();
+            List<String> untried = List.of();
+            InterruptedException interrupted = null;
+            int next = 0;
+            try {
+                List<List<String>> messages = email.isPersonalized()
+                        ? pending.stream().map(List::of).toList() : List.of(pending);
+                List<EmailTemplateService.RenderedEmail> rendered = email.isPersonalized()
+                        ? emailTemplateService.renderAll(email, pending) : List.of(email.render(null));
+                for (; next < messages.size(); next++) {
+                    List<String> recipients = messages.get(next);
+                    try {
+                        rateLimiter.acquire(recipients);
+                        deliver(createMessage(emailJob, recipients.toArray(new String[0]), rendered.get(next)));
+                        sent += recipients.size();
+                    } catch (InterruptedException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        lastError = e;
+                        SendFailedException refused = sendFailure(e);
+                        if (refused != null) {
+                            Set<String> reached = addresses(refused.getValidSentAddresses());
+                            Set<String> invalid = addresses(refused.getInvalidAddresses());
+                            Set<String> busy = deferredAddresses(refused);
+                            int reply = replyCode(refused) / 100;
+                            for (String recipient : recipients) {
+                                String address = addressOf(recipient);
+                                if (reached.contains(address)) {
+                                    sent++;
+                                } else if (invalid.contains(address) || reply == 5) {
+                                    failed++;
+                                } else if (busy.contains(address) || reply == 4 || (invalid.isEmpty() && busy.isEmpty())) {
+                                    deferred.add(recipient);
+                                } else {
+                                    resend.add(recipient);
+                                }
+                            }
+                        } else if (e instanceof IllegalArgumentException) {
+                            failed += recipients.size();
+                        } else {
+                            // The server is unreachable or struggling: the rest of the round waits too
+                            untried = email.isPersonalized() ? pending.subList(next, pending.size()) : pending;
+                            break;
+                        }
                     }
                 }
+            } catch (InterruptedException e) {
+                interrupted = e;
+                untried = email.isPersonalized() ? pending.subList(next, pending.size()) : pending;
+            } catch (Exception e) {
+                // Rendering failed before anything was sent
+                lastError = e;
+                if (e instanceof IllegalArgumentException) {
+                    failed += pending.size();
+                } else {
+                    untried = pending;
+                }
+            }
+            if (interrupted != null) {
+                Thread.currentThread().interrupt();
+                failed += untried.size() + resend.size() + deferred.size();
+                lastError = interrupted;
+                break;
+            }
+            deferred.addAll(untried);
+            if (!resend.isEmpty() && resend.size() < pending.size()) {
+                pending = resend;
+                continue;
+            }
+            deferred.addAll(resend);
+            if (deferred.isEmpty()) {
+                break;
+            }
+            if (attempt >= chunkMaxAttempts) {
+                logger.error("Failed to send to {} recipients of a chunk of {} for job ID: {} after {} attempts",
+                        deferred.size(), chunk.size(), emailJob.getId(), attempt, lastError);
+                failed += deferred.size();
+                break;
+            }
+            logger.warn("Failed to send to {} recipients of a chunk of {} for job ID: {} (attempt {} of {}), retrying: {}",
+                    deferred.size(), chunk.size(), emailJob.getId(), attempt, chunkMaxAttempts,
+                    lastError != null ? lastError.getMessage() : null);
+            chunkRetries.incrementAndGet();
+            synchronized (progress) {
+                progress.setRetries(progress.getRetries() + 1);
+            }
+            try {
+                Thread.sleep(chunkRetryBackoffMs * attempt);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed += deferred.size();
+                break;
+            }
+            attempt++;
+            pending = deferred;
+            deferred = new ArrayList<>();
+        }
+        chunkDone(progress, sent, failed, lastError);
+    }
+
+    private void chunkDone(EmailDeliveryProgress progress, int sent, int failed, Exception error) {
+        if (failed == 0) {
+            chunksSent.incrementAndGet();
+        } else {
+            chunksFailed.incrementAndGet();
+        }
+        synchronized (progress) {
+            if (failed == 0) {
+                progress.setSentChunks(progress.getSentChunks() + 1);
+            } else {
+                progress.setFailedChunks(progress.getFailedChunks() + 1);
+                progress.setFailedRecipients(progress.getFailedRecipients() + failed);
+                progress.setLastError(error != null ? error.getMessage() : null);
+            }
+            progress.setSentRecipients(progress.getSentRecipients() + sent);
+        }
+    }
+
+    // The address rejection behind a failed send, also when JavaMailSender wrapped it
+    private static SendFailedException sendFailure(Exception error) {
+        if (error instanceof SendFailedException refused) {
+            return refused;
+        }
+        if (error instanceof MailSendException wrapped) {
+            for (Exception failure : wrapped.getFailedMessages().values()) {
+                if (failure instanceof SendFailedException refused) {
+                    return refused;
+                }
             }
+        }
+        return null;
+    }
 
-            // Send the email
-            mailSender.send(message);
-            
-            logger.info("Email sent successfully for job ID: {} to {} recipients", 
-                       emailJob.getId(), emailJob.getRecipients().size());
-            return true;
+    // Addresses the server deferred with a 4xx reply, which may be accepted later
+    private static Set<String> deferredAddresses(SendFailedException refused) {
+        Set<String> busy = new HashSet<>();
+        Exception next = refused.getNextException();
+        while (next != null) {
+            if (next instanceof SMTPAddressFailedException failed && failed.getReturnCode() / 100 == 4) {
+                busy.add(failed.getAddress().getAddress().toLowerCase(Locale.ROOT));
+            }
+            next = next instanceof MessagingException messaging ? messaging.getNextException() : null;
+        }
+        return busy;
+    }
 
-        } catch (MessagingException e) {
-            logger.error("Failed to send email for job ID: {}", emailJob.getId(), e);
-            return false;
-        } catch (Exception e) {
-            logger.error("Unexpected error while sending email for job ID: {}", emailJob.getId(), e);
-            return false;
+    private static int replyCode(Exception error) {
+        if (error instanceof SMTPSendFailedException failed) {
+            return failed.getReturnCode();
+        }
+        if (error instanceof SMTPAddressFailedException failed) {
+            return failed.getReturnCode();
         }
+        if (error instanceof SMTPSenderFailedException failed) {
+            return failed.getReturnCode();
+        }
+        return 0;
+    }
+
+    private static Set<String> addresses(Address[] addresses) {
+        Set<String> result = new HashSet<>();
+        if (addresses != null) {
+            for (Address address : addresses) {
+                result.add(address instanceof InternetAddress internet
+                        ? internet.getAddress().toLowerCase(Locale.ROOT) : address.toString().toLowerCase(Locale.ROOT));
+            }
+        }
+        return result;
+    }
+
+    private static String addressOf(String recipient) {
+        try {
+            return new InternetAddress(recipient).getAddress().toLowerCase(Locale.ROOT);
+        } catch (AddressException e) {
+            return recipient.trim().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    // Completed only when every chunk was sent
+    private EmailDeliveryProgress finish(EmailDeliveryProgress progress) {
+        synchronized (progress) {
+            boolean sent = progress.getChunks() > 0 && progress.getSentChunks() == progress.getChunks()
+                    && progress.getLastError() == null;
+            progress.setStatus(sent ? Job.JobStatus.COMPLETED : Job.JobStatus.FAILED);
+            progress.setCompletedAt(LocalDateTime.now());
+            return copy(progress);
+        }
+    }
+
+    private static EmailDeliveryProgress copy(EmailDeliveryProgress progress) {
+        EmailDeliveryProgress copy = new EmailDeliveryProgress();
+        copy.setJobId(progress.getJobId());
+        copy.setStatus(progress.getStatus());
+        copy.setRecipients(progress.getRecipients());
+        copy.setChunks(progress.getChunks());
+        copy.setSentChunks(progress.getSentChunks());
+        copy.setFailedChunks(progress.getFailedChunks());
+        copy.setSentRecipients(progress.getSentRecipients());
+        copy.setFailedRecipients(progress.getFailedRecipients());
+        copy.setRetries(progress.getRetries());
+        copy.setLastError(progress.getLastError());
+        copy.setStartedAt(progress.getStartedAt());
+        copy.setCompletedAt(progress.getCompletedAt());
+        return copy;
     }
 
     public boolean sendTestEmail(String to, String subject, String content) {
@@ -102,7 +462,7 @@ public class EmailService {
             helper.setSubject(subject);
             helper.setText(content, false);
 
-            mailSender.send(message);
+            deliver(message);
             logger.info("Test email sent successfully to: {}", to);
             return true;
 
@@ -112,6 +472,50 @@ public class EmailService {
         }
     }
 
+    private MimeMessage createMessage(EmailJob emailJob, String[] recipients,
+                                      EmailTemplateService.RenderedEmail email) throws Exception {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+
+        // Set sender
+        String senderEmail = emailJob.getSenderEmail() != null ? emailJob.getSenderEmail() : defaultSenderEmail;
+        String senderName = emailJob.getSenderName() != null ? emailJob.getSenderName() : defaultSenderName;
+        helper.setFrom(senderEmail, senderName);
+
+        // Set recipients
+        helper.setTo(recipients);
+
+        // Set subject and content
+        helper.setSubject(email.getSubject());
+
+        // Use HTML content if available, otherwise use plain text
+        if (email.getHtmlContent() != null && !email.getHtmlContent().isEmpty()) {
+            helper.setText(email.getContent(), email.getHtmlContent());
+        } else {
+            helper.setText(email.getContent(), false);
+        }
+
+        // Add attachments if any, encoded once and reused across messages
+        if (emailJob.getAttachments() != null && !emailJob.getAttachments().isEmpty()) {
+            for (String attachment : emailJob.getAttachments()) {
+                Optional<MimeBodyPart> part = attachmentCache.getBodyPart(attachment);
+                if (part.isPresent()) {
+                    helper.getRootMimeMultipart().addBodyPart(part.get());
+                }
+            }
+        }
+        return message;
+    }
+
+    // Over a pooled connection when the pool is enabled, otherwise over a new one per message
+    private void deliver(MimeMessage message) throws MessagingException {
+        if (smtpTransportPool != null) {
+            smtpTransportPool.send(message);
+        } else {
+            mailSender.send(message);
+        }
+    }
+
     public boolean isConfigured() {
         return emailEnabled && defaultSenderEmail != null && !defaultSenderEmail.isEmpty();
     }
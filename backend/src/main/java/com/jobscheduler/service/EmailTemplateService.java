@@ -0,0 +1,440 @@
+package com.jobscheduler.service;
+
+import com.jobscheduler.dto.EmailTemplateRequest;
+import com.jobscheduler.entity.EmailJob;
+import com.jobscheduler.entity.EmailTemplate;
+import com.jobscheduler.repository.EmailTemplateRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Renders email jobs from templates with {@code {{name}}} placeholders ({@code {{{name}}}} skips
+ * HTML escaping in HTML bodies) and {@code {{> fragment}}} includes of other stored templates.
+ * Templates are parsed once per name and version and kept compiled. For each job, everything that
+ * is the same for all recipients, shared variables and fragments included, is rendered once;
+ * only placeholders with per-recipient values are filled in per message. Each fan-out chunk renders
+ * its own recipients on its chunk thread, so long lists render in parallel across chunks.
+ */
+@Service
+public class EmailTemplateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailTemplateService.class);
+
+    // Jobs naming this template use their own subject and content
+    public static final String DEFAULT_TEMPLATE = "default";
+
+    // Always available per recipient: the recipient's address
+    private static final String EMAIL_VARIABLE = "email";
+    private static final int MAX_FRAGMENT_DEPTH = 8;
+
+    @Autowired
+    private EmailTemplateRepository templateRepository;
+
+    @Value("${app.email.template.cache-size:256}")
+    private int cacheSize;
+
+    private Map<String, CompiledTemplate> compiled;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong rendered = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        compiled = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompiledTemplate> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    // Stores the request as the next version of the named template
+    public EmailTemplate saveTemplate(EmailTemplateRequest request) {
+        if (DEFAULT_TEMPLATE.equals(request.getName())) {
+            throw new IllegalArgumentException("The template name '" + DEFAULT_TEMPLATE + "' is reserved");
+        }
+        Integer latest = templateRepository.findLatestVersion(request.getName());
+        EmailTemplate template = new EmailTemplate(request.getName(), latest != null ? latest + 1 : 1,
+                request.getSubject(), request.getContent(), request.getHtmlContent());
+        EmailTemplate saved = templateRepository.save(template);
+        logger.info("Saved email template {} version {}", saved.getName(), saved.getVersion());
+        return saved;
+    }
+
+    public List<EmailTemplate> getTemplates() {
+        return templateRepository.findLatestVersions();
+    }
+
+    public List<EmailTemplate> getTemplateVersions(String name) {
+        return templateRepository.findByNameOrderByVersionDesc(name);
+    }
+
+    /**
+     * Resolves the job's template and renders everything in it that does not differ between
+     * recipients. Jobs on the default template without any variables are sent as they are.
+     */
+    public PreparedEmail prepare(EmailJob job) {
+        Map<String, String> shared = job.getTemplateVariables() != null ? job.getTemplateVariables() : Map.of();
+        Map<String, Map<String, String>> perRecipient =
+                job.getRecipientVariables() != null ? job.getRecipientVariables() : Map.of();
+        boolean stored = job.getTemplate() != null && !DEFAULT_TEMPLATE.equals(job.getTemplate());
+        Integer version = job.getTemplateVersion();
+        if (stored && version == null) {
+            version = templateRepository.findLatestVersion(job.getTemplate());
+            if (version == null) {
+                // Template names were free-form labels before templates were stored, so unknown names keep working
+                logger.warn("Email template {} not found for job ID: {}, using the job's own content",
+                        job.getTemplate(), job.getId());
+                stored = false;
+            }
+        }
+        if (!stored && shared.isEmpty() && perRecipient.isEmpty()) {
+            return new PreparedEmail(Bound.literal(job.getSubject()), Bound.literal(job.getContent()),
+                    Bound.literal(job.getHtmlContent()), perRecipient);
+        }
+
+        CompiledTemplate template = stored ? load(job.getTemplate(), version) : inline(job);
+        Set<String> personal = new HashSet<>();
+        perRecipient.values().forEach(variables -> personal.addAll(variables.keySet()));
+        personal.add(EMAIL_VARIABLE);
+        Binder binder = new Binder(shared, personal);
+        return new PreparedEmail(
+                binder.bind(template.subject != null ? template.subject : parse(job.getSubject()), Part.SUBJECT),
+                binder.bind(template.content != null ? template.content : parse(job.getContent()), Part.CONTENT),
+                binder.bind(template.html != null ? template.html : parse(job.getHtmlContent()), Part.HTML),
+                perRecipient);
+    }
+
+    // Renders the email for each recipient of a chunk, in order, on the calling chunk thread
+    public List<RenderedEmail> renderAll(PreparedEmail email, List<String> recipients) {
+        List<RenderedEmail> result = new ArrayList<>(recipients.size());
+        recipients.forEach(recipient -> result.add(email.render(recipient)));
+        rendered.addAndGet(result.size());
+        return result;
+    }
+
+    public Map<String, Object> getStatistics() {
+        synchronized (compiled) {
+            return Map.of(
+                "compiledHits", hits.get(),
+                "compiledMisses", misses.get(),
+                "compiled", compiled.size(),
+                "rendered", rendered.get()
+            );
+        }
+    }
+
+    // A stored template, compiled once per version; the latest version when none is given
+    private CompiledTemplate load(String name, Integer version) {
+        Integer resolved = version != null ? version : templateRepository.findLatestVersion(name);
+        if (resolved == null) {
+            throw new IllegalArgumentException("Email template not found: " + name);
+        }
+        String key = name + "@" + resolved;
+        CompiledTemplate template = cached(key);
+        if (template == null) {
+            EmailTemplate source = templateRepository.findByNameAndVersion(name, resolved)
+                    .orElseThrow(() -> new IllegalArgumentException("Email template not found: " + key));
+            template = compile(key, source.getSubject(), source.getContent(), source.getHtmlContent());
+        }
+        return template;
+    }
+
+    // The job's own subject and content used as the template, compiled once per job version
+    private CompiledTemplate inline(EmailJob job) {
+        String key = job.getId() != null ? "job:" + job.getId() + "@" + job.getVersion() : null;
+        CompiledTemplate template = key != null ? cached(key) : null;
+        if (template == null) {
+            template = compile(key, job.getSubject(), job.getContent(), job.getHtmlContent());
+        }
+        return template;
+    }
+
+    private CompiledTemplate cached(String key) {
+        synchronized (compiled) {
+            CompiledTemplate template = compiled.get(key);
+            (template != null ? hits : misses).incrementAndGet();
+            return template;
+        }
+    }
+
+    private CompiledTemplate compile(String key, String subject, String content, String html) {
+        CompiledTemplate template = new CompiledTemplate(parse(subject), parse(content), parse(html));
+        if (key != null) {
+            synchronized (compiled) {
+                compiled.put(key, template);
+            }
+        }
+        return template;
+    }
+
+    // Splits the text into literal runs, {{variables}}, {{{raw variables}}} and {{> fragments}}
+    static List<Segment> parse(String text) {
+        if (text == null) {
+            return null;
+        }
+        List<Segment> segments = new ArrayList<>();
+        int position = 0;
+        while (position < text.length()) {
+            int open = text.indexOf("{{", position);
+            if (open < 0) {
+                break;
+            }
+            boolean raw = text.startsWith("{{{", open);
+            String close = raw ? "}}}" : "}}";
+            int start = open + (raw ? 3 : 2);
+            int end = text.indexOf(close, start);
+            if (end < 0) {
+                break;
+            }
+            String tag = text.substring(start, end).trim();
+            if (tag.isEmpty()) {
+                // Not a placeholder: keep the braces as text
+                segments.add(Segment.literal(text.substring(position, end + close.length())));
+            } else {
+                if (open > position) {
+                    segments.add(Segment.literal(text.substring(position, open)));
+                }
+                if (!raw && tag.startsWith(">")) {
+                    segments.add(new Segment(Segment.Kind.FRAGMENT, tag.substring(1).trim(), false));
+                } else {
+                    segments.add(new Segment(Segment.Kind.VARIABLE, tag, !raw));
+                }
+            }
+            position = end + close.length();
+        }
+        if (position < text.length()) {
+            segments.add(Segment.literal(text.substring(position)));
+        }
+        return segments;
+    }
+
+    private enum Part { SUBJECT, CONTENT, HTML }
+
+    /**
+     * Renders what a job shares across recipients into literal text and leaves only the
+     * per-recipient placeholders, resolving fragments along the way.
+     */
+    private final class Binder {
+        private final Map<String, String> shared;
+        private final Set<String> personal;
+        private final Map<String, CompiledTemplate> fragments = new HashMap<>();
+
+        private Binder(Map<String, String> shared, Set<String> personal) {
+            this.shared = shared;
+            this.personal = personal;
+        }
+
+        private Bound bind(List<Segment> segments, Part part) {
+            if (segments == null) {
+                return null;
+            }
+            Bound.Builder builder = new Bound.Builder();
+            append(builder, segments, part, 0);
+            return builder.build();
+        }
+
+        private void append(Bound.Builder builder, List<Segment> segments, Part part, int depth) {
+            boolean html = part == Part.HTML;
+            for (Segment segment : segments) {
+                switch (segment.kind) {
+                    case LITERAL -> builder.literal(segment.text);
+                    case VARIABLE -> {
+                        boolean escape = html && segment.escape;
+                        String value = shared.get(segment.text);
+                        if (personal.contains(segment.text)) {
+                            builder.placeholder(segment.text, escape, value);
+                        } else if (value != null) {
+                            builder.literal(escape ? HtmlUtils.htmlEscape(value) : value);
+                        }
+                    }
+                    case FRAGMENT -> {
+                        if (depth >= MAX_FRAGMENT_DEPTH) {
+                            throw new IllegalArgumentException("Email template fragments nest deeper than "
+                                    + MAX_FRAGMENT_DEPTH + " levels at " + segment.text);
+                        }
+                        CompiledTemplate fragment = fragments.computeIfAbsent(segment.text, name -> load(name, null));
+                        List<Segment> body = html && fragment.html != null ? fragment.html : fragment.content;
+                        if (body != null) {
+                            append(builder, body, part, depth + 1);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A parsed template part: literal text, a placeholder or a fragment include.
+     */
+    static final class Segment {
+        enum Kind { LITERAL, VARIABLE, FRAGMENT }
+
+        private final Kind kind;
+        // The literal text, or the variable or fragment name
+        private final String text;
+        private final boolean escape;
+
+        private Segment(Kind kind, String text, boolean escape) {
+            this.kind = kind;
+            this.text = text;
+            this.escape = escape;
+        }
+
+        private static Segment literal(String text) {
+            return new Segment(Kind.LITERAL, text, false);
+        }
+    }
+
+    private static final class CompiledTemplate {
+        private final List<Segment> subject;
+        private final List<Segment> content;
+        private final List<Segment> html;
+
+        private CompiledTemplate(List<Segment> subject, List<Segment> content, List<Segment> html) {
+            this.subject = subject;
+            this.content = content;
+            this.html = html;
+        }
+    }
+
+    /**
+     * A template part with everything shared already rendered: literal runs around the
+     * placeholders that still take per-recipient values.
+     */
+    private static final class Bound {
+        private final String[] literals;
+        private final String[] names;
+        private final boolean[] escape;
+        // Shared value used when a recipient has none of its own
+        private final String[] fallbacks;
+        private final int literalLength;
+
+        private Bound(List<String> literals, List<String> names, List<Boolean> escape, List<String> fallbacks) {
+            this.literals = literals.toArray(new String[0]);
+            this.names = names.toArray(new String[0]);
+            this.escape = new boolean[escape.size()];
+            for (int i = 0; i < this.escape.length; i++) {
+                this.escape[i] = escape.get(i);
+            }
+            this.fallbacks = fallbacks.toArray(new String[0]);
+            this.literalLength = literals.stream().mapToInt(String::length).sum();
+        }
+
+        private static Bound literal(String text) {
+            return text != null ? new Bound(List.of(text), List.of(), List.of(), List.of()) : null;
+        }
+
+        private boolean isPersonal() {
+            return names.length > 0;
+        }
+
+        private String render(String recipient, Map<String, String> variables) {
+            if (names.length == 0) {
+                return literals[0];
+            }
+            StringBuilder text = new StringBuilder(literalLength + names.length * 16);
+            text.append(literals[0]);
+            for (int i = 0; i < names.length; i++) {
+                String value = variables != null ? variables.get(names[i]) : null;
+                if (value == null) {
+                    value = EMAIL_VARIABLE.equals(names[i]) && recipient != null ? recipient : fallbacks[i];
+                }
+                if (value != null) {
+                    text.append(escape[i] ? HtmlUtils.htmlEscape(value) : value);
+                }
+                text.append(literals[i + 1]);
+            }
+            return text.toString();
+        }
+
+        private static final class Builder {
+            private final List<String> literals = new ArrayList<>();
+            private final List<String> names = new ArrayList<>();
+            private final List<Boolean> escape = new ArrayList<>();
+            private final List<String> fallbacks = new ArrayList<>();
+            private final StringBuilder pending = new StringBuilder();
+
+            private void literal(String text) {
+                pending.append(text);
+            }
+
+            private void placeholder(String name, boolean escapeValue, String fallback) {
+                literals.add(pending.toString());
+                pending.setLength(0);
+                names.add(name);
+                escape.add(escapeValue);
+                fallbacks.add(fallback);
+            }
+
+            private Bound build() {
+                literals.add(pending.toString());
+                return new Bound(literals, names, escape, fallbacks);
+            }
+        }
+    }
+
+    /**
+     * A job's email with the shared parts rendered, ready to be filled in per recipient.
+     */
+    public static final class PreparedEmail {
+        private final Bound subject;
+        private final Bound content;
+        private final Bound html;
+        private final Map<String, Map<String, String>> recipientVariables;
+
+        private PreparedEmail(Bound subject, Bound content, Bound html,
+                              Map<String, Map<String, String>> recipientVariables) {
+            this.subject = subject;
+            this.content = content;
+            this.html = html;
+            this.recipientVariables = recipientVariables;
+        }
+
+        // Whether recipients get different emails; if not, one message can go to all of them
+        public boolean isPersonalized() {
+            return (subject != null && subject.isPersonal()) || (content != null && content.isPersonal())
+                    || (html != null && html.isPersonal());
+        }
+
+        // The email for one recipient; null renders the shared version
+        public RenderedEmail render(String recipient) {
+            Map<String, String> variables = recipient != null ? recipientVariables.get(recipient) : null;
+            return new RenderedEmail(
+                    subject != null ? subject.render(recipient, variables) : null,
+                    content != null ? content.render(recipient, variables) : null,
+                    html != null ? html.render(recipient, variables) : null);
+        }
+    }
+
+    public static final class RenderedEmail {
+        private final String subject;
+        private final String content;
+        private final String htmlContent;
+
+        public RenderedEmail(String subject, String content, String htmlContent) {
+            this.subject = subject;
+            this.content = content;
+            this.htmlContent = htmlContent;
+        }
+
+        public String getSubject() { return subject; }
+        public String getContent() { return content; }
+        public String getHtmlContent() { return htmlContent; }
+    }
+}
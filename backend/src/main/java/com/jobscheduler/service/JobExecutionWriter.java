@@ -0,0 +1,137 @@
+package com.jobscheduler.service;
+
+import com.jobscheduler.entity.Job;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append-only recorder of job runs. Consumers hand over a finished run and return at once; a
+ * background flush inserts the queued runs into {@code job_executions} as JDBC batches. The
+ * queue is bounded so a database outage sheds history instead of memory.
+ */
+@Service
+public class JobExecutionWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobExecutionWriter.class);
+
+    // Runs of jobs deleted in the meantime are dropped rather than failing the whole batch
+    private static final String INSERT_SQL =
+            "INSERT INTO job_executions (job_id, status, started_at, completed_at, duration_ms, exit_code, " +
+            "error_message, execution_details, log_object_name) " +
+            "SELECT ?, ?, ?, ?, ?, ?, ?, ?, ? WHERE EXISTS (SELECT 1 FROM jobs WHERE id = ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.executions.writer.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.executions.writer.max-queue-size:100000}")
+    private int maxQueueSize;
+
+    @Value("${app.executions.max-error-length:2000}")
+    private int maxErrorLength;
+
+    private final ConcurrentLinkedQueue<ExecutionRecord> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public void record(Long jobId, Job.JobStatus status, LocalDateTime startedAt, LocalDateTime completedAt,
+                       Integer exitCode, String error, String details, String logObjectName) {
+        if (queued.incrementAndGet() > maxQueueSize) {
+            queued.decrementAndGet();
+            if (dropped.incrementAndGet() % 1000 == 1) {
+                logger.warn("Execution history queue full, {} runs dropped so far", dropped.get());
+            }
+            return;
+        }
+        queue.add(new ExecutionRecord(jobId, status, startedAt, completedAt, exitCode,
+                StringUtils.abbreviate(error, maxErrorLength), details, logObjectName));
+    }
+
+    @Scheduled(fixedDelayString = "${app.executions.writer.flush-interval-ms:500}")
+    public synchronized void flush() {
+        while (!queue.isEmpty()) {
+            List<ExecutionRecord> batch = new ArrayList<>(Math.min(batchSize, queued.get()));
+            ExecutionRecord record;
+            while (batch.size() < batchSize && (record = queue.poll()) != null) {
+                batch.add(record);
+            }
+            queued.addAndGet(-batch.size());
+            write(batch);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private void write(List<ExecutionRecord> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, record) -> {
+                ps.setLong(1, record.jobId);
+                ps.setString(2, record.status.name());
+                ps.setTimestamp(3, Timestamp.valueOf(record.startedAt));
+                ps.setTimestamp(4, Timestamp.valueOf(record.completedAt));
+                ps.setLong(5, Duration.between(record.startedAt, record.completedAt).toMillis());
+                if (record.exitCode != null) {
+                    ps.setInt(6, record.exitCode);
+                } else {
+                    ps.setNull(6, Types.INTEGER);
+                }
+                ps.setString(7, record.error);
+                ps.setString(8, record.details);
+                ps.setString(9, record.logObjectName);
+                ps.setLong(10, record.jobId);
+            });
+            logger.debug("Recorded {} job executions", batch.size());
+        } catch (Exception e) {
+            logger.error("Error recording {} job executions", batch.size(), e);
+        }
+    }
+
+    private static final class ExecutionRecord {
+        private final Long jobId;
+        private final Job.JobStatus status;
+        private final LocalDateTime startedAt;
+        private final LocalDateTime completedAt;
+        private final Integer exitCode;
+        private final String error;
+        private final String details;
+        private final String logObjectName;
+
+        private ExecutionRecord(Long jobId, Job.JobStatus status, LocalDateTime startedAt, LocalDateTime completedAt,
+                                Integer exitCode, String error, String details, String logObjectName) {
+            this.jobId = jobId;
+            this.status = status;
+            this.startedAt = startedAt;
+            this.completedAt = completedAt;
+            this.exitCode = exitCode;
+            this.error = error;
+            this.details = details;
+            this.logObjectName = logObjectName;
+        }
+    }
+}
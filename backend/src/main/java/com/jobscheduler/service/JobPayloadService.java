@@ -0,0 +1,213 @@
+package com.jobscheduler.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.jobscheduler.entity.BinaryJob;
+import com.jobscheduler.entity.EmailJob;
+import com.jobscheduler.entity.Job;
+import com.jobscheduler.messaging.JobMessage;
+import com.jobscheduler.messaging.JobMessageCodec;
+import com.jobscheduler.repository.JobRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Builds and resolves job message payloads. Producers inline the job's JSON payload when it is
+ * no larger than {@code app.kafka.messages.inline-max-bytes} and otherwise send only the
+ * envelope, leaving the job row as the claim check. Consumers resolve references through a
+ * bounded LRU cache keyed by job id; an entry serves any message whose job version is not
+ * newer than the cached one, so recurring jobs are read from the database once per edit.
+ */
+@Service
+public class JobPayloadService {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.kafka.messages.inline-max-bytes:512}")
+    private int inlineMaxBytes;
+
+    @Value("${app.kafka.messages.payload-cache-size:10000}")
+    private int cacheSize;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private Map<Long, CachedPayload> cache;
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    public void init() {
+        cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedPayload> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    // Explicit fields only, so lazy associations and entity internals never reach the wire
+    public ObjectNode toPayloadNode(Job job) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("id", job.getId());
+        node.put("version", job.getVersion());
+        node.put("name", job.getName());
+        node.put("timezone", job.getTimezone());
+        node.put("delayMinutes", job.getDelayMinutes());
+
+        if (job instanceof BinaryJob) {
+            BinaryJob binaryJob = (BinaryJob) job;
+            node.put("filePath", binaryJob.getFilePath());
+            node.put("fileSize", binaryJob.getFileSize());
+            node.put("presignedUrl", binaryJob.getPresignedUrl());
+            node.put("originalFilename", binaryJob.getOriginalFilename());
+            node.put("contentType", binaryJob.getContentType());
+            node.put("minioBucket", binaryJob.getMinioBucket());
+            node.put("minioObjectName", binaryJob.getMinioObjectName());
+            node.put("contentHash", binaryJob.getContentHash());
+            node.put("cpuMillicores", binaryJob.getCpuMillicores());
+            node.put("memoryMb", binaryJob.getMemoryMb());
+            node.put("timeoutSeconds", binaryJob.getTimeoutSeconds());
+        } else if (job instanceof EmailJob) {
+            EmailJob emailJob = (EmailJob) job;
+            node.set("recipients", objectMapper.valueToTree(emailJob.getRecipients()));
+            node.put("subject", emailJob.getSubject());
+            node.put("content", emailJob.getContent());
+            node.put("template", emailJob.getTemplate());
+            node.put("templateVersion", emailJob.getTemplateVersion());
+            node.set("templateVariables", objectMapper.valueToTree(emailJob.getTemplateVariables()));
+            node.set("recipientVariables", objectMapper.valueToTree(emailJob.getRecipientVariables()));
+            node.set("attachments", objectMapper.valueToTree(emailJob.getAttachments()));
+            node.put("htmlContent", emailJob.getHtmlContent());
+            node.put("senderEmail", emailJob.getSenderEmail());
+            node.put("senderName", emailJob.getSenderName());
+        } else {
+            throw new IllegalArgumentException("Unsupported job type: " + job.getClass().getSimpleName());
+        }
+        return node;
+    }
+
+    public byte[] encode(Job job, long fireTime) throws JsonProcessingException {
+        byte[] payload = objectMapper.writeValueAsBytes(toPayloadNode(job));
+        long version = job.getVersion() != null ? job.getVersion() : 0L;
+        return encode(job.getJobType(), job.getId(), version, fireTime, payload);
+    }
+
+    // For payloads serialized ahead of time, e.g. scheduler snapshots
+    public byte[] encode(Job.JobType jobType, Long jobId, long version, long fireTime, byte[] payload) {
+        byte[] inline = payload.length <= inlineMaxBytes ? payload : null;
+        return JobMessageCodec.encode(new JobMessage(jobType, jobId, version, fireTime, inline));
+    }
+
+    // Returns null when the referenced job no longer exists
+    public <T extends Job> T resolve(JobMessage message, Class<T> jobClass) throws IOException {
+        if (message.hasPayload()) {
+            return objectMapper.readValue(message.getPayload(), jobClass);
+        }
+        T cached = cached(message, jobClass);
+        if (cached != null) {
+            return cached;
+        }
+        misses.incrementAndGet();
+        return jobClass.cast(load(List.of(message.getJobId()), jobClass).get(message.getJobId()));
+    }
+
+    // Resolves a batch, fetching every uncached reference with one query; absent entries were deleted
+    public <T extends Job> Map<Long, T> resolveAll(List<JobMessage> messages, Class<T> jobClass) throws IOException {
+        Map<Long, T> resolved = new HashMap<>();
+        List<Long> toLoad = new ArrayList<>();
+        for (JobMessage message : messages) {
+            if (message.hasPayload()) {
+                resolved.put(message.getJobId(), objectMapper.readValue(message.getPayload(), jobClass));
+                continue;
+            }
+            T cached = cached(message, jobClass);
+            if (cached != null) {
+                resolved.putIfAbsent(message.getJobId(), cached);
+            } else if (!toLoad.contains(message.getJobId())) {
+                misses.incrementAndGet();
+                toLoad.add(message.getJobId());
+            }
+        }
+        if (!toLoad.isEmpty()) {
+            resolved.putAll(load(toLoad, jobClass));
+        }
+        return resolved;
+    }
+
+    public Map<String, Object> getCacheStatistics() {
+        synchronized (cache) {
+            return Map.of("hits", hits.get(), "misses", misses.get(), "size", cache.size());
+        }
+    }
+
+    private <T extends Job> T cached(JobMessage message, Class<T> jobClass) {
+        CachedPayload entry;
+        synchronized (cache) {
+            entry = cache.get(message.getJobId());
+        }
+        if (entry != null && entry.version >= message.getJobVersion() && jobClass.isInstance(entry.job)) {
+            hits.incrementAndGet();
+            return jobClass.cast(entry.job);
+        }
+        return null;
+    }
+
+    private <T extends Job> Map<Long, T> load(List<Long> jobIds, Class<T> jobClass) {
+        Map<Long, JsonNode> payloads = readOnlyTransaction.execute(status -> {
+            Map<Long, JsonNode> nodes = new HashMap<>();
+            for (Job job : jobRepository.findAllById(jobIds)) {
+                if (jobClass.isInstance(job)) {
+                    nodes.put(job.getId(), toPayloadNode(job));
+                }
+            }
+            return nodes;
+        });
+
+        Map<Long, T> loaded = new HashMap<>();
+        for (Map.Entry<Long, JsonNode> entry : payloads.entrySet()) {
+            try {
+                T job = objectMapper.treeToValue(entry.getValue(), jobClass);
+                long version = job.getVersion() != null ? job.getVersion() : 0L;
+                synchronized (cache) {
+                    cache.put(entry.getKey(), new CachedPayload(version, job));
+                }
+                loaded.put(entry.getKey(), job);
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                throw new IllegalStateException("Could not read payload of job " + entry.getKey(), e);
+            }
+        }
+        return loaded;
+    }
+
+    private static final class CachedPayload {
+        private final long version;
+        private final Job job;
+
+        private CachedPayload(long version, Job job) {
+            this.version = version;
+            this.job = job;
+        }
+    }
+}
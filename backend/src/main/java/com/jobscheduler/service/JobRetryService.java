@@ -0,0 +1,152 @@
+package com.jobscheduler.service;
+
+import jakarta.annotation.PostConstruct;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking retries for job messages. A record that fails processing is acknowledged and
+ * re-published to the next topic of its retry chain ({@code <topic>-retry-0},
+ * {@code <topic>-retry-1}, ...), each holding records for an exponentially longer backoff
+ * before the delay relay hands them back to the original topic. After the last retry the
+ * record goes to the dead-letter topic. The attempt count, last error and original topic
+ * travel in headers, so the partition keeps flowing while the bad record backs off.
+ */
+@Service
+public class JobRetryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobRetryService.class);
+
+    public static final String ORIGINAL_TOPIC_HEADER = "x-retry-original-topic";
+    public static final String ATTEMPT_HEADER = "x-retry-attempt";
+    public static final String LAST_ERROR_HEADER = "x-retry-last-error";
+    public static final String FAILED_AT_HEADER = "x-retry-failed-at";
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Autowired
+    private DelayQueueService delayQueueService;
+
+    @Autowired
+    private KafkaTemplate<String, byte[]> jobMessageKafkaTemplate;
+
+    @Autowired
+    private KafkaAdmin kafkaAdmin;
+
+    @Value("${app.kafka.topics.binary-jobs}")
+    private String binaryJobsTopic;
+
+    @Value("${app.kafka.topics.email-jobs}")
+    private String emailJobsTopic;
+
+    @Value("${app.kafka.topics.dead-letter:job-dead-letters}")
+    private String deadLetterTopic;
+
+    @Value("${app.kafka.retry.attempts:3}")
+    private int maxRetries;
+
+    @Value("${app.kafka.retry.initial-backoff:10s}")
+    private String initialBackoff;
+
+    @Value("${app.kafka.retry.multiplier:3.0}")
+    private double multiplier;
+
+    @PostConstruct
+    public void init() {
+        long backoffMs = DurationStyle.detectAndParse(initialBackoff).toMillis();
+        for (String topic : List.of(binaryJobsTopic, emailJobsTopic)) {
+            for (int attempt = 0; attempt < maxRetries; attempt++) {
+                delayQueueService.registerRelayTopic(retryTopic(topic, attempt),
+                        (long) (backoffMs * Math.pow(multiplier, attempt)));
+            }
+        }
+        try {
+            kafkaAdmin.createOrModifyTopics(TopicBuilder.name(deadLetterTopic).partitions(1).build());
+        } catch (Exception e) {
+            logger.warn("Could not create dead-letter topic {}, relying on broker auto-creation", deadLetterTopic, e);
+        }
+    }
+
+    /**
+     * Moves a failed record to its next retry topic, or to the dead-letter topic once retries
+     * are exhausted. Throws if the record could not be handed off, in which case the caller
+     * must not acknowledge it.
+     */
+    public void handleFailure(ConsumerRecord<String, byte[]> record, Exception error) {
+        String originalTopic = StringUtils.defaultIfEmpty(headerValue(record.headers(), ORIGINAL_TOPIC_HEADER), record.topic());
+        int attempt = parseAttempt(headerValue(record.headers(), ATTEMPT_HEADER));
+        byte[] value = record.value();
+
+        Headers headers = new RecordHeaders();
+        for (Header header : record.headers()) {
+            if (!header.key().startsWith("x-retry-")) {
+                headers.add(header);
+            }
+        }
+        addHeader(headers, ORIGINAL_TOPIC_HEADER, originalTopic);
+        addHeader(headers, ATTEMPT_HEADER, Integer.toString(attempt + 1));
+        addHeader(headers, LAST_ERROR_HEADER, StringUtils.abbreviate(String.valueOf(error), MAX_ERROR_LENGTH));
+        addHeader(headers, FAILED_AT_HEADER, Instant.now().toString());
+
+        try {
+            if (attempt < maxRetries) {
+                String retryTopic = retryTopic(originalTopic, attempt);
+                delayQueueService.publishThrough(retryTopic, originalTopic, record.key(), value, headers)
+                        .get(30, TimeUnit.SECONDS);
+                logger.warn("Message for key: {} failed on attempt {}, retrying through {}",
+                        record.key(), attempt + 1, retryTopic);
+            } else {
+                jobMessageKafkaTemplate.send(new ProducerRecord<>(deadLetterTopic, null, record.key(), value, headers))
+                        .get(30, TimeUnit.SECONDS);
+                logger.error("Message for key: {} failed after {} attempts, moved to {}",
+                        record.key(), attempt + 1, deadLetterTopic);
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not hand off failed message for key: " + record.key(), e);
+        }
+    }
+
+    public String getDeadLetterTopic() {
+        return deadLetterTopic;
+    }
+
+    private static String retryTopic(String topic, int attempt) {
+        return topic + "-retry-" + attempt;
+    }
+
+    // Missing or malformed headers, e.g. from another producer, count as no attempts
+    static int parseAttempt(String value) {
+        try {
+            return value != null ? Integer.parseInt(value) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static void addHeader(Headers headers, String key, String value) {
+        headers.add(key, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String headerValue(Headers headers, String key) {
+        Header header = headers.lastHeader(key);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+}
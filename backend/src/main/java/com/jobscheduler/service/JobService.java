@@ -1,8 +1,14 @@
 package com.jobscheduler.service;
 
+import com.jobscheduler.dto.BatchJobRequest;
+import com.jobscheduler.dto.BatchJobResponse;
 import com.jobscheduler.dto.BinaryJobRequest;
+import com.jobscheduler.dto.EmailDeliveryProgress;
 import com.jobscheduler.dto.EmailJobRequest;
+import com.jobscheduler.dto.JobExecutionResponse;
 import com.jobscheduler.dto.JobResponse;
+import com.jobscheduler.dto.OutputTail;
+import com.jobscheduler.dto.RunningBinaryResponse;
 import com.jobscheduler.entity.BinaryJob;
 import com.jobscheduler.entity.EmailJob;
 import com.jobscheduler.entity.Job;
@@ -11,17 +17,27 @@ import com.jobscheduler.repository.BinaryJobRepository;
 import com.jobscheduler.repository.EmailJobRepository;
 import com.jobscheduler.repository.JobExecutionRepository;
 import com.jobscheduler.repository.JobRepository;
+import com.jobscheduler.repository.JobStatusRepository;
+import com.jobscheduler.repository.StoredArtifactRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,43 +49,53 @@ public class JobService {
     @Autowired
     private JobRepository jobRepository;
 
+    @Autowired
+    private JobStatusRepository jobStatusRepository;
+
     @Autowired
     private BinaryJobRepository binaryJobRepository;
 
     @Autowired
     private EmailJobRepository emailJobRepository;
 
+    @Autowired
+    private StoredArtifactRepository storedArtifactRepository;
+
     @Autowired
     private JobExecutionRepository jobExecutionRepository;
 
+    @Autowired
+    private BinaryOutputService binaryOutputService;
+
+    @Autowired
+    private RunningBinaryRegistry runningBinaryRegistry;
+
+    @Autowired
+    private EmailService emailService;
+
     @Autowired
     private KafkaProducerService kafkaProducerService;
 
     @Autowired
     private SchedulingService schedulingService;
 
+    @Autowired
+    private Validator validator;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.jobs.batch.max-size:50000}")
+    private int maxBatchSize;
+
+    @Value("${app.jobs.batch.chunk-size:1000}")
+    private int batchChunkSize;
+
     // Create Binary Job
     public JobResponse createBinaryJob(BinaryJobRequest request) {
         logger.info("Creating binary job: {}", request.getName());
 
-        BinaryJob job = new BinaryJob();
-        job.setName(request.getName());
-        job.setScheduledTime(request.getScheduledTime());
-        job.setRepeatPattern(request.getRepeatPattern());
-        job.setTimezone(request.getTimezone());
-        job.setDelayMinutes(request.getDelayMinutes());
-        job.setFilePath(request.getFilePath());
-        job.setFileSize(request.getFileSize());
-        job.setPresignedUrl(request.getPresignedUrl());
-        job.setOriginalFilename(request.getOriginalFilename());
-        job.setContentType(request.getContentType());
-
-        // Calculate next run time for recurring jobs
-        if (job.getRepeatPattern() != Job.RepeatPattern.ONCE) {
-            job.setNextRun(calculateNextRun(job.getScheduledTime(), job.getRepeatPattern()));
-        }
-
-        BinaryJob savedJob = binaryJobRepository.save(job);
+        BinaryJob savedJob = binaryJobRepository.save(buildBinaryJob(request));
         
         // Schedule the job
         schedulingService.scheduleJob(savedJob);
@@ -82,27 +108,7 @@ public class JobService {
     public JobResponse createEmailJob(EmailJobRequest request) {
         logger.info("Creating email job: {}", request.getName());
 
-        EmailJob job = new EmailJob();
-        job.setName(request.getName());
-        job.setScheduledTime(request.getScheduledTime());
-        job.setRepeatPattern(request.getRepeatPattern());
-        job.setTimezone(request.getTimezone());
-        job.setDelayMinutes(request.getDelayMinutes());
-        job.setRecipients(request.getRecipients());
-        job.setSubject(request.getSubject());
-        job.setContent(request.getContent());
-        job.setTemplate(request.getTemplate());
-        job.setAttachments(request.getAttachments());
-        job.setHtmlContent(request.getHtmlContent());
-        job.setSenderEmail(request.getSenderEmail());
-        job.setSenderName(request.getSenderName());
-
-        // Calculate next run time for recurring jobs
-        if (job.getRepeatPattern() != Job.RepeatPattern.ONCE) {
-            job.setNextRun(calculateNextRun(job.getScheduledTime(), job.getRepeatPattern()));
-        }
-
-        EmailJob savedJob = emailJobRepository.save(job);
+        EmailJob savedJob = emailJobRepository.save(buildEmailJob(request));
         
         // Schedule the job
         schedulingService.scheduleJob(savedJob);
@@ -111,6 +117,69 @@ public class JobService {
         return new JobResponse(savedJob);
     }
 
+    // Create a mix of binary and email jobs with batched inserts and one scheduler registration per chunk
+    public BatchJobResponse createJobsBatch(BatchJobRequest request) {
+        int size = request.size();
+        if (size > maxBatchSize) {
+            throw new IllegalArgumentException("Batch of " + size + " jobs exceeds the limit of " + maxBatchSize);
+        }
+        logger.info("Creating batch of {} jobs", size);
+
+        BatchJobResponse response = new BatchJobResponse();
+        List<Job> pending = new ArrayList<>();
+        List<BatchJobResponse.ItemResult> pendingResults = new ArrayList<>();
+
+        List<BinaryJobRequest> binaryRequests = request.getBinaryJobs() != null ? request.getBinaryJobs() : List.of();
+        for (int i = 0; i < binaryRequests.size(); i++) {
+            BinaryJobRequest item = binaryRequests.get(i);
+            String error = validate(item);
+            if (error != null) {
+                response.addResult(BatchJobResponse.ItemResult.rejected(Job.JobType.BINARY, i, error));
+                continue;
+            }
+            pending.add(buildBinaryJob(item));
+            pendingResults.add(BatchJobResponse.ItemResult.created(Job.JobType.BINARY, i, null));
+        }
+
+        List<EmailJobRequest> emailRequests = request.getEmailJobs() != null ? request.getEmailJobs() : List.of();
+        for (int i = 0; i < emailRequests.size(); i++) {
+            EmailJobRequest item = emailRequests.get(i);
+            String error = validate(item);
+            if (error != null) {
+                response.addResult(BatchJobResponse.ItemResult.rejected(Job.JobType.EMAIL, i, error));
+                continue;
+            }
+            pending.add(buildEmailJob(item));
+            pendingResults.add(BatchJobResponse.ItemResult.created(Job.JobType.EMAIL, i, null));
+        }
+
+        // Flush and detach per chunk so the persistence context stays small for large imports
+        List<Long> scheduledIds = new ArrayList<>();
+        try {
+            for (int from = 0; from < pending.size(); from += batchChunkSize) {
+                int to = Math.min(from + batchChunkSize, pending.size());
+                List<Job> savedChunk = jobRepository.saveAll(pending.subList(from, to));
+                jobRepository.flush();
+                schedulingService.scheduleJobs(savedChunk);
+
+                for (int i = 0; i < savedChunk.size(); i++) {
+                    scheduledIds.add(savedChunk.get(i).getId());
+                    BatchJobResponse.ItemResult result = pendingResults.get(from + i);
+                    result.setJob(new JobResponse(savedChunk.get(i)));
+                    response.addResult(result);
+                }
+                entityManager.clear();
+            }
+        } catch (RuntimeException e) {
+            // The inserts roll back with the transaction; triggers already registered do not
+            scheduledIds.forEach(schedulingService::cancelJob);
+            throw e;
+        }
+
+        logger.info("Batch created: {} succeeded, {} rejected", response.getSucceeded(), response.getFailed());
+        return response;
+    }
+
     // Get all jobs
     public List<JobResponse> getAllJobs() {
         return jobRepository.findAll().stream()
@@ -130,6 +199,38 @@ public class JobService {
                 .map(JobResponse::new);
     }
 
+    // Get a job's run history, newest first
+    public Optional<Page<JobExecutionResponse>> getJobExecutions(Long id, Pageable pageable) {
+        return jobRepository.findById(id)
+                .map(job -> jobExecutionRepository.findByJobOrderByStartedAtDesc(job, pageable)
+                        .map(JobExecutionResponse::new));
+    }
+
+    // Output of the job's in-flight binary run since the given byte offset
+    public Optional<OutputTail> getLiveOutput(Long id, long since) {
+        return binaryOutputService.readSince(id, since);
+    }
+
+    // Binary runs of the job in flight on this instance
+    public Optional<List<RunningBinaryResponse>> getRunningBinaries(Long id) {
+        return jobRepository.existsById(id) ? Optional.of(runningBinaryRegistry.getRuns(id)) : Optional.empty();
+    }
+
+    // Chunk progress of the job's email delivery on this instance
+    public Optional<EmailDeliveryProgress> getEmailDelivery(Long id) {
+        return emailService.getDelivery(id);
+    }
+
+    // Kills one run's process tree; the job itself stays scheduled
+    public boolean cancelRun(Long id, String runId) {
+        return runningBinaryRegistry.cancel(id, runId, "Cancelled by request");
+    }
+
+    // Cancel the job: no further fires, and runs in flight are killed
+    public JobResponse cancelJob(Long id) {
+        return updateJobStatus(id, Job.JobStatus.CANCELLED);
+    }
+
     // Get jobs by status
     public List<JobResponse> getJobsByStatus(Job.JobStatus status) {
         return jobRepository.findByStatus(status).stream()
@@ -142,15 +243,23 @@ public class JobService {
         Optional<Job> jobOpt = jobRepository.findById(id);
         if (jobOpt.isPresent()) {
             Job job = jobOpt.get();
-            job.setStatus(status);
-            
-            if (status == Job.JobStatus.RUNNING) {
-                job.setLastRun(LocalDateTime.now());
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime lastRun = status == Job.JobStatus.RUNNING ? now : null;
+
+            // Written without bumping the version, so fires scheduled from a snapshot keep matching it
+            jobStatusRepository.set(id, status, lastRun);
+            if (status == Job.JobStatus.CANCELLED) {
+                schedulingService.cancelJob(id);
+                runningBinaryRegistry.cancelAll(id, "Job cancelled");
             }
-            
-            Job savedJob = jobRepository.save(job);
             logger.info("Job {} status updated to {}", id, status);
-            return new JobResponse(savedJob);
+            JobResponse response = new JobResponse(job);
+            response.setStatus(status);
+            response.setUpdatedAt(now);
+            if (lastRun != null) {
+                response.setLastRun(lastRun);
+            }
+            return response;
         }
         throw new RuntimeException("Job not found with ID: " + id);
     }
@@ -160,6 +269,7 @@ public class JobService {
         if (jobRepository.existsById(id)) {
             // Cancel scheduled job first
             schedulingService.cancelJob(id);
+            runningBinaryRegistry.cancelAll(id, "Job deleted");
             jobRepository.deleteById(id);
             logger.info("Job {} deleted successfully", id);
         } else {
@@ -169,22 +279,47 @@ public class JobService {
 
     // Execute job immediately
     public JobResponse executeJobNow(Long id) {
+        return executeJob(id, 0);
+    }
+
+    // Execute job after the given delay
+    public JobResponse executeJobLater(Long id, int delayMinutes) {
+        return executeJob(id, delayMinutes);
+    }
+
+    // Scheduled fire, honouring the job's configured delay
+    public JobResponse executeScheduledJob(Long id) {
+        return executeJob(id, null);
+    }
+
+    private JobResponse executeJob(Long id, Integer delayOverride) {
+        LocalDateTime firedAt = LocalDateTime.now();
         Optional<Job> jobOpt = jobRepository.findById(id);
         if (jobOpt.isPresent()) {
             Job job = jobOpt.get();
+            int delayMinutes = delayOverride != null ? delayOverride
+                    : (job.getDelayMinutes() != null ? job.getDelayMinutes() : 0);
             
-            // Send to Kafka for immediate execution
+            // Send to Kafka, directly or through the delay topics
             if (job instanceof BinaryJob) {
-                kafkaProducerService.sendBinaryJobMessage((BinaryJob) job);
+                kafkaProducerService.sendBinaryJobMessage((BinaryJob) job, delayMinutes);
             } else if (job instanceof EmailJob) {
-                kafkaProducerService.sendEmailJobMessage((EmailJob) job);
+                kafkaProducerService.sendEmailJobMessage((EmailJob) job, delayMinutes);
+            }
+
+            if (delayMinutes > 0) {
+                logger.info("Job {} deferred by {} minutes", id, delayMinutes);
+                return new JobResponse(job);
             }
             
-            job.setStatus(Job.JobStatus.RUNNING);
-            Job savedJob = jobRepository.save(job);
+            // Conditional update rather than save: keeps the job version the message carries current,
+            // and leaves the row alone if a consumer has already picked this fire up
+            jobStatusRepository.markFired(Map.of(id, firedAt));
+            JobResponse response = new JobResponse(job);
+            response.setStatus(Job.JobStatus.RUNNING);
             
             logger.info("Job {} queued for immediate execution", id);
-            return new JobResponse(savedJob);
+            return response;
         }
         throw new RuntimeException("Job not found with ID: " + id);
     }
@@ -201,6 +336,80 @@ public class JobService {
         return stats;
     }
 
+    private BinaryJob buildBinaryJob(BinaryJobRequest request) {
+        BinaryJob job = new BinaryJob();
+        job.setName(request.getName());
+        job.setScheduledTime(request.getScheduledTime());
+        job.setRepeatPattern(request.getRepeatPattern());
+        job.setTimezone(request.getTimezone());
+        job.setDelayMinutes(request.getDelayMinutes());
+        job.setFilePath(request.getFilePath());
+        job.setFileSize(request.getFileSize());
+        job.setPresignedUrl(request.getPresignedUrl());
+        job.setOriginalFilename(request.getOriginalFilename());
+        job.setContentType(request.getContentType());
+        job.setCpuMillicores(request.getCpuMillicores());
+        job.setMemoryMb(request.getMemoryMb());
+        job.setTimeoutSeconds(request.getTimeoutSeconds());
+        job.setMinioBucket(request.getMinioBucket());
+        job.setMinioObjectName(request.getMinioObjectName());
+        job.setContentHash(request.getContentHash());
+        if (job.getContentHash() == null && job.getMinioBucket() != null && job.getMinioObjectName() != null) {
+            // Objects uploaded through /api/files are indexed by content
+            storedArtifactRepository.findByBucketNameAndObjectName(job.getMinioBucket(), job.getMinioObjectName())
+                    .stream().findFirst().ifPresent(artifact -> job.setContentHash(artifact.getContentHash()));
+        }
+
+        // Calculate next run time for recurring jobs
+        if (job.getRepeatPattern() != Job.RepeatPattern.ONCE) {
+            job.setNextRun(calculateNextRun(job.getScheduledTime(), job.getRepeatPattern()));
+        }
+        return job;
+    }
+
+    private EmailJob buildEmailJob(EmailJobRequest request) {
+        EmailJob job = new EmailJob();
+        job.setName(request.getName());
+        job.setScheduledTime(request.getScheduledTime());
+        job.setRepeatPattern(request.getRepeatPattern());
+        job.setTimezone(request.getTimezone());
+        job.setDelayMinutes(request.getDelayMinutes());
+        job.setRecipients(request.getRecipients());
+        job.setSubject(request.getSubject());
+        job.setContent(request.getContent());
+        job.setTemplate(request.getTemplate());
+        job.setTemplateVersion(request.getTemplateVersion());
+        if (request.getTemplateVariables() != null) {
+            job.setTemplateVariables(request.getTemplateVariables());
+        }
+        job.setRecipientVariables(request.getRecipientVariables());
+        job.setAttachments(request.getAttachments());
+        job.setHtmlContent(request.getHtmlContent());
+        job.setSenderEmail(request.getSenderEmail());
+        job.setSenderName(request.getSenderName());
+
+        // Calculate next run time for recurring jobs
+        if (job.getRepeatPattern() != Job.RepeatPattern.ONCE) {
+            job.setNextRun(calculateNextRun(job.getScheduledTime(), job.getRepeatPattern()));
+        }
+        return job;
+    }
+
+    // Returns null when valid, otherwise the violations joined into one message
+    private String validate(Object request) {
+        if (request == null) {
+            return "Job request is empty";
+        }
+        Set<ConstraintViolation<Object>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
     // Helper method to calculate next run time
     private LocalDateTime calculateNextRun(LocalDateTime scheduledTime, Job.RepeatPattern repeatPattern) {
         switch (repeatPattern) {
@@ -0,0 +1,98 @@
+package com.jobscheduler.service;
+
+import com.jobscheduler.repository.JobStatusRepository;
+import com.jobscheduler.repository.JobStatusRepository.Transition;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Write-behind recorder for job status transitions. Scheduler fire threads and consumer threads
+ * enqueue and return immediately; a background flush coalesces everything queued for the same
+ * job into one transition and applies the lot through {@link JobStatusRepository} as JDBC
+ * batches. A run that starts and finishes between two flushes costs a single UPDATE.
+ */
+@Service
+public class JobStatusWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobStatusWriter.class);
+
+    @Autowired
+    private JobStatusRepository jobStatusRepository;
+
+    @Value("${app.scheduler.status-writer.batch-size:500}")
+    private int batchSize;
+
+    private final ConcurrentLinkedQueue<RunningMark> fireQueue = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Transition> transitionQueue = new ConcurrentLinkedQueue<>();
+
+    // RUNNING for a scheduled fire published straight from its snapshot
+    public void markRunning(Long jobId, LocalDateTime firedAt) {
+        fireQueue.add(new RunningMark(jobId, firedAt));
+    }
+
+    public void record(Transition transition) {
+        transitionQueue.add(transition);
+    }
+
+    @Scheduled(fixedDelayString = "${app.scheduler.status-writer.flush-interval-ms:200}")
+    public synchronized void flush() {
+        // Fire marks first: a consumer transition for the same fire then overrides them
+        while (!fireQueue.isEmpty()) {
+            Map<Long, LocalDateTime> batch = new LinkedHashMap<>();
+            RunningMark mark;
+            while (batch.size() < batchSize && (mark = fireQueue.poll()) != null) {
+                // Keep the earliest fire per job so the last_run guard stays conservative
+                batch.putIfAbsent(mark.jobId, mark.firedAt);
+            }
+            try {
+                jobStatusRepository.markFired(batch);
+            } catch (Exception e) {
+                logger.error("Error marking {} jobs as running", batch.size(), e);
+            }
+        }
+
+        while (!transitionQueue.isEmpty()) {
+            Map<Long, Transition> batch = new LinkedHashMap<>();
+            Transition transition;
+            while (batch.size() < batchSize && (transition = transitionQueue.poll()) != null) {
+                batch.merge(transition.getJobId(), transition, Transition::merge);
+            }
+            try {
+                List<Transition> skipped = jobStatusRepository.applyAll(new ArrayList<>(batch.values()));
+                for (Transition dropped : skipped) {
+                    logger.warn("Dropped {} transition for job {}: it is cancelled, deleted or no longer at version {}",
+                            dropped.getStatus(), dropped.getJobId(), dropped.getExpectedVersion());
+                }
+            } catch (Exception e) {
+                logger.error("Error writing {} job status transitions", batch.size(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private static final class RunningMark {
+        private final Long jobId;
+        private final LocalDateTime firedAt;
+
+        private RunningMark(Long jobId, LocalDateTime firedAt) {
+            this.jobId = jobId;
+            this.firedAt = firedAt;
+        }
+    }
+}
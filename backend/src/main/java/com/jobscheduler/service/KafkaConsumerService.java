@@ -1,121 +1,266 @@
 package com.jobscheduler.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jobscheduler.dto.EmailDeliveryProgress;
 import com.jobscheduler.entity.BinaryJob;
 import com.jobscheduler.entity.EmailJob;
 import com.jobscheduler.entity.Job;
+import com.jobscheduler.messaging.JobMessage;
+import com.jobscheduler.messaging.JobMessageCodec;
 import com.jobscheduler.repository.JobRepository;
+import com.jobscheduler.repository.JobStatusRepository.Transition;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.AbstractConsumerSeekAware;
 import org.springframework.kafka.support.Acknowledgment;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
-import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
-public class KafkaConsumerService {
+public class KafkaConsumerService extends AbstractConsumerSeekAware {
 
     private static final Logger logger = LoggerFactory.getLogger(KafkaConsumerService.class);
 
-    @Autowired
-    private ObjectMapper objectMapper;
-
     @Autowired
     private JobRepository jobRepository;
 
     @Autowired
     private BinaryExecutionService binaryExecutionService;
 
+    @Autowired
+    private BinaryJobExecutor binaryJobExecutor;
+
     @Autowired
     private EmailService emailService;
 
-    @KafkaListener(topics = "${app.kafka.topics.binary-jobs}", groupId = "${app.kafka.consumer.group-id}")
-    public void consumeBinaryJob(@Payload String message, 
-                               @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
-                               @Header(KafkaHeaders.RECEIVED_PARTITION_ID) int partition,
-                               @Header(KafkaHeaders.OFFSET) long offset,
-                               Acknowledgment acknowledgment) {
-        
-        logger.info("Received binary job message from topic: {}, partition: {}, offset: {}", topic, partition, offset);
+    @Autowired
+    private JobRetryService jobRetryService;
+
+    @Autowired
+    private JobStatusWriter jobStatusWriter;
+
+    @Autowired
+    private JobPayloadService jobPayloadService;
+
+    @Autowired
+    private JobExecutionWriter jobExecutionWriter;
+
+    @KafkaListener(id = BinaryJobExecutor.LISTENER_ID, idIsGroup = false,
+                   topics = "${app.kafka.topics.binary-jobs}", groupId = "${app.kafka.consumer.group-id}",
+                   containerFactory = "binaryJobListenerContainerFactory")
+    public void consumeBinaryJob(ConsumerRecord<String, byte[]> record, Acknowledgment acknowledgment) {
         
+        logger.info("Received binary job message from topic: {}, partition: {}, offset: {}",
+                record.topic(), record.partition(), record.offset());
+
+        // Seeking back for one record redelivers the ones after it too
+        if (!binaryJobExecutor.track(record)) {
+            logger.debug("Skipping redelivered binary job message at offset {} of partition {}",
+                    record.offset(), record.partition());
+            return;
+        }
+
+        BinaryJob job;
+        try {
+            JobMessage message = JobMessageCodec.decode(record.value());
+            job = jobPayloadService.resolve(message, BinaryJob.class);
+            if (job == null) {
+                logger.warn("Skipping message for deleted binary job {}", message.getJobId());
+                binaryJobExecutor.complete(record, acknowledgment);
+                return;
+            }
+            // Inlined payloads do not reflect a cancel or delete that happened after the message was sent
+            if (jobRepository.findActiveIds(List.of(job.getId())).isEmpty()) {
+                logger.warn("Skipping message for cancelled or deleted binary job {}", job.getId());
+                binaryJobExecutor.complete(record, acknowledgment);
+                return;
+            }
+        } catch (Exception e) {
+            logger.error("Error processing binary job message for key: {}", record.key(), e);
+            retryOrRedeliver(record, acknowledgment, e);
+            return;
+        }
+
+        // Execution happens off the poll thread; the offset is committed once it and all before it finish
+        binaryJobExecutor.submit(() -> executeBinaryJob(job, record, acknowledgment));
+    }
+
+    private void executeBinaryJob(BinaryJob job, ConsumerRecord<String, byte[]> record, Acknowledgment acknowledgment) {
+        LocalDateTime startedAt = LocalDateTime.now();
         try {
-            BinaryJob job = objectMapper.readValue(message, BinaryJob.class);
-            
             // Update job status to RUNNING
-            updateJobStatus(job.getId(), Job.JobStatus.RUNNING);
+            jobStatusWriter.record(Transition.started(job.getId(), job.getVersion(), startedAt));
             
             // Execute the binary job
-            boolean success = binaryExecutionService.executeBinaryJob(job);
+            BinaryExecutionResult result = binaryExecutionService.executeBinaryJob(job);
+            boolean success = result.isSuccess();
+            Job.JobStatus runStatus = success ? Job.JobStatus.COMPLETED
+                    : result.isCancelled() ? Job.JobStatus.CANCELLED : Job.JobStatus.FAILED;
+            jobExecutionWriter.record(job.getId(), runStatus, startedAt, LocalDateTime.now(),
+                    result.getExitCode(), result.getError(), result.getOutput(), result.getLogObjectName());
             
-            // Update job status based on execution result
+            // Update job status based on execution result; jobs cancelled meanwhile are left CANCELLED by the SQL guard
             if (success) {
-                updateJobStatus(job.getId(), Job.JobStatus.COMPLETED);
+                jobStatusWriter.record(Transition.to(job.getId(), job.getVersion(), Job.JobStatus.COMPLETED));
                 logger.info("Binary job {} executed successfully", job.getId());
+            } else if (result.isCancelled()) {
+                // Only this run was cancelled: the job itself stays scheduled
+                jobStatusWriter.record(Transition.to(job.getId(), job.getVersion(), Job.JobStatus.PENDING));
+                logger.info("Binary job {} run was cancelled", job.getId());
             } else {
-                updateJobStatus(job.getId(), Job.JobStatus.FAILED);
+                jobStatusWriter.record(Transition.to(job.getId(), job.getVersion(), Job.JobStatus.FAILED));
                 logger.error("Binary job {} execution failed", job.getId());
             }
             
-            acknowledgment.acknowledge();
+            binaryJobExecutor.complete(record, acknowledgment);
             
         } catch (Exception e) {
-            logger.error("Error processing binary job message: {}", message, e);
-            // Don't acknowledge - message will be retried
+            logger.error("Error processing binary job {}", job.getId(), e);
+            jobExecutionWriter.record(job.getId(), Job.JobStatus.FAILED, startedAt, LocalDateTime.now(),
+                    null, e.toString(), null, null);
+            retryOrRedeliver(record, acknowledgment, e);
         }
     }
 
-    @KafkaListener(topics = "${app.kafka.topics.email-jobs}", groupId = "${app.kafka.consumer.group-id}")
-    public void consumeEmailJob(@Payload String message,
-                              @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
-                              @Header(KafkaHeaders.RECEIVED_PARTITION_ID) int partition,
-                              @Header(KafkaHeaders.OFFSET) long offset,
-                              Acknowledgment acknowledgment) {
-        
-        logger.info("Received email job message from topic: {}, partition: {}, offset: {}", topic, partition, offset);
-        
+    @KafkaListener(topics = "${app.kafka.topics.email-jobs}", groupId = "${app.kafka.consumer.group-id}",
+                   containerFactory = "emailJobBatchListenerContainerFactory")
+    public void consumeEmailJobs(List<ConsumerRecord<String, byte[]>> records, Acknowledgment acknowledgment) {
+
+        logger.info("Received {} email job messages from topic: {}", records.size(), records.get(0).topic());
+
+        List<JobMessage> messages = new ArrayList<>();
+        List<ConsumerRecord<String, byte[]>> jobRecords = new ArrayList<>();
+        int firstUnhandled = -1;
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, byte[]> record = records.get(i);
+            try {
+                messages.add(JobMessageCodec.decode(record.value()));
+                jobRecords.add(record);
+            } catch (Exception e) {
+                logger.error("Error processing email job message for key: {}", record.key(), e);
+                if (!handOffForRetry(record, e) && firstUnhandled < 0) {
+                    firstUnhandled = i;
+                }
+            }
+        }
+
         try {
-            EmailJob job = objectMapper.readValue(message, EmailJob.class);
-            
-            // Update job status to RUNNING
-            updateJobStatus(job.getId(), Job.JobStatus.RUNNING);
-            
-            // Send the email
-            boolean success = emailService.sendEmail(job);
-            
-            // Update job status based on execution result
-            if (success) {
-                updateJobStatus(job.getId(), Job.JobStatus.COMPLETED);
-                logger.info("Email job {} executed successfully", job.getId());
-            } else {
-                updateJobStatus(job.getId(), Job.JobStatus.FAILED);
-                logger.error("Email job {} execution failed", job.getId());
+            processEmailJobs(messages);
+        } catch (Exception e) {
+            // Failures once the emails have been sent are handled per job inside, so retrying here does not resend them
+            logger.error("Error processing batch of {} email jobs", messages.size(), e);
+            for (int i = 0; i < jobRecords.size(); i++) {
+                if (!handOffForRetry(jobRecords.get(i), e) && firstUnhandled < 0) {
+                    firstUnhandled = records.indexOf(jobRecords.get(i));
+                }
             }
-            
+        }
+
+        if (firstUnhandled < 0) {
             acknowledgment.acknowledge();
-            
-        } catch (Exception e) {
-            logger.error("Error processing email job message: {}", message, e);
-            // Don't acknowledge - message will be retried
+        } else {
+            // Commit what was handled and redeliver the rest
+            acknowledgment.nack(firstUnhandled, Duration.ofSeconds(1));
         }
     }
 
-    private void updateJobStatus(Long jobId, Job.JobStatus status) {
+    private void processEmailJobs(List<JobMessage> messages) throws Exception {
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        // Inlined payloads are used as sent; references come from the payload cache or one query
+        Map<Long, EmailJob> jobs = jobPayloadService.resolveAll(messages, EmailJob.class);
+
+        // Deleted and cancelled jobs are not sent
+        Set<Long> runnable = new HashSet<>(jobRepository.findActiveIds(jobs.keySet()));
+        List<EmailJob> toSend = messages.stream()
+                .map(message -> jobs.get(message.getJobId()))
+                .filter(job -> job != null && runnable.contains(job.getId()))
+                .toList();
+        if (toSend.size() < messages.size()) {
+            logger.warn("Skipping {} email jobs that were deleted or cancelled", messages.size() - toSend.size());
+        }
+        if (toSend.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        for (EmailJob job : toSend) {
+            jobStatusWriter.record(Transition.started(job.getId(), job.getVersion(), startedAt));
+        }
+
+        List<EmailDeliveryProgress> results = emailService.sendEmails(toSend);
+        // Sends run concurrently, so each run is recorded as lasting until the batch finished
+        LocalDateTime completedAt = LocalDateTime.now();
+
+        // Coalesced with the RUNNING transitions above when they land in the same flush. The emails
+        // have gone out by now, so a bookkeeping failure is logged per job rather than retried
+        for (int i = 0; i < toSend.size(); i++) {
+            EmailJob job = toSend.get(i);
+            try {
+                recordEmailResult(job, results.get(i), startedAt, completedAt);
+            } catch (Exception e) {
+                logger.error("Could not record the result of email job {}", job.getId(), e);
+            }
+        }
+    }
+
+    private void recordEmailResult(EmailJob job, EmailDeliveryProgress delivery,
+                                   LocalDateTime startedAt, LocalDateTime completedAt) {
+        if (delivery.getStatus() == Job.JobStatus.COMPLETED) {
+            jobStatusWriter.record(Transition.to(job.getId(), job.getVersion(), Job.JobStatus.COMPLETED));
+            jobExecutionWriter.record(job.getId(), Job.JobStatus.COMPLETED, startedAt, completedAt, null, null, null, null);
+            logger.info("Email job {} executed successfully", job.getId());
+        } else {
+            jobStatusWriter.record(Transition.to(job.getId(), job.getVersion(), Job.JobStatus.FAILED));
+            // Chunks that went out are not sent again, so a partial delivery fails the job with a summary
+            jobExecutionWriter.record(job.getId(), Job.JobStatus.FAILED, startedAt, completedAt, null,
+                    delivery.describeFailure(), null, null);
+            logger.error("Email job {} execution failed: {}", job.getId(), delivery.describeFailure());
+        }
+    }
+
+    // Hands the record to its retry topic and reports whether that worked
+    private boolean handOffForRetry(ConsumerRecord<String, byte[]> record, Exception error) {
         try {
-            jobRepository.findById(jobId).ifPresent(job -> {
-                job.setStatus(status);
-                if (status == Job.JobStatus.RUNNING) {
-                    job.setLastRun(LocalDateTime.now());
-                }
-                job.setExecutionCount(job.getExecutionCount() + 1);
-                jobRepository.save(job);
-            });
+            jobRetryService.handleFailure(record, error);
+            return true;
         } catch (Exception e) {
-            logger.error("Error updating job status for job ID: {}", jobId, e);
+            logger.error("Could not schedule retry for message at offset {} of {}", record.offset(), record.topic(), e);
+            return false;
+        }
+    }
+
+    // Hands the binary job record to its retry topic and moves on; if that fails it is delivered again.
+    // Acknowledgments cannot be nacked off the consumer thread, so the partition is sought back instead
+    private void retryOrRedeliver(ConsumerRecord<String, byte[]> record, Acknowledgment acknowledgment, Exception error) {
+        if (handOffForRetry(record, error)) {
+            binaryJobExecutor.complete(record, acknowledgment);
+            return;
+        }
+        long offset = binaryJobExecutor.redeliver(record);
+        ConsumerSeekCallback callback = getSeekCallbackFor(new TopicPartition(record.topic(), record.partition()));
+        if (offset >= 0 && callback != null) {
+            callback.seek(record.topic(), record.partition(), offset);
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        super.onPartitionsRevoked(partitions);
+        // Records of revoked binary-jobs partitions are redelivered to their new owner from the last commit
+        binaryJobExecutor.forget(partitions);
+    }
+}
@@ -1,9 +1,9 @@
 package com.jobscheduler.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jobscheduler.entity.BinaryJob;
 import com.jobscheduler.entity.EmailJob;
+import com.jobscheduler.entity.Job;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,7 +12,9 @@ import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class KafkaProducerService {
@@ -23,7 +25,13 @@ public class KafkaProducerService {
     private KafkaTemplate<String, String> kafkaTemplate;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private KafkaTemplate<String, byte[]> jobMessageKafkaTemplate;
+
+    @Autowired
+    private JobPayloadService jobPayloadService;
+
+    @Autowired
+    private DelayQueueService delayQueueService;
 
     @Value("${app.kafka.topics.binary-jobs}")
     private String binaryJobsTopic;
@@ -31,11 +39,11 @@ public class KafkaProducerService {
     @Value("${app.kafka.topics.email-jobs}")
     private String emailJobsTopic;
 
-    public void sendBinaryJobMessage(BinaryJob job) {
+    public void sendBinaryJobMessage(BinaryJob job, int delayMinutes) {
         try {
-            String message = objectMapper.writeValueAsString(job);
-            CompletableFuture<SendResult<String, String>> future = 
-                kafkaTemplate.send(binaryJobsTopic, job.getId().toString(), message);
+            byte[] message = jobPayloadService.encode(job, System.currentTimeMillis());
+            CompletableFuture<SendResult<String, byte[]>> future = 
+                send(binaryJobsTopic, job.getId().toString(), message, delayMinutes);
             
             future.whenComplete((result, exception) -> {
                 if (exception == null) {
@@ -50,11 +58,11 @@ public class KafkaProducerService {
         }
     }
 
-    public void sendEmailJobMessage(EmailJob job) {
+    public void sendEmailJobMessage(EmailJob job, int delayMinutes) {
         try {
-            String message = objectMapper.writeValueAsString(job);
-            CompletableFuture<SendResult<String, String>> future = 
-                kafkaTemplate.send(emailJobsTopic, job.getId().toString(), message);
+            byte[] message = jobPayloadService.encode(job, System.currentTimeMillis());
+            CompletableFuture<SendResult<String, byte[]>> future = 
+                send(emailJobsTopic, job.getId().toString(), message, delayMinutes);
             
             future.whenComplete((result, exception) -> {
                 if (exception == null) {
@@ -69,6 +77,31 @@ public class KafkaProducerService {
         }
     }
 
+    // Publishes a pre-serialized job snapshot captured when the job was scheduled
+    public void sendJobSnapshot(Job.JobType jobType, Long jobId, long jobVersion, String snapshot, int delayMinutes) {
+        String topic = jobType == Job.JobType.BINARY ? binaryJobsTopic : emailJobsTopic;
+        byte[] message = jobPayloadService.encode(jobType, jobId, jobVersion, System.currentTimeMillis(),
+                snapshot.getBytes(StandardCharsets.UTF_8));
+        CompletableFuture<SendResult<String, byte[]>> future = send(topic, jobId.toString(), message, delayMinutes);
+
+        future.whenComplete((result, exception) -> {
+            if (exception == null) {
+                logger.info("Job snapshot sent successfully for job ID: {} to topic: {}", jobId, topic);
+            } else {
+                logger.error("Failed to send job snapshot for job ID: {}", jobId, exception);
+            }
+        });
+    }
+
+    // Delayed messages detour through the delay topics and reach the job topic when due
+    private CompletableFuture<SendResult<String, byte[]>> send(String topic, String key, byte[] message, int delayMinutes) {
+        if (delayMinutes > 0) {
+            logger.info("Deferring message for job ID: {} by {} minutes", key, delayMinutes);
+            return delayQueueService.publish(topic, key, message, TimeUnit.MINUTES.toMillis(delayMinutes));
+        }
+        return jobMessageKafkaTemplate.send(topic, key, message);
+    }
+
     public void sendJobStatusUpdate(Long jobId, String status) {
         try {
             String message = String.format("{\"jobId\":%d,\"status\":\"%s\",\"timestamp\":\"%s\"}", 
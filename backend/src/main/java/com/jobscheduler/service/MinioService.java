@@ -1,21 +1,58 @@
 package com.jobscheduler.service;
 
+import com.jobscheduler.entity.StoredArtifact;
+import com.jobscheduler.repository.BinaryJobRepository;
+import com.jobscheduler.repository.StoredArtifactRepository;
 import io.minio.*;
 import io.minio.errors.*;
+import io.minio.http.Method;
+import io.minio.messages.Part;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
 import java.security.InvalidKeyException;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Service
 public class MinioService {
@@ -25,9 +62,81 @@ public class MinioService {
     @Autowired
     private MinioClient minioClient;
 
+    @Autowired
+    private MinioAsyncClient minioAsyncClient;
+
+    @Autowired
+    private StoredArtifactRepository storedArtifactRepository;
+
+    @Autowired
+    private BinaryJobRepository binaryJobRepository;
+
     private static final String DEFAULT_BUCKET = "job-scheduler-files";
 
-    public String uploadFile(MultipartFile file, String bucketName) throws Exception {
+    // Uploads get the hex MD5 of the content as ETag, or the MD5 of the part MD5s followed by -<parts>
+    private static final Pattern MD5_ETAG = Pattern.compile("([0-9a-f]{32})(?:-(\\d+))?");
+
+    private static final int PART_ATTEMPTS = 3;
+    private static final int VERIFY_BUFFER_SIZE = 1024 * 1024;
+    private static final long ABORT_WAIT_SECONDS = 30;
+
+    @Value("${app.minio.download.part-size-mb:16}")
+    private long downloadPartSizeMb;
+
+    @Value("${app.minio.download.parallelism:4}")
+    private int downloadParallelism;
+
+    @Value("${app.minio.upload.part-size-mb:16}")
+    private long uploadPartSizeMb;
+
+    @Value("${app.minio.upload.parallelism:4}")
+    private int uploadParallelism;
+
+    @Value("${app.minio.metadata-cache.max-entries:10000}")
+    private int metadataCacheMaxEntries;
+
+    @Value("${app.minio.metadata-cache.bucket-ttl-seconds:300}")
+    private long bucketTtlSeconds;
+
+    @Value("${app.minio.metadata-cache.stat-ttl-seconds:30}")
+    private long statTtlSeconds;
+
+    @Value("${app.minio.metadata-cache.presigned-url-margin-seconds:300}")
+    private long presignedUrlMarginSeconds;
+
+    private ExecutorService downloadPool;
+    private MultipartMinioClient multipartClient;
+
+    // Metadata served from memory: buckets known to exist, object stats and signed URLs
+    private ExpiringCache<String, Boolean> bucketCache;
+    private ExpiringCache<String, StatObjectResponse> statCache;
+    private ExpiringCache<String, String> presignedUrlCache;
+
+    @PostConstruct
+    public void start() {
+        multipartClient = new MultipartMinioClient(minioAsyncClient);
+        bucketCache = new ExpiringCache<>(metadataCacheMaxEntries);
+        statCache = new ExpiringCache<>(metadataCacheMaxEntries);
+        presignedUrlCache = new ExpiringCache<>(metadataCacheMaxEntries);
+        AtomicInteger threadCount = new AtomicInteger();
+        downloadPool = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "minio-download-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        downloadPool.shutdownNow();
+    }
+
+    /**
+     * Stores an uploaded file, or returns the object already holding the same content in the
+     * bucket. The container has spooled the file by now, so it is hashed before uploading and a
+     * duplicate costs a local read instead of an upload.
+     */
+    public StoredObject uploadFile(MultipartFile file, String bucketName) throws Exception {
         if (bucketName == null) {
             bucketName = DEFAULT_BUCKET;
         }
@@ -35,6 +144,19 @@ public class MinioService {
         // Ensure bucket exists
         createBucketIfNotExists(bucketName);
 
+        MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+        try (InputStream inputStream = new DigestInputStream(file.getInputStream(), sha256)) {
+            inputStream.transferTo(OutputStream.nullOutputStream());
+        }
+        String contentHash = HexFormat.of().formatHex(sha256.digest());
+        String extension = extensionOf(file.getOriginalFilename());
+        StoredObject existing = findStored(bucketName, contentHash, extension);
+        if (existing != null) {
+            logger.info("File {} has the content of {} in bucket: {}", file.getOriginalFilename(),
+                    existing.getObjectName(), bucketName);
+            return existing;
+        }
+
         // Generate unique object name
         String objectName = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
 
@@ -49,41 +171,219 @@ public class MinioService {
             );
 
             logger.info("File uploaded successfully: {} to bucket: {}", objectName, bucketName);
-            return objectName;
+            invalidate(bucketName, objectName);
 
         } catch (Exception e) {
             logger.error("Error uploading file to MinIO", e);
             throw new RuntimeException("Failed to upload file to MinIO", e);
         }
+        return index(new StoredObject(bucketName, objectName, file.getSize(), contentHash, false),
+                extension, file.getContentType());
     }
 
-    public Path downloadFile(String bucketName, String objectName) throws Exception {
-        try {
-            // Create temporary file
-            Path tempFile = Files.createTempFile("job-scheduler-", "-" + objectName);
+    /**
+     * Stores a stream of unknown length under a new object name, hashing it on the way. If the
+     * bucket turns out to hold the same content already, the new object is removed again and the
+     * existing one returned.
+     */
+    public StoredObject uploadFile(InputStream inputStream, String originalFilename, String contentType,
+                                   String bucketName) throws Exception {
+        if (bucketName == null) {
+            bucketName = DEFAULT_BUCKET;
+        }
+        String objectName = UUID.randomUUID().toString() + "_" + originalFilename;
+        MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+        long size = uploadParallel(bucketName, objectName, new DigestInputStream(inputStream, sha256), contentType);
+        String contentHash = HexFormat.of().formatHex(sha256.digest());
+        return index(new StoredObject(bucketName, objectName, size, contentHash, false),
+                extensionOf(originalFilename), contentType);
+    }
 
-            // Download file from MinIO
-            try (InputStream inputStream = minioClient.getObject(
-                GetObjectArgs.builder()
+    // Uploads a stream of unknown length as a multipart upload, buffering one part at a time
+    public void uploadStream(String bucketName, String objectName, InputStream inputStream,
+                             String contentType, long partSize) throws Exception {
+        createBucketIfNotExists(bucketName);
+        try {
+            minioClient.putObject(
+                PutObjectArgs.builder()
                     .bucket(bucketName)
                     .object(objectName)
-                    .build())) {
-                
-                Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+                    .stream(inputStream, -1, partSize)
+                    .contentType(contentType)
+                    .build()
+            );
+            logger.info("Stream uploaded successfully: {} to bucket: {}", objectName, bucketName);
+            invalidate(bucketName, objectName);
+        } catch (Exception e) {
+            logger.error("Error uploading stream to MinIO: {}/{}", bucketName, objectName, e);
+            throw new RuntimeException("Failed to upload stream to MinIO", e);
+        }
+    }
+
+    /**
+     * Uploads a stream of unknown length, sending up to parallelism parts of part-size-mb at a
+     * time while the next part is read, so the upload keeps pace with the stream instead of
+     * waiting for each part in turn. Streams shorter than one part go up in a single request.
+     * Returns the number of bytes uploaded.
+     */
+    public long uploadParallel(String bucketName, String objectName, InputStream inputStream,
+                               String contentType) throws Exception {
+        createBucketIfNotExists(bucketName);
+        int partSize = (int) (uploadPartSizeMb * 1024 * 1024);
+        List<CompletableFuture<Part>> parts = new ArrayList<>();
+        String uploadId = null;
+        try {
+            byte[] data = new byte[partSize];
+            int length = inputStream.readNBytes(data, 0, partSize);
+            if (length < partSize) {
+                minioClient.putObject(
+                    PutObjectArgs.builder()
+                        .bucket(bucketName)
+                        .object(objectName)
+                        .stream(new ByteArrayInputStream(data, 0, length), length, -1)
+                        .contentType(contentType)
+                        .build()
+                );
+                logger.info("Stream uploaded successfully: {} to bucket: {}", objectName, bucketName);
+                invalidate(bucketName, objectName);
+                return length;
             }
 
+            uploadId = multipartClient.createUpload(bucketName, objectName, contentType).join();
+            Semaphore slots = new Semaphore(uploadParallelism);
+            long size = 0;
+            while (length > 0) {
+                // Waits while parallelism parts are in flight, which also bounds the memory held
+                slots.acquire();
+                CompletableFuture<Part> part = multipartClient.uploadPart(bucketName, objectName, uploadId,
+                        parts.size() + 1, data, length);
+                part.whenComplete((result, error) -> slots.release());
+                parts.add(part);
+                size += length;
+                if (length < partSize || parts.stream().anyMatch(CompletableFuture::isCompletedExceptionally)) {
+                    break;
+                }
+                data = new byte[partSize];
+                length = inputStream.readNBytes(data, 0, partSize);
+            }
+            Part[] uploaded = new Part[parts.size()];
+            for (int i = 0; i < uploaded.length; i++) {
+                uploaded[i] = parts.get(i).join();
+            }
+            multipartClient.completeUpload(bucketName, objectName, uploadId, uploaded).join();
+            invalidate(bucketName, objectName);
+            logger.info("Stream uploaded successfully: {} to bucket: {} ({} bytes in {} parts)",
+                    objectName, bucketName, size, uploaded.length);
+            return size;
+        } catch (Exception e) {
+            if (uploadId != null) {
+                // A part still in flight could land after the abort and be kept, so let them settle first
+                try {
+                    CompletableFuture.allOf(parts.toArray(CompletableFuture[]::new))
+                            .get(ABORT_WAIT_SECONDS, TimeUnit.SECONDS);
+                } catch (Exception partError) {
+                    logger.debug("Parts of upload {} did not all finish", uploadId, partError);
+                }
+                try {
+                    multipartClient.abortUpload(bucketName, objectName, uploadId);
+                } catch (Exception abortError) {
+                    logger.warn("Could not abort upload {} of {}/{}", uploadId, bucketName, objectName, abortError);
+                }
+            }
+            logger.error("Error uploading stream to MinIO: {}/{}", bucketName, objectName, e);
+            throw new RuntimeException("Failed to upload stream to MinIO",
+                    e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+        }
+    }
+
+    public Path downloadFile(String bucketName, String objectName) throws Exception {
+        Path tempFile = Files.createTempFile("job-scheduler-", "-" + objectName);
+        try {
+            StatObjectResponse stat = statFile(bucketName, objectName);
+            downloadToFile(bucketName, objectName, stat.etag().replace("\"", ""), stat.size(), tempFile);
             logger.info("File downloaded successfully: {} from bucket: {}", objectName, bucketName);
             return tempFile;
+        } catch (Exception e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+
+    /**
+     * Downloads the object into the target file, provided it still has the given ETag and size.
+     * Objects larger than one part are fetched with concurrent range requests, each written
+     * straight into the preallocated file at its offset, so a large artifact is not limited to a
+     * single connection. The finished file is checked against the size and the ETag; any extra
+     * digests are fed the content on that same pass.
+     */
+    public void downloadToFile(String bucketName, String objectName, String etag, long size, Path target,
+                               MessageDigest... digests) throws Exception {
+        long partSize = downloadPartSizeMb * 1024 * 1024;
+        int parts = (int) Math.max(1, (size + partSize - 1) / partSize);
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (parts == 1) {
+                fetchPart(bucketName, objectName, etag, channel, 0, size, false);
+            } else {
+                // Size the file up front so parts can land at their offsets in any order
+                channel.write(ByteBuffer.allocate(1), size - 1);
+                fetchParts(bucketName, objectName, etag, channel, size, partSize, parts);
+            }
+        } catch (Exception e) {
+            // The ETag may have come from a cached stat of an object changed since
+            invalidate(bucketName, objectName);
+            logger.error("Error downloading file from MinIO: {}/{}", bucketName, objectName, e);
+            throw new RuntimeException("Failed to download file from MinIO", e);
+        }
+        verifyDownload(bucketName, objectName, etag, size, target, digests);
+        if (parts > 1) {
+            logger.info("Downloaded {}/{} ({} bytes) in {} parts", bucketName, objectName, size, parts);
+        }
+    }
 
+    /**
+     * Reads the object's metadata, served from memory for stat-ttl-seconds after a lookup.
+     * Writes and deletes through this service drop the cached entry, so a stale stat can only
+     * come from changes made elsewhere within that window.
+     */
+    public StatObjectResponse statFile(String bucketName, String objectName) throws Exception {
+        try {
+            return stat(bucketName, objectName);
+        } catch (Exception e) {
+            logger.error("Error reading metadata from MinIO: {}/{}", bucketName, objectName, e);
+            throw new RuntimeException("Failed to read file metadata from MinIO", e);
+        }
+    }
+
+    // Streams the object only while it still has the given ETag, so the bytes match an earlier stat
+    public InputStream getFileStream(String bucketName, String objectName, String etag) throws Exception {
+        try {
+            return minioClient.getObject(
+                GetObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .matchETag(etag)
+                    .build()
+            );
         } catch (Exception e) {
             logger.error("Error downloading file from MinIO: {}/{}", bucketName, objectName, e);
             throw new RuntimeException("Failed to download file from MinIO", e);
         }
     }
 
+    /**
+     * Signs a GET URL for the object. A URL signed earlier for the same expiry is handed out
+     * again until presigned-url-margin-seconds before it expires, so the URL returned is valid
+     * for at least that margin rather than the full expiry.
+     */
     public String getPresignedUrl(String bucketName, String objectName, int expiryInSeconds) throws Exception {
+        String key = objectKey(bucketName, objectName) + "#" + expiryInSeconds;
+        String cached = presignedUrlCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
         try {
-            return minioClient.getPresignedObjectUrl(
+            String url = minioClient.getPresignedObjectUrl(
                 GetPresignedObjectUrlArgs.builder()
                     .method(Method.GET)
                     .bucket(bucketName)
@@ -91,13 +391,37 @@ public class MinioService {
                     .expiry(expiryInSeconds)
                     .build()
             );
+            presignedUrlCache.put(key, url, TimeUnit.SECONDS.toNanos(expiryInSeconds - presignedUrlMarginSeconds));
+            return url;
         } catch (Exception e) {
             logger.error("Error generating presigned URL for {}/{}", bucketName, objectName, e);
             throw new RuntimeException("Failed to generate presigned URL", e);
         }
     }
 
-    public void deleteFile(String bucketName, String objectName) throws Exception {
+    /**
+     * Drops one reference to an uploaded object. Uploads deduplicated onto the same object each
+     * hold their own, so the object itself is removed only with the last reference, and not while
+     * binary jobs still run it. Returns whether the object was removed.
+     */
+    public boolean deleteFile(String bucketName, String objectName) throws Exception {
+        while (true) {
+            StoredArtifact artifact = storedArtifactRepository.findByBucketNameAndObjectName(bucketName, objectName)
+                    .stream().findFirst().orElse(null);
+            if (artifact != null && storedArtifactRepository.releaseReference(artifact.getId()) > 0) {
+                logger.info("Released a reference to {}/{}, other uploads still hold it", bucketName, objectName);
+                return false;
+            }
+            long jobs = binaryJobRepository.countByMinioBucketAndMinioObjectName(bucketName, objectName);
+            if (jobs > 0) {
+                throw new IllegalStateException("File " + bucketName + "/" + objectName + " is still used by "
+                        + jobs + " binary job(s)");
+            }
+            if (artifact == null || storedArtifactRepository.deleteLastReference(artifact.getId()) > 0) {
+                break;
+            }
+            // An upload was handed the object in the meantime
+        }
         try {
             minioClient.removeObject(
                 RemoveObjectArgs.builder()
@@ -106,13 +430,272 @@ public class MinioService {
                     .build()
             );
             logger.info("File deleted successfully: {} from bucket: {}", objectName, bucketName);
+            invalidate(bucketName, objectName);
+            return true;
         } catch (Exception e) {
             logger.error("Error deleting file from MinIO: {}/{}", bucketName, objectName, e);
             throw new RuntimeException("Failed to delete file from MinIO", e);
         }
     }
 
+    private void fetchParts(String bucketName, String objectName, String etag, FileChannel channel,
+                            long size, long partSize, int parts) throws Exception {
+        // Each worker takes the next part until none are left, so at most parallelism requests are open
+        AtomicInteger nextPart = new AtomicInteger();
+        List<Future<Void>> workers = new ArrayList<>();
+        for (int i = 0; i < Math.min(downloadParallelism, parts); i++) {
+            workers.add(downloadPool.submit(() -> {
+                int part;
+                while ((part = nextPart.getAndIncrement()) < parts) {
+                    long offset = part * partSize;
+                    fetchPart(bucketName, objectName, etag, channel, offset, Math.min(partSize, size - offset), true);
+                }
+                return null;
+            }));
+        }
+        try {
+            for (Future<Void> worker : workers) {
+                worker.get();
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } finally {
+            // Stops the remaining workers after a failure or when the caller is interrupted
+            nextPart.set(parts);
+            workers.forEach(worker -> worker.cancel(true));
+        }
+    }
+
+    private void fetchPart(String bucketName, String objectName, String etag, FileChannel channel,
+                           long offset, long length, boolean ranged) throws Exception {
+        for (int attempt = 1; ; attempt++) {
+            GetObjectArgs.Builder args = GetObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .matchETag(etag);
+            if (ranged) {
+                args.offset(offset).length(length);
+            }
+            try (InputStream in = minioClient.getObject(args.build());
+                 ReadableByteChannel source = Channels.newChannel(in)) {
+                long position = offset;
+                long end = offset + length;
+                while (position < end) {
+                    long written = channel.transferFrom(source, position, end - position);
+                    if (written == 0) {
+                        throw new EOFException("Object ended at byte " + position + " of " + end);
+                    }
+                    position += written;
+                }
+                return;
+            } catch (IOException e) {
+                // A dropped connection is worth another try; an interrupt or a closed file is not
+                if (attempt >= PART_ATTEMPTS || !channel.isOpen() || Thread.currentThread().isInterrupted()) {
+                    throw e;
+                }
+                logger.warn("Retrying bytes {}-{} of {}/{} after: {}", offset, offset + length - 1,
+                        bucketName, objectName, e.toString());
+            }
+        }
+    }
+
+    private void verifyDownload(String bucketName, String objectName, String etag, long size, Path file,
+                                MessageDigest... digests) throws Exception {
+        long actualSize = Files.size(file);
+        if (actualSize != size) {
+            throw new IOException("Downloaded " + actualSize + " bytes of " + bucketName + "/" + objectName +
+                    ", expected " + size);
+        }
+
+        Matcher matcher = MD5_ETAG.matcher(etag);
+        boolean checkETag = matcher.matches();
+        int uploadParts = checkETag && matcher.group(2) != null ? Integer.parseInt(matcher.group(2)) : 1;
+        long uploadPartSize = size;
+        if (uploadParts > 1) {
+            uploadPartSize = uploadPartSize(bucketName, objectName, etag, size, uploadParts);
+            checkETag = uploadPartSize > 0;
+        }
+        if (!checkETag && digests.length == 0) {
+            logger.debug("ETag {} of {}/{} carries no checksum, checked the size only", etag, bucketName, objectName);
+            return;
+        }
+
+        // One pass over the file: MD5 of each upload part, and the caller's digests over everything
+        MessageDigest partMd5 = MessageDigest.getInstance("MD5");
+        MessageDigest etagMd5 = MessageDigest.getInstance("MD5");
+        byte[] firstPartMd5 = null;
+        ByteBuffer buffer = ByteBuffer.allocate(VERIFY_BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long partRemaining = uploadPartSize;
+            int read;
+            while ((read = channel.read(buffer.clear().limit(
+                    (int) Math.min(VERIFY_BUFFER_SIZE, checkETag ? partRemaining : VERIFY_BUFFER_SIZE)))) > 0) {
+                for (MessageDigest digest : digests) {
+                    digest.update(buffer.array(), 0, read);
+                }
+                if (checkETag) {
+                    partMd5.update(buffer.array(), 0, read);
+                    partRemaining -= read;
+                    if (partRemaining == 0) {
+                        byte[] md5 = partMd5.digest();
+                        firstPartMd5 = firstPartMd5 == null ? md5 : firstPartMd5;
+                        etagMd5.update(md5);
+                        partRemaining = uploadPartSize;
+                    }
+                }
+            }
+            if (checkETag && (partRemaining != uploadPartSize || firstPartMd5 == null)) {
+                byte[] md5 = partMd5.digest();
+                firstPartMd5 = firstPartMd5 == null ? md5 : firstPartMd5;
+                etagMd5.update(md5);
+            }
+        }
+        if (!checkETag) {
+            return;
+        }
+
+        String md5 = HexFormat.of().formatHex(uploadParts == 1 ? firstPartMd5 : etagMd5.digest());
+        if (!md5.equals(matcher.group(1))) {
+            throw new IOException("Checksum mismatch for " + bucketName + "/" + objectName +
+                    ": MD5 " + md5 + (uploadParts == 1 ? "" : "-" + uploadParts) + ", ETag " + etag);
+        }
+    }
+
+    /**
+     * Size of the parts a multipart object was uploaded with, taken from a stat of its first
+     * part; 0 if the server does not report one that adds up to the part count in the ETag.
+     */
+    private long uploadPartSize(String bucketName, String objectName, String etag, long size, int parts) {
+        try {
+            long partSize = minioClient.statObject(
+                StatObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .matchETag(etag)
+                    .extraQueryParams(Map.of("partNumber", "1"))
+                    .build()
+            ).size();
+            if (partSize > 0 && (size + partSize - 1) / partSize == parts) {
+                return partSize;
+            }
+        } catch (Exception e) {
+            logger.debug("Could not read the part size of {}/{}", bucketName, objectName, e);
+        }
+        logger.debug("Part size of {}/{} unknown, checked the size only", bucketName, objectName);
+        return 0;
+    }
+
+    /**
+     * The indexed object with this content with a reference taken on it for the caller, or null if
+     * there is none, it has gone from the bucket or its last reference was deleted meanwhile.
+     */
+    private StoredObject findStored(String bucketName, String contentHash, String extension) {
+        StoredArtifact artifact = storedArtifactRepository
+                .findByBucketNameAndContentHashAndExtension(bucketName, contentHash, extension).orElse(null);
+        if (artifact == null) {
+            return null;
+        }
+        try {
+            stat(bucketName, artifact.getObjectName());
+        } catch (ErrorResponseException e) {
+            if (!"NoSuchKey".equals(e.errorResponse().code())) {
+                throw new RuntimeException("Failed to read file metadata from MinIO", e);
+            }
+            logger.info("Indexed object {}/{} no longer exists, dropping it", bucketName, artifact.getObjectName());
+            storedArtifactRepository.delete(artifact);
+            return null;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to read file metadata from MinIO", e);
+        }
+        if (storedArtifactRepository.addReference(artifact.getId()) == 0) {
+            return null;
+        }
+        return new StoredObject(bucketName, artifact.getObjectName(), artifact.getSize(), contentHash, true);
+    }
+
+    /**
+     * Records a new upload in the content index. When the same content is already indexed,
+     * possibly by a concurrent upload that won the race, the new object is removed in favour of
+     * the indexed one.
+     */
+    private StoredObject index(StoredObject stored, String extension, String contentType) {
+        StoredObject existing = findStored(stored.getBucketName(), stored.getContentHash(), extension);
+        if (existing == null) {
+            try {
+                storedArtifactRepository.save(new StoredArtifact(stored.getBucketName(), stored.getObjectName(),
+                        stored.getContentHash(), extension, stored.getSize(), contentType));
+                return stored;
+            } catch (DataIntegrityViolationException e) {
+                existing = findStored(stored.getBucketName(), stored.getContentHash(), extension);
+                if (existing == null) {
+                    throw e;
+                }
+            }
+        }
+        try {
+            minioClient.removeObject(
+                RemoveObjectArgs.builder()
+                    .bucket(stored.getBucketName())
+                    .object(stored.getObjectName())
+                    .build()
+            );
+        } catch (Exception e) {
+            logger.warn("Could not remove duplicate object {}/{}", stored.getBucketName(), stored.getObjectName(), e);
+        }
+        invalidate(stored.getBucketName(), stored.getObjectName());
+        logger.info("Upload {} duplicates {} in bucket: {}, keeping the existing object",
+                stored.getObjectName(), existing.getObjectName(), stored.getBucketName());
+        return existing;
+    }
+
+    private static String extensionOf(String filename) {
+        if (filename == null) {
+            return "";
+        }
+        int dot = filename.lastIndexOf('.');
+        return dot > Math.max(filename.lastIndexOf('/'), filename.lastIndexOf('\\'))
+                ? filename.substring(dot + 1).toLowerCase(Locale.ROOT) : "";
+    }
+
+    public Map<String, Object> getMetadataCacheStatistics() {
+        return Map.of(
+            "buckets", bucketCache.getStatistics(),
+            "stats", statCache.getStatistics(),
+            "presignedUrls", presignedUrlCache.getStatistics()
+        );
+    }
+
+    private StatObjectResponse stat(String bucketName, String objectName) throws Exception {
+        String key = objectKey(bucketName, objectName);
+        StatObjectResponse cached = statCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        StatObjectResponse stat = minioClient.statObject(
+            StatObjectArgs.builder()
+                .bucket(bucketName)
+                .object(objectName)
+                .build()
+        );
+        statCache.put(key, stat, TimeUnit.SECONDS.toNanos(statTtlSeconds));
+        return stat;
+    }
+
+    // Drops what is cached about an object after it was written or removed
+    private void invalidate(String bucketName, String objectName) {
+        String key = objectKey(bucketName, objectName);
+        statCache.remove(key);
+        presignedUrlCache.remove(cached -> cached.startsWith(key + "#"));
+    }
+
+    private static String objectKey(String bucketName, String objectName) {
+        return bucketName + "/" + objectName;
+    }
+
     private void createBucketIfNotExists(String bucketName) throws Exception {
+        if (bucketCache.get(bucketName) != null) {
+            return;
+        }
         try {
             boolean exists = minioClient.bucketExists(
                 BucketExistsArgs.builder()
@@ -128,9 +711,105 @@ public class MinioService {
                 );
                 logger.info("Bucket created: {}", bucketName);
             }
+            bucketCache.put(bucketName, Boolean.TRUE, TimeUnit.SECONDS.toNanos(bucketTtlSeconds));
         } catch (Exception e) {
             logger.error("Error creating bucket: {}", bucketName, e);
             throw new RuntimeException("Failed to create bucket", e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Where an upload ended up. Deduplicated uploads point at an object stored by an earlier
+     * upload of the same content.
+     */
+    public static final class StoredObject {
+        private final String bucketName;
+        private final String objectName;
+        private final long size;
+        private final String contentHash;
+        private final boolean deduplicated;
+
+        public StoredObject(String bucketName, String objectName, long size, String contentHash,
+                            boolean deduplicated) {
+            this.bucketName = bucketName;
+            this.objectName = objectName;
+            this.size = size;
+            this.contentHash = contentHash;
+            this.deduplicated = deduplicated;
+        }
+
+        public String getBucketName() { return bucketName; }
+        public String getObjectName() { return objectName; }
+        public long getSize() { return size; }
+        public String getContentHash() { return contentHash; }
+        public boolean isDeduplicated() { return deduplicated; }
+    }
+
+    /**
+     * Bounded LRU map whose entries expire after their own time to live, counting hits and
+     * misses for the health endpoint.
+     */
+    private static final class ExpiringCache<K, V> {
+        private final Map<K, Expiring<V>> entries;
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+
+        private ExpiringCache(int maxEntries) {
+            entries = new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Expiring<V>> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+
+        private synchronized V get(K key) {
+            Expiring<V> entry = entries.get(key);
+            if (entry != null && entry.expiresAt - System.nanoTime() > 0) {
+                hits.incrementAndGet();
+                return entry.value;
+            }
+            if (entry != null) {
+                entries.remove(key);
+            }
+            misses.incrementAndGet();
+            return null;
+        }
+
+        // Values with no time to live left are not cached at all
+        private synchronized void put(K key, V value, long ttlNanos) {
+            if (ttlNanos > 0) {
+                entries.put(key, new Expiring<>(value, System.nanoTime() + ttlNanos));
+            }
+        }
+
+        private synchronized void remove(K key) {
+            entries.remove(key);
+        }
+
+        private synchronized void remove(Predicate<K> matching) {
+            entries.keySet().removeIf(matching);
+        }
+
+        private synchronized Map<String, Object> getStatistics() {
+            long hitCount = hits.get();
+            long lookups = hitCount + misses.get();
+            return Map.of(
+                "hits", hitCount,
+                "misses", lookups - hitCount,
+                "hitRate", lookups > 0 ? (double) hitCount / lookups : 0.0,
+                "size", entries.size()
+            );
+        }
+    }
+
+    private static final class Expiring<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Expiring(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.jobscheduler.service;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+import io.minio.MinioAsyncClient;
+import io.minio.ObjectWriteResponse;
+import io.minio.messages.Part;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Opens up the multipart upload calls that {@link MinioAsyncClient} keeps protected, so parts
+ * can be sent concurrently as they are read instead of one after another inside putObject.
+ */
+class MultipartMinioClient extends MinioAsyncClient {
+
+    MultipartMinioClient(MinioAsyncClient client) {
+        super(client);
+    }
+
+    CompletableFuture<String> createUpload(String bucketName, String objectName, String contentType)
+            throws Exception {
+        Multimap<String, String> headers = HashMultimap.create();
+        if (contentType != null) {
+            headers.put("Content-Type", contentType);
+        }
+        return createMultipartUploadAsync(bucketName, null, objectName, headers, null)
+                .thenApply(response -> response.result().uploadId());
+    }
+
+    // Sends the first length bytes of data as the given part; the array must not change until it completes
+    CompletableFuture<Part> uploadPart(String bucketName, String objectName, String uploadId, int partNumber,
+                                       byte[] data, int length) throws Exception {
+        return uploadPartAsync(bucketName, null, objectName, data, length, uploadId, partNumber, null, null)
+                .thenApply(response -> new Part(partNumber, response.etag()));
+    }
+
+    CompletableFuture<ObjectWriteResponse> completeUpload(String bucketName, String objectName, String uploadId,
+                                                          Part[] parts) throws Exception {
+        return completeMultipartUploadAsync(bucketName, null, objectName, uploadId, parts, null, null);
+    }
+
+    void abortUpload(String bucketName, String objectName, String uploadId) throws Exception {
+        abortMultipartUploadAsync(bucketName, null, objectName, uploadId, null, null).join();
+    }
+}
@@ -0,0 +1,197 @@
+package com.jobscheduler.service;
+
+import com.jobscheduler.dto.RunningBinaryResponse;
+import com.jobscheduler.entity.BinaryJob;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Binary runs in flight on this instance, keyed by job and run id, with what it takes to stop
+ * each one. Cancelling a run that has started kills its process tree, pooled JVM or forked
+ * interpreter; cancelling one that is still waiting for admission or its artifact interrupts the
+ * execution thread. Runs are also cancelled when their job's timeout elapses, counted from
+ * process start, whether or not the process is still writing output.
+ */
+@Service
+public class RunningBinaryRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(RunningBinaryRegistry.class);
+
+    @Value("${app.binary.execution.default-timeout-seconds:1800}")
+    private long defaultTimeoutSeconds;
+
+    private final Map<Long, Map<String, RunningBinary>> runs = new ConcurrentHashMap<>();
+    private ScheduledExecutorService watchdog;
+
+    @PostConstruct
+    public void start() {
+        watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "binary-timeouts");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        watchdog.shutdownNow();
+    }
+
+    // Called on the execution thread before anything else happens for the run
+    public RunningBinary register(BinaryJob job) {
+        long timeoutSeconds = job.getTimeoutSeconds() != null ? job.getTimeoutSeconds() : defaultTimeoutSeconds;
+        RunningBinary run = new RunningBinary(job.getId(), timeoutSeconds);
+        runs.computeIfAbsent(job.getId(), id -> new ConcurrentHashMap<>()).put(run.id, run);
+        return run;
+    }
+
+    public List<RunningBinaryResponse> getRuns(Long jobId) {
+        return runs.getOrDefault(jobId, Map.of()).values().stream()
+                .map(run -> new RunningBinaryResponse(run.id, run.jobId, run.registeredAt, run.startedAt, run.pid,
+                        run.timeoutSeconds))
+                .collect(Collectors.toList());
+    }
+
+    public boolean cancel(Long jobId, String runId, String reason) {
+        RunningBinary run = runs.getOrDefault(jobId, Map.of()).get(runId);
+        if (run == null) {
+            return false;
+        }
+        run.cancel(reason, false);
+        return true;
+    }
+
+    // Cancels every run of the job; returns how many there were
+    public int cancelAll(Long jobId, String reason) {
+        Map<String, RunningBinary> jobRuns = runs.getOrDefault(jobId, Map.of());
+        jobRuns.values().forEach(run -> run.cancel(reason, false));
+        return jobRuns.size();
+    }
+
+    public Map<String, Object> getStatistics() {
+        return Map.of("running", runs.values().stream().mapToInt(Map::size).sum());
+    }
+
+    private void unregister(RunningBinary run) {
+        runs.computeIfPresent(run.jobId, (id, jobRuns) -> {
+            jobRuns.remove(run.id);
+            return jobRuns.isEmpty() ? null : jobRuns;
+        });
+    }
+
+    /**
+     * One run of a binary job. The execution thread attaches a kill action once something is
+     * running and closes the run when it is done.
+     */
+    public final class RunningBinary implements AutoCloseable {
+        private final String id = UUID.randomUUID().toString();
+        private final Long jobId;
+        private final long timeoutSeconds;
+        private final LocalDateTime registeredAt = LocalDateTime.now();
+        private final Thread thread = Thread.currentThread();
+
+        private volatile LocalDateTime startedAt;
+        private volatile Long pid;
+        private Runnable kill;
+        private ScheduledFuture<?> timeout;
+        private String cancelReason;
+        private boolean timedOut;
+        private boolean closed;
+
+        private RunningBinary(Long jobId, long timeoutSeconds) {
+            this.jobId = jobId;
+            this.timeoutSeconds = timeoutSeconds;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        /**
+         * Records how to stop what was just started and starts the timeout. If the run was
+         * cancelled in the meantime the kill happens right away.
+         */
+        public void attach(Long processId, Runnable killAction) {
+            boolean cancelled;
+            synchronized (this) {
+                startedAt = LocalDateTime.now();
+                pid = processId;
+                kill = killAction;
+                cancelled = cancelReason != null;
+                if (!cancelled && timeoutSeconds > 0) {
+                    timeout = watchdog.schedule(() -> cancel("Timed out after " + timeoutSeconds + " seconds", true),
+                            timeoutSeconds, TimeUnit.SECONDS);
+                }
+            }
+            if (cancelled) {
+                killAction.run();
+            }
+        }
+
+        public synchronized boolean isCancelled() {
+            return cancelReason != null;
+        }
+
+        public synchronized boolean isTimedOut() {
+            return timedOut;
+        }
+
+        public synchronized String getCancelReason() {
+            return cancelReason;
+        }
+
+        private void cancel(String reason, boolean byTimeout) {
+            Runnable action;
+            synchronized (this) {
+                if (closed || cancelReason != null) {
+                    return;
+                }
+                cancelReason = reason;
+                timedOut = byTimeout;
+                action = kill;
+                if (action == null) {
+                    // Nothing started yet: stop waiting for admission or the artifact
+                    thread.interrupt();
+                }
+            }
+            logger.info("Cancelling run {} of job {}: {}", id, jobId, reason);
+            if (action != null) {
+                try {
+                    action.run();
+                } catch (RuntimeException e) {
+                    logger.error("Could not kill run {} of job {}", id, jobId, e);
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            synchronized (this) {
+                closed = true;
+                if (timeout != null) {
+                    timeout.cancel(false);
+                }
+            }
+            unregister(this);
+            if (Thread.currentThread() == thread) {
+                // An interrupt meant for this run must not leak into the pool thread's next task
+                Thread.interrupted();
+            }
+        }
+    }
+}
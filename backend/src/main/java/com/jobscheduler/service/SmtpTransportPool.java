@@ -0,0 +1,248 @@
+package com.jobscheduler.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded pool of connected, authenticated SMTP transports shared by all email sends, so a
+ * message costs one MAIL/RCPT/DATA exchange instead of a new connection with STARTTLS and AUTH.
+ * The most recently used connection is handed out first and carries up to
+ * {@code max-messages-per-connection} messages before it is replaced; the rest idle out after
+ * {@code idle-timeout-ms}. A connection that sat idle for {@code validate-after-idle-ms} is
+ * checked with a NOOP before it is reused.
+ */
+@Component
+@ConditionalOnProperty(name = "app.email.smtp-pool.enabled", havingValue = "true", matchIfMissing = true)
+public class SmtpTransportPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmtpTransportPool.class);
+
+    private final JavaMailSenderImpl mailSender;
+    private final int maxSize;
+    private final int maxMessagesPerConnection;
+    private final long idleTimeoutMs;
+    private final long validateAfterIdleMs;
+    private final long borrowTimeoutMs;
+
+    private final Semaphore permits;
+    // Most recently returned first; guarded by itself
+    private final Deque<PooledTransport> idle = new ArrayDeque<>();
+    private final AtomicInteger open = new AtomicInteger();
+    private volatile boolean closed;
+
+    private final AtomicLong messagesSent = new AtomicLong();
+    private final AtomicLong connectionsOpened = new AtomicLong();
+    private final AtomicLong reused = new AtomicLong();
+    private final AtomicLong failedHealthChecks = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+
+    public SmtpTransportPool(JavaMailSenderImpl mailSender,
+                             @Value("${app.email.smtp-pool.max-size:${app.email.send-concurrency:8}}") int maxSize,
+                             @Value("${app.email.smtp-pool.max-messages-per-connection:100}") int maxMessagesPerConnection,
+                             @Value("${app.email.smtp-pool.idle-timeout-ms:60000}") long idleTimeoutMs,
+                             @Value("${app.email.smtp-pool.validate-after-idle-ms:1000}") long validateAfterIdleMs,
+                             @Value("${app.email.smtp-pool.borrow-timeout-ms:30000}") long borrowTimeoutMs) {
+        this.mailSender = mailSender;
+        this.maxSize = maxSize;
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.validateAfterIdleMs = validateAfterIdleMs;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    @PreDestroy
+    public void close() {
+        closed = true;
+        List<PooledTransport> closing;
+        synchronized (idle) {
+            closing = new ArrayList<>(idle);
+            idle.clear();
+        }
+        closing.forEach(this::discard);
+    }
+
+    /**
+     * Sends the message over a pooled connection, waiting up to borrow-timeout-ms for one when
+     * all max-size connections are busy.
+     */
+    public void send(MimeMessage message) throws MessagingException {
+        PooledTransport pooled = borrow();
+        boolean reusable = false;
+        try {
+            // What JavaMailSender does before sending
+            if (message.getSentDate() == null) {
+                message.setSentDate(new Date());
+            }
+            String messageId = message.getMessageID();
+            message.saveChanges();
+            if (messageId != null) {
+                message.setHeader("Message-ID", messageId);
+            }
+            pooled.transport.sendMessage(message, message.getAllRecipients());
+            pooled.messages++;
+            messagesSent.incrementAndGet();
+            reusable = true;
+        } catch (SendFailedException e) {
+            // Rejected addresses leave the session in a usable state
+            reusable = true;
+            throw e;
+        } finally {
+            release(pooled, reusable);
+        }
+    }
+
+    // Closes connections that have been idle for longer than idle-timeout-ms
+    @Scheduled(fixedDelayString = "${app.email.smtp-pool.eviction-interval-ms:15000}")
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        List<PooledTransport> expired = new ArrayList<>();
+        synchronized (idle) {
+            Iterator<PooledTransport> oldestFirst = idle.descendingIterator();
+            while (oldestFirst.hasNext()) {
+                PooledTransport pooled = oldestFirst.next();
+                if (now - pooled.returnedAt < idleTimeoutMs) {
+                    break;
+                }
+                oldestFirst.remove();
+                expired.add(pooled);
+            }
+        }
+        evicted.addAndGet(expired.size());
+        expired.forEach(this::discard);
+    }
+
+    public Map<String, Object> getStatistics() {
+        int idleCount;
+        synchronized (idle) {
+            idleCount = idle.size();
+        }
+        return Map.of(
+            "maxSize", maxSize,
+            "open", open.get(),
+            "idle", idleCount,
+            "inUse", maxSize - permits.availablePermits(),
+            "messagesSent", messagesSent.get(),
+            "connectionsOpened", connectionsOpened.get(),
+            "reused", reused.get(),
+            "failedHealthChecks", failedHealthChecks.get(),
+            "evicted", evicted.get()
+        );
+    }
+
+    private PooledTransport borrow() throws MessagingException {
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new MessagingException("No SMTP connection became free within " + borrowTimeoutMs + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while waiting for an SMTP connection", e);
+        }
+        try {
+            PooledTransport pooled;
+            while ((pooled = pollIdle()) != null) {
+                if (isUsable(pooled)) {
+                    reused.incrementAndGet();
+                    return pooled;
+                }
+                discard(pooled);
+            }
+            return connect();
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledTransport pollIdle() {
+        synchronized (idle) {
+            return idle.pollFirst();
+        }
+    }
+
+    private boolean isUsable(PooledTransport pooled) {
+        long idleFor = System.currentTimeMillis() - pooled.returnedAt;
+        if (idleFor >= idleTimeoutMs) {
+            evicted.incrementAndGet();
+            return false;
+        }
+        // isConnected sends a NOOP; a connection returned a moment ago is trusted without one
+        if (idleFor >= validateAfterIdleMs && !pooled.transport.isConnected()) {
+            failedHealthChecks.incrementAndGet();
+            logger.debug("Pooled SMTP connection failed its health check after {} ms idle", idleFor);
+            return false;
+        }
+        return true;
+    }
+
+    private PooledTransport connect() throws MessagingException {
+        Session session = mailSender.getSession();
+        Transport transport = session.getTransport(mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp");
+        String username = mailSender.getUsername();
+        String password = mailSender.getPassword();
+        transport.connect(mailSender.getHost(), mailSender.getPort(),
+                username != null && !username.isEmpty() ? username : null,
+                password != null && !password.isEmpty() ? password : null);
+        open.incrementAndGet();
+        connectionsOpened.incrementAndGet();
+        return new PooledTransport(transport);
+    }
+
+    private void release(PooledTransport pooled, boolean reusable) {
+        try {
+            if (reusable && !closed && pooled.messages < maxMessagesPerConnection) {
+                pooled.returnedAt = System.currentTimeMillis();
+                synchronized (idle) {
+                    idle.offerFirst(pooled);
+                }
+            } else {
+                discard(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void discard(PooledTransport pooled) {
+        open.decrementAndGet();
+        try {
+            pooled.transport.close();
+        } catch (MessagingException e) {
+            logger.debug("Error closing SMTP connection", e);
+        }
+    }
+
+    private static final class PooledTransport {
+        private final Transport transport;
+        private int messages;
+        private long returnedAt;
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+    }
+}
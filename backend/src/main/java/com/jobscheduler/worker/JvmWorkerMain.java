@@ -0,0 +1,139 @@
+package com.jobscheduler.worker;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+
+/**
+ * Entry point of a pooled worker JVM. Commands arrive one per line on stdin and replies go to
+ * stdout; each job's own stdout and stderr are sent over a fresh loopback connection to the
+ * pool, which is closed when the job ends. Jobs run in their own class loader, with the platform
+ * class loader as parent, so nothing from this class or a previous job is visible to them.
+ *
+ * <p>This class is copied onto the worker's class path on its own, so it must not depend on
+ * anything outside the JDK or have nested classes.
+ */
+public final class JvmWorkerMain {
+
+    private JvmWorkerMain() {}
+
+    public static void main(String[] args) throws Exception {
+        int port = Integer.parseInt(args[0]);
+        PrintStream control = System.out;
+        PrintStream originalErr = System.err;
+        BufferedReader commands = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+
+        control.println("READY");
+        control.flush();
+
+        String line;
+        while ((line = commands.readLine()) != null) {
+            if (line.equals("PING")) {
+                control.println("PONG");
+                control.flush();
+            } else if (line.startsWith("RUN\t")) {
+                // RUN <token> <jar>
+                String[] parts = line.split("\t", 3);
+                int exitCode;
+                try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+                    OutputStream out = socket.getOutputStream();
+                    out.write((parts[1] + "\n").getBytes(StandardCharsets.UTF_8));
+                    PrintStream jobOut = new PrintStream(new BufferedOutputStream(out, 8192), true);
+                    System.setOut(jobOut);
+                    System.setErr(jobOut);
+                    try {
+                        exitCode = runJar(new File(parts[2]));
+                    } finally {
+                        System.setOut(control);
+                        System.setErr(originalErr);
+                        jobOut.flush();
+                    }
+                } catch (Exception e) {
+                    e.printStackTrace(originalErr);
+                    exitCode = 1;
+                }
+                control.println("EXIT " + exitCode);
+                control.flush();
+            }
+        }
+    }
+
+    // Runs the jar's main class like "java -jar" would and returns the exit code
+    private static int runJar(File jar) throws Exception {
+        String mainClass;
+        List<URL> classPath = new ArrayList<>();
+        classPath.add(jar.toURI().toURL());
+        try (JarFile jarFile = new JarFile(jar)) {
+            Manifest manifest = jarFile.getManifest();
+            Attributes attributes = manifest != null ? manifest.getMainAttributes() : null;
+            mainClass = attributes != null ? attributes.getValue(Attributes.Name.MAIN_CLASS) : null;
+            if (mainClass == null) {
+                System.err.println("no main manifest attribute, in " + jar);
+                return 1;
+            }
+            String manifestClassPath = attributes.getValue(Attributes.Name.CLASS_PATH);
+            if (manifestClassPath != null) {
+                for (String entry : manifestClassPath.trim().split("\\s+")) {
+                    classPath.add(new URL(jar.toURI().toURL(), entry));
+                }
+            }
+        }
+
+        int[] exitCode = {0};
+        try (URLClassLoader loader = new URLClassLoader(classPath.toArray(new URL[0]),
+                ClassLoader.getPlatformClassLoader())) {
+            Method main = Class.forName(mainClass, true, loader).getMethod("main", String[].class);
+            ThreadGroup group = new ThreadGroup("job");
+            Thread thread = new Thread(group, () -> {
+                try {
+                    main.invoke(null, (Object) new String[0]);
+                } catch (InvocationTargetException e) {
+                    System.err.print("Exception in thread \"main\" ");
+                    e.getCause().printStackTrace();
+                    exitCode[0] = 1;
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    exitCode[0] = 1;
+                }
+            }, "main");
+            thread.setContextClassLoader(loader);
+            thread.start();
+            thread.join();
+            awaitNonDaemonThreads(group);
+        }
+        return exitCode[0];
+    }
+
+    // A JVM only exits once all non-daemon threads are done, so the job is not finished before that
+    private static void awaitNonDaemonThreads(ThreadGroup group) throws InterruptedException {
+        while (true) {
+            Thread[] threads = new Thread[group.activeCount() + 8];
+            int count = group.enumerate(threads, true);
+            Thread waitFor = null;
+            for (int i = 0; i < count && waitFor == null; i++) {
+                if (!threads[i].isDaemon() && threads[i].isAlive()) {
+                    waitFor = threads[i];
+                }
+            }
+            if (waitFor == null) {
+                return;
+            }
+            waitFor.join();
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.jobscheduler.worker;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of pre-started JVMs that run {@code .jar} jobs without paying JVM startup on every run.
+ * Each worker runs {@link JvmWorkerMain}, loads the job jar in a fresh class loader and calls
+ * its main class; the job's output streams back over a loopback connection that closes when
+ * the job ends. A worker is replaced after {@code max-runs-per-worker} runs, when a job calls
+ * {@code System.exit} or times out, or when it fails a health check. Callers that find no idle
+ * worker fall back to launching the jar in a new process.
+ */
+@Component
+@ConditionalOnProperty(name = "app.binary.jvm-pool.enabled", havingValue = "true")
+public class JvmWorkerPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(JvmWorkerPool.class);
+
+    private static final String EOF = "\u0000EOF";
+    private static final long STARTUP_TIMEOUT_MS = 30_000;
+    private static final long CONNECT_TIMEOUT_MS = 10_000;
+    private static final long HEALTH_CHECK_TIMEOUT_MS = 5_000;
+
+    private final int size;
+    private final int maxRunsPerWorker;
+    private final List<String> jvmOptions;
+
+    private Path classPath;
+    private OutputConnectionServer outputs;
+    private ExecutorService background;
+    private volatile boolean closed;
+
+    private final BlockingQueue<Worker> idle = new LinkedBlockingQueue<>();
+    private final Map<Worker, Boolean> workers = new ConcurrentHashMap<>();
+    private final AtomicInteger workerCount = new AtomicInteger();
+    private final AtomicInteger starting = new AtomicInteger();
+
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong retired = new AtomicLong();
+
+    public JvmWorkerPool(@Value("${app.binary.jvm-pool.size:2}") int size,
+                         @Value("${app.binary.jvm-pool.max-runs-per-worker:100}") int maxRunsPerWorker,
+                         @Value("${app.binary.jvm-pool.jvm-options:}") String jvmOptions) {
+        this.size = size;
+        this.maxRunsPerWorker = maxRunsPerWorker;
+        this.jvmOptions = jvmOptions.isBlank() ? List.of() : Arrays.asList(jvmOptions.trim().split("\\s+"));
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        // Workers get only JvmWorkerMain on their class path, not the application's classes
+        classPath = Files.createTempDirectory("jvm-worker-");
+        String classFile = JvmWorkerMain.class.getName().replace('.', '/') + ".class";
+        Path target = classPath.resolve(classFile);
+        Files.createDirectories(target.getParent());
+        try (InputStream in = JvmWorkerMain.class.getClassLoader().getResourceAsStream(classFile)) {
+            Files.copy(in, target);
+        }
+
+        outputs = new OutputConnectionServer("jvm-worker-outputs");
+        AtomicInteger threadCount = new AtomicInteger();
+        background = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "jvm-worker-pool-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < size; i++) {
+            requestWorker();
+        }
+        logger.info("JVM worker pool starting {} workers, each reused for up to {} runs", size, maxRunsPerWorker);
+    }
+
+    @PreDestroy
+    public void close() {
+        closed = true;
+        workers.keySet().forEach(Worker::destroy);
+        outputs.close();
+        background.shutdownNow();
+        try {
+            FileSystemUtils.deleteRecursively(classPath);
+        } catch (IOException e) {
+            logger.debug("Could not delete {}", classPath, e);
+        }
+    }
+
+    // An idle worker, or null if all are busy or still starting
+    public Worker borrow() {
+        Worker worker;
+        while ((worker = idle.poll()) != null) {
+            if (worker.process.isAlive()) {
+                return worker;
+            }
+            retire(worker, "exited while idle");
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    // Pings idle workers, replaces the ones that do not answer and tops up after failed starts
+    @Scheduled(fixedDelayString = "${app.binary.jvm-pool.health-check-interval-ms:30000}")
+    public void healthCheck() {
+        List<Worker> checked = new ArrayList<>();
+        idle.drainTo(checked);
+        for (Worker worker : checked) {
+            if (worker.ping()) {
+                idle.offer(worker);
+            } else {
+                retire(worker, "failed health check");
+            }
+        }
+        for (int i = workers.size() + starting.get(); i < size; i++) {
+            requestWorker();
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        return Map.of(
+            "workers", workers.size(),
+            "idle", idle.size(),
+            "runs", runs.get(),
+            "misses", misses.get(),
+            "retired", retired.get()
+        );
+    }
+
+    private void requestWorker() {
+        starting.incrementAndGet();
+        background.execute(this::spawn);
+    }
+
+    private void spawn() {
+        if (closed) {
+            starting.decrementAndGet();
+            return;
+        }
+        String id = "jvm-worker-" + workerCount.incrementAndGet();
+        Worker worker = null;
+        try {
+            List<String> command = new ArrayList<>();
+            command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+            command.addAll(jvmOptions);
+            command.addAll(List.of("-cp", classPath.toString(), JvmWorkerMain.class.getName(),
+                    Integer.toString(outputs.getPort())));
+            Process process = new ProcessBuilder(command)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+            worker = new Worker(id, process);
+            workers.put(worker, Boolean.TRUE);
+            background.execute(worker::readReplies);
+            if (!"READY".equals(worker.replies.poll(STARTUP_TIMEOUT_MS, TimeUnit.MILLISECONDS))) {
+                throw new IOException("Worker did not start within " + STARTUP_TIMEOUT_MS + " ms");
+            }
+            idle.offer(worker);
+            logger.debug("Started {}", id);
+        } catch (Exception e) {
+            // The next health check starts a replacement
+            logger.error("Could not start {}", id, e);
+            if (worker != null) {
+                worker.destroy();
+                workers.remove(worker);
+            }
+        } finally {
+            starting.decrementAndGet();
+        }
+    }
+
+    private void retire(Worker worker, String reason) {
+        logger.info("Replacing {}: {}", worker.id, reason);
+        retired.incrementAndGet();
+        worker.destroy();
+        workers.remove(worker);
+        if (!closed) {
+            requestWorker();
+        }
+    }
+
+    /**
+     * One worker JVM, lent out for a single run. Closing it hands it back to the pool, or
+     * replaces it if the run left it unusable or it reached its reuse limit.
+     */
+    public final class Worker implements AutoCloseable {
+        private final String id;
+        private final Process process;
+        private final Writer commands;
+        private final BlockingQueue<String> replies = new LinkedBlockingQueue<>();
+        private int runCount;
+        private Socket output;
+        private volatile boolean broken;
+
+        private Worker(String id, Process process) {
+            this.id = id;
+            this.process = process;
+            this.commands = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8);
+        }
+
+        // Starts the jar's main class and returns the run's combined stdout and stderr
+        public InputStream run(Path jar) throws IOException {
+            runs.incrementAndGet();
+            runCount++;
+            String token = outputs.expect();
+            try {
+                send("RUN\t" + token + "\t" + jar.toAbsolutePath());
+                output = outputs.await(token, CONNECT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                return output.getInputStream();
+            } catch (IOException e) {
+                broken = true;
+                throw new IOException("Worker " + id + " did not start the job", e);
+            }
+        }
+
+        /**
+         * Waits for the job to end and returns its exit code, or null on timeout, in which case
+         * the worker is killed.
+         */
+        public Integer awaitExit(long timeout, TimeUnit unit) throws InterruptedException {
+            String reply = replies.poll(timeout, unit);
+            if (reply == null) {
+                broken = true;
+                process.destroyForcibly();
+                return null;
+            }
+            if (reply.startsWith("EXIT ")) {
+                return Integer.parseInt(reply.substring(5).trim());
+            }
+            // The job ended the JVM itself, e.g. with System.exit
+            broken = true;
+            process.waitFor();
+            return process.exitValue();
+        }
+
+        // Stops the running job by killing the whole worker; safe to call from any thread
+        public void kill() {
+            broken = true;
+            process.destroyForcibly();
+        }
+
+        public long pid() {
+            return process.pid();
+        }
+
+        @Override
+        public void close() {
+            if (output != null) {
+                try {
+                    output.close();
+                } catch (IOException e) {
+                    logger.debug("Error closing output of {}", id, e);
+                }
+                output = null;
+            }
+            if (broken || !process.isAlive()) {
+                retire(this, "run did not end normally");
+            } else if (runCount >= maxRunsPerWorker) {
+                retire(this, "reached " + maxRunsPerWorker + " runs");
+            } else {
+                idle.offer(this);
+            }
+        }
+
+        private boolean ping() {
+            try {
+                send("PING");
+                return "PONG".equals(replies.poll(HEALTH_CHECK_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+            } catch (Exception e) {
+                return false;
+            }
+        }
+
+        private void send(String command) throws IOException {
+            commands.write(command);
+            commands.write('\n');
+            commands.flush();
+        }
+
+        private void readReplies() {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.equals("READY") || line.equals("PONG") || line.startsWith("EXIT ")) {
+                        replies.offer(line);
+                    }
+                }
+            } catch (IOException e) {
+                logger.debug("Lost control stream of {}", id, e);
+            }
+            replies.offer(EOF);
+        }
+
+        private void destroy() {
+            process.destroyForcibly();
+        }
+    }
+}
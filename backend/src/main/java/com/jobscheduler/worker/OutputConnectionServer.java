@@ -0,0 +1,115 @@
+package com.jobscheduler.worker;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loopback endpoint through which pooled workers stream the output of a run. The caller
+ * announces a one-time token, passes it to the worker with the run command, and the worker
+ * connects and sends the token as its first line; the connection then carries the run's output
+ * until the job ends. Connections with an unknown token are dropped.
+ */
+class OutputConnectionServer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutputConnectionServer.class);
+
+    private static final int HANDSHAKE_TIMEOUT_MS = 10_000;
+
+    private final ServerSocket server;
+    private final Map<String, CompletableFuture<Socket>> pending = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    OutputConnectionServer(String threadName) throws IOException {
+        server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::accept, threadName);
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int getPort() {
+        return server.getLocalPort();
+    }
+
+    // A fresh token for the next run
+    String expect() {
+        String token = UUID.randomUUID().toString();
+        pending.put(token, new CompletableFuture<>());
+        return token;
+    }
+
+    // Waits for the worker to connect with the token
+    Socket await(String token, long timeout, TimeUnit unit) throws IOException {
+        try {
+            return pending.get(token).get(timeout, unit);
+        } catch (Exception e) {
+            throw new IOException("Worker did not connect its output", e);
+        } finally {
+            pending.remove(token);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            server.close();
+        } catch (IOException e) {
+            logger.debug("Error closing worker output socket", e);
+        }
+    }
+
+    private void accept() {
+        while (!closed) {
+            Socket socket;
+            try {
+                socket = server.accept();
+            } catch (IOException e) {
+                if (!closed) {
+                    logger.error("Worker output socket failed", e);
+                }
+                return;
+            }
+            try {
+                socket.setSoTimeout(HANDSHAKE_TIMEOUT_MS);
+                CompletableFuture<Socket> connection = pending.get(readToken(socket.getInputStream()));
+                socket.setSoTimeout(0);
+                if (connection == null || !connection.complete(socket)) {
+                    socket.close();
+                }
+            } catch (IOException e) {
+                logger.warn("Rejected worker output connection", e);
+                try {
+                    socket.close();
+                } catch (IOException closeError) {
+                    logger.debug("Error closing rejected connection", closeError);
+                }
+            }
+        }
+    }
+
+    private static String readToken(InputStream in) throws IOException {
+        // Byte by byte, so nothing after the token is consumed here
+        ByteArrayOutputStream line = new ByteArrayOutputStream(64);
+        int b;
+        while ((b = in.read()) != -1 && b != '\n') {
+            line.write(b);
+            if (line.size() > 256) {
+                throw new IOException("Token line too long");
+            }
+        }
+        return line.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,307 @@
+package com.jobscheduler.worker;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs {@code .py} jobs by forking them from a warm Python parent that has the configured
+ * modules imported already, instead of starting a new interpreter per job. The parent is
+ * {@code python/forkserver.py}; each forked child gets its own session, working directory and
+ * output connection back to this JVM. Timeouts kill the child's whole process group. If the
+ * parent dies it is restarted by the next health check, and jobs fall back to a new
+ * {@code python3} process meanwhile.
+ */
+@Component
+@ConditionalOnProperty(name = "app.binary.python-pool.enabled", havingValue = "true")
+public class PythonForkServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(PythonForkServer.class);
+
+    private static final long STARTUP_TIMEOUT_MS = 60_000;
+    private static final long CONNECT_TIMEOUT_MS = 10_000;
+    private static final long HEALTH_CHECK_TIMEOUT_MS = 5_000;
+    private static final long KILL_GRACE_MS = 5_000;
+
+    private final String python;
+    private final String preloadModules;
+
+    private Path script;
+    private OutputConnectionServer outputs;
+    private volatile Parent parent;
+    private volatile boolean closed;
+
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong restarts = new AtomicLong();
+
+    public PythonForkServer(@Value("${app.binary.python-pool.python:python3}") String python,
+                            @Value("${app.binary.python-pool.preload-modules:}") String preloadModules) {
+        this.python = python;
+        this.preloadModules = preloadModules;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        script = Files.createTempFile("forkserver-", ".py");
+        try (InputStream in = PythonForkServer.class.getResourceAsStream("/python/forkserver.py")) {
+            Files.copy(in, script, StandardCopyOption.REPLACE_EXISTING);
+        }
+        outputs = new OutputConnectionServer("python-fork-outputs");
+        launch();
+    }
+
+    @PreDestroy
+    public void close() {
+        closed = true;
+        Parent current = parent;
+        if (current != null) {
+            // Closing its stdin makes the parent kill its running children and exit
+            try {
+                current.process.getOutputStream().close();
+                if (!current.process.waitFor(KILL_GRACE_MS, TimeUnit.MILLISECONDS)) {
+                    current.process.destroyForcibly();
+                }
+            } catch (IOException e) {
+                current.process.destroyForcibly();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                current.process.destroyForcibly();
+            }
+        }
+        outputs.close();
+        try {
+            Files.deleteIfExists(script);
+        } catch (IOException e) {
+            logger.debug("Could not delete {}", script, e);
+        }
+    }
+
+    /**
+     * Forks a child running the script in the given working directory, or returns null if the
+     * fork server is not available.
+     */
+    public Run start(Path scriptPath, Path workingDirectory) throws IOException {
+        Parent current = parent;
+        if (current == null || !current.process.isAlive()) {
+            return null;
+        }
+        runs.incrementAndGet();
+        String token = outputs.expect();
+        Run run = new Run(current, token);
+        current.exits.put(token, run.exit);
+        try {
+            current.send("RUN\t" + token + "\t" + scriptPath.toAbsolutePath() + "\t" + workingDirectory.toAbsolutePath());
+            run.output = outputs.await(token, CONNECT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            return run;
+        } catch (IOException e) {
+            run.close();
+            throw e;
+        }
+    }
+
+    // Restarts a dead parent and pings a live one
+    @Scheduled(fixedDelayString = "${app.binary.python-pool.health-check-interval-ms:30000}")
+    public void healthCheck() {
+        Parent current = parent;
+        if (current != null && current.ping()) {
+            return;
+        }
+        if (!closed) {
+            logger.warn("Python fork server is not responding, restarting it");
+            restarts.incrementAndGet();
+            if (current != null) {
+                current.process.destroyForcibly();
+            }
+            try {
+                launch();
+            } catch (IOException e) {
+                logger.error("Could not restart the Python fork server", e);
+            }
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        Parent current = parent;
+        return Map.of(
+            "alive", current != null && current.process.isAlive(),
+            "running", current != null ? current.exits.size() : 0,
+            "runs", runs.get(),
+            "restarts", restarts.get()
+        );
+    }
+
+    private synchronized void launch() throws IOException {
+        parent = null;
+        Process process = new ProcessBuilder(python, script.toString(), Integer.toString(outputs.getPort()), preloadModules)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        Parent started = new Parent(process);
+        Thread reader = new Thread(started::readReplies, "python-fork-server-replies");
+        reader.setDaemon(true);
+        reader.start();
+        try {
+            if (!"READY".equals(started.replies.poll(STARTUP_TIMEOUT_MS, TimeUnit.MILLISECONDS))) {
+                process.destroyForcibly();
+                throw new IOException("Python fork server did not start within " + STARTUP_TIMEOUT_MS + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            process.destroyForcibly();
+            throw new IOException("Interrupted while starting the Python fork server", e);
+        }
+        parent = started;
+        logger.info("Python fork server started with preloaded modules [{}]", preloadModules);
+    }
+
+    /**
+     * One forked job. Closing it releases the output connection and kills the job if it is
+     * still running.
+     */
+    public static final class Run implements AutoCloseable {
+        private final Parent parent;
+        private final String token;
+        private final CompletableFuture<Integer> exit = new CompletableFuture<>();
+        private Socket output;
+
+        private Run(Parent parent, String token) {
+            this.parent = parent;
+            this.token = token;
+        }
+
+        // The job's combined stdout and stderr
+        public InputStream getOutput() throws IOException {
+            return output.getInputStream();
+        }
+
+        /**
+         * Waits for the job to end and returns its exit code, or null on timeout, in which case
+         * the job's process group is killed.
+         */
+        public Integer awaitExit(long timeout, TimeUnit unit) throws IOException, InterruptedException {
+            try {
+                return exit.get(timeout, unit);
+            } catch (TimeoutException e) {
+                kill();
+                return null;
+            } catch (ExecutionException e) {
+                throw new IOException("Python fork server failed while the job was running", e.getCause());
+            }
+        }
+
+        // Kills the job's process group without waiting for it to exit; safe to call from any thread
+        public void kill() {
+            try {
+                parent.send("KILL\t" + token);
+            } catch (IOException e) {
+                logger.warn("Could not kill forked job {}", token, e);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (!exit.isDone()) {
+                kill();
+                try {
+                    exit.get(KILL_GRACE_MS, TimeUnit.MILLISECONDS);
+                } catch (Exception e) {
+                    logger.warn("Could not confirm that forked job {} was killed", token, e);
+                }
+                parent.exits.remove(token);
+            }
+            if (output != null) {
+                try {
+                    output.close();
+                } catch (IOException e) {
+                    logger.debug("Error closing job output", e);
+                }
+            }
+        }
+    }
+
+    private static final class Parent {
+        private final Process process;
+        private final Writer commands;
+        private final BlockingQueue<String> replies = new LinkedBlockingQueue<>();
+        private final Map<String, CompletableFuture<Integer>> exits = new ConcurrentHashMap<>();
+        private final Map<String, Long> pids = new ConcurrentHashMap<>();
+
+        private Parent(Process process) {
+            this.process = process;
+            this.commands = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8);
+        }
+
+        private synchronized void send(String command) throws IOException {
+            commands.write(command);
+            commands.write('\n');
+            commands.flush();
+        }
+
+        private boolean ping() {
+            try {
+                replies.clear();
+                send("PING");
+                return "PONG".equals(replies.poll(HEALTH_CHECK_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+            } catch (Exception e) {
+                return false;
+            }
+        }
+
+        private void readReplies() {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] parts = line.split("\t");
+                    if (parts[0].equals("STARTED") && parts.length == 3) {
+                        pids.put(parts[1], Long.parseLong(parts[2]));
+                    } else if (parts[0].equals("EXIT") && parts.length == 3) {
+                        pids.remove(parts[1]);
+                        CompletableFuture<Integer> exit = exits.remove(parts[1]);
+                        if (exit != null) {
+                            exit.complete(Integer.parseInt(parts[2]));
+                        }
+                    } else if (parts[0].equals("READY") || parts[0].equals("PONG")) {
+                        replies.offer(parts[0]);
+                    }
+                }
+            } catch (IOException e) {
+                logger.debug("Lost control stream of the Python fork server", e);
+            }
+            // Jobs of a parent that died without cleaning up would otherwise keep running
+            pids.values().forEach(pid -> ProcessHandle.of(pid).ifPresent(job -> {
+                job.descendants().forEach(ProcessHandle::destroyForcibly);
+                job.destroyForcibly();
+            }));
+            pids.clear();
+            IOException lost = new IOException("Python fork server exited");
+            exits.values().forEach(exit -> exit.completeExceptionally(lost));
+            exits.clear();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+"""Fork server for .py binary jobs.
+
+Started by PythonForkServer as: forkserver.py <output-port> [comma-separated modules to preload]
+
+The parent imports the preload modules once and then forks a child per job, so each job starts
+with those modules already imported. Commands arrive one per line on stdin, replies go to stdout:
+
+    PING                          -> PONG
+    RUN <token> <script> <dir>    -> STARTED <token> <pid>, later EXIT <token> <code>
+    KILL <token>                  kills the job's process group
+
+Fields are tab-separated. A child connects to 127.0.0.1:<output-port>, sends its token as the
+first line and then uses the connection as stdout and stderr. Signal exits are reported as
+128 + signal number, like a shell does.
+"""
+
+import importlib
+import os
+import runpy
+import selectors
+import signal
+import socket
+import sys
+import traceback
+
+
+def reply(line):
+    os.write(1, (line + "\n").encode("utf-8"))
+
+
+def run_child(token, script, workdir, port, inherited_fds):
+    # Own session, so a kill reaches everything the job starts
+    os.setsid()
+    signal.set_wakeup_fd(-1)
+    signal.signal(signal.SIGCHLD, signal.SIG_DFL)
+    for fd in inherited_fds:
+        os.close(fd)
+
+    code = 1
+    try:
+        devnull = os.open(os.devnull, os.O_RDONLY)
+        os.dup2(devnull, 0)
+        os.close(devnull)
+
+        conn = socket.create_connection(("127.0.0.1", port))
+        conn.sendall((token + "\n").encode("utf-8"))
+        os.dup2(conn.fileno(), 1)
+        os.dup2(conn.fileno(), 2)
+        conn.close()
+        sys.stdout = open(1, "w", buffering=1, encoding="utf-8", errors="replace", closefd=False)
+        sys.stderr = open(2, "w", buffering=1, encoding="utf-8", errors="replace", closefd=False)
+
+        os.chdir(workdir)
+        sys.argv = [script]
+        sys.path[0] = os.path.dirname(os.path.abspath(script))
+        try:
+            runpy.run_path(script, run_name="__main__")
+            code = 0
+        except SystemExit as e:
+            if e.code is None:
+                code = 0
+            elif isinstance(e.code, int):
+                code = e.code
+            else:
+                print(e.code, file=sys.stderr)
+                code = 1
+        except BaseException as e:
+            print_job_traceback(e, script)
+            code = 1
+    finally:
+        try:
+            sys.stdout.flush()
+            sys.stderr.flush()
+        finally:
+            os._exit(code & 0xFF)
+
+
+def print_job_traceback(error, script):
+    # Start at the job's own frames, as "python3 script.py" would show it
+    tb = error.__traceback__
+    path = os.path.abspath(script)
+    while tb is not None and tb.tb_frame.f_code.co_filename != path:
+        tb = tb.tb_next
+    traceback.print_exception(type(error), error, tb or error.__traceback__)
+
+
+def main():
+    port = int(sys.argv[1])
+    preload = sys.argv[2] if len(sys.argv) > 2 else ""
+    for module in filter(None, (name.strip() for name in preload.split(","))):
+        importlib.import_module(module)
+
+    # SIGCHLD wakes the select loop through this pipe; children are reaped on the main thread
+    wakeup_read, wakeup_write = os.pipe()
+    os.set_blocking(wakeup_read, False)
+    os.set_blocking(wakeup_write, False)
+    signal.set_wakeup_fd(wakeup_write)
+    signal.signal(signal.SIGCHLD, lambda signum, frame: None)
+
+    selector = selectors.DefaultSelector()
+    selector.register(0, selectors.EVENT_READ)
+    selector.register(wakeup_read, selectors.EVENT_READ)
+    inherited_fds = [wakeup_read, wakeup_write, selector.fileno()]
+
+    children = {}
+    pending = b""
+    reply("READY")
+
+    while True:
+        try:
+            events = selector.select()
+        except InterruptedError:
+            continue
+        for key, _ in events:
+            if key.fd == wakeup_read:
+                try:
+                    os.read(wakeup_read, 4096)
+                except BlockingIOError:
+                    pass
+                reap(children)
+                continue
+
+            data = os.read(0, 65536)
+            if not data:
+                # The scheduler went away: take the running jobs with us
+                for pid in children:
+                    kill_group(pid)
+                return
+            pending += data
+            while b"\n" in pending:
+                line, pending = pending.split(b"\n", 1)
+                handle(line.decode("utf-8"), children, port, inherited_fds)
+
+
+def handle(line, children, port, inherited_fds):
+    parts = line.split("\t")
+    if parts[0] == "PING":
+        reply("PONG")
+    elif parts[0] == "RUN" and len(parts) == 4:
+        token, script, workdir = parts[1], parts[2], parts[3]
+        pid = os.fork()
+        if pid == 0:
+            run_child(token, script, workdir, port, inherited_fds)
+        children[pid] = token
+        reply("STARTED\t%s\t%d" % (token, pid))
+    elif parts[0] == "KILL" and len(parts) == 2:
+        for pid, token in children.items():
+            if token == parts[1]:
+                kill_group(pid)
+
+
+def reap(children):
+    while children:
+        try:
+            pid, status = os.waitpid(-1, os.WNOHANG)
+        except ChildProcessError:
+            return
+        if pid == 0:
+            return
+        token = children.pop(pid, None)
+        code = os.waitstatus_to_exitcode(status)
+        if code < 0:
+            code = 128 - code
+        if token is not None:
+            reply("EXIT\t%s\t%d" % (token, code))
+
+
+def kill_group(pid):
+    try:
+        os.killpg(pid, signal.SIGKILL)
+    except (ProcessLookupError, PermissionError):
+        pass
+
+
+if __name__ == "__main__":
+    main()
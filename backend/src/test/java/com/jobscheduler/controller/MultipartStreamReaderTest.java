@@ -0,0 +1,226 @@
+package com.jobscheduler.controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MultipartStreamReaderTest {
+
+    private static final String BOUNDARY = "----formBoundary7MA4YWxkTrZu0gW";
+    private static final String CONTENT_TYPE = "multipart/form-data; boundary=" + BOUNDARY;
+
+    @Test
+    void readsFieldsAndFileParts() throws IOException {
+        byte[] body = body(
+                field("bucket", "reports"),
+                file("file", "data.bin", "application/octet-stream", bytes("hello\r\nworld")),
+                "--" + BOUNDARY + "--\r\n");
+        MultipartStreamReader reader = new MultipartStreamReader(new ByteArrayInputStream(body), CONTENT_TYPE);
+
+        MultipartStreamReader.Part bucket = reader.nextPart();
+        assertEquals("bucket", bucket.getName());
+        assertFalse(bucket.isFile());
+        assertEquals("reports", text(bucket.getContent()));
+
+        MultipartStreamReader.Part file = reader.nextPart();
+        assertEquals("file", file.getName());
+        assertEquals("data.bin", file.getFilename());
+        assertEquals("application/octet-stream", file.getContentType());
+        assertTrue(file.isFile());
+        assertEquals("hello\r\nworld", text(file.getContent()));
+
+        assertNull(reader.nextPart());
+        assertNull(reader.nextPart());
+    }
+
+    @Test
+    void findsBoundariesSplitAcrossReads() throws IOException {
+        byte[] content = new byte[200_000];
+        new Random(42).nextBytes(content);
+        // Near misses of the delimiter inside the content must stay content
+        byte[] nearMiss = bytes("\r\n--" + BOUNDARY.substring(0, BOUNDARY.length() - 1) + "x");
+        System.arraycopy(nearMiss, 0, content, 1000, nearMiss.length);
+        System.arraycopy(nearMiss, 0, content, content.length - nearMiss.length, nearMiss.length);
+        byte[] body = body(
+                file("file", "random.bin", "application/octet-stream", content),
+                field("after", "tail"),
+                "--" + BOUNDARY + "--\r\n");
+
+        for (int chunk : new int[] {1, 3, 7, BOUNDARY.length() + 3, 8192}) {
+            MultipartStreamReader reader = new MultipartStreamReader(new TrickleInputStream(body, chunk), CONTENT_TYPE);
+            MultipartStreamReader.Part file = reader.nextPart();
+            assertArrayEquals(content, file.getContent().readAllBytes(), "read size " + chunk);
+            MultipartStreamReader.Part after = reader.nextPart();
+            assertEquals("tail", text(after.getContent()), "read size " + chunk);
+            assertNull(reader.nextPart(), "read size " + chunk);
+        }
+    }
+
+    @Test
+    void skipsPreambleAndUnreadParts() throws IOException {
+        byte[] body = body(
+                "This is the preamble.\r\nIt is to be ignored.\r\n",
+                field("skipped", "never read"),
+                field("bucket", "kept"),
+                "--" + BOUNDARY + "--\r\nepilogue");
+        MultipartStreamReader reader = new MultipartStreamReader(new ByteArrayInputStream(body), CONTENT_TYPE);
+
+        assertEquals("skipped", reader.nextPart().getName());
+        MultipartStreamReader.Part bucket = reader.nextPart();
+        assertEquals("bucket", bucket.getName());
+        assertEquals("kept", text(bucket.getContent()));
+        assertNull(reader.nextPart());
+    }
+
+    @Test
+    void readsAQuotedBoundary() throws IOException {
+        byte[] body = body(field("name", "value"), "--" + BOUNDARY + "--\r\n");
+        MultipartStreamReader reader = new MultipartStreamReader(new ByteArrayInputStream(body),
+                "multipart/form-data; boundary=\"" + BOUNDARY + "\"; charset=UTF-8");
+
+        assertEquals("value", text(reader.nextPart().getContent()));
+        assertNull(reader.nextPart());
+    }
+
+    @Test
+    void rejectsRequestsWithoutBoundary() {
+        assertThrows(IOException.class,
+                () -> new MultipartStreamReader(new ByteArrayInputStream(new byte[0]), "application/json"));
+        assertThrows(IOException.class,
+                () -> new MultipartStreamReader(new ByteArrayInputStream(new byte[0]), null));
+    }
+
+    @Test
+    void rejectsOversizedHeaders() throws IOException {
+        StringBuilder headers = new StringBuilder("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"\r\n");
+        for (int i = 0; i < 200; i++) {
+            headers.append("X-Filler-").append(i).append(": ").append("x".repeat(60)).append("\r\n");
+        }
+        byte[] body = body(headers + "\r\ncontent\r\n", "--" + BOUNDARY + "--\r\n");
+        MultipartStreamReader reader = new MultipartStreamReader(new ByteArrayInputStream(body), CONTENT_TYPE);
+
+        IOException error = assertThrows(IOException.class, reader::nextPart);
+        assertTrue(error.getMessage().contains("headers exceed"), error.getMessage());
+    }
+
+    @Test
+    void rejectsOverlongHeaderLine() throws IOException {
+        byte[] body = body("--" + BOUNDARY + "\r\nX-Long: " + "x".repeat(20_000) + "\r\n\r\ncontent\r\n",
+                "--" + BOUNDARY + "--\r\n");
+        // Arriving slowly, the line is refused before it is all buffered
+        MultipartStreamReader reader = new MultipartStreamReader(new TrickleInputStream(body, 1024), CONTENT_TYPE);
+
+        IOException error = assertThrows(IOException.class, reader::nextPart);
+        assertTrue(error.getMessage().contains("header line exceeds"), error.getMessage());
+    }
+
+    @Test
+    void failsOnBodyEndingInsidePart() throws IOException {
+        byte[] body = body(file("file", "cut.bin", "application/octet-stream", bytes("partial content")));
+        // Drop the CRLF that would start the next delimiter
+        body = Arrays.copyOf(body, body.length - 2);
+        MultipartStreamReader reader = new MultipartStreamReader(new ByteArrayInputStream(body), CONTENT_TYPE);
+
+        InputStream content = reader.nextPart().getContent();
+        assertThrows(EOFException.class, content::readAllBytes);
+    }
+
+    @Test
+    void failsOnBodyEndingWithoutClosingBoundary() throws IOException {
+        byte[] body = body(field("bucket", "reports"), "--" + BOUNDARY);
+        MultipartStreamReader reader = new MultipartStreamReader(new ByteArrayInputStream(body), CONTENT_TYPE);
+
+        assertEquals("reports", text(reader.nextPart().getContent()));
+        assertThrows(EOFException.class, reader::nextPart);
+    }
+
+    @Test
+    void failsOnBodyEndingInsideHeaders() throws IOException {
+        byte[] body = body("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"file\"");
+        MultipartStreamReader reader = new MultipartStreamReader(new ByteArrayInputStream(body), CONTENT_TYPE);
+
+        assertThrows(EOFException.class, reader::nextPart);
+    }
+
+    @Test
+    void failsOnEmptyBody() throws IOException {
+        MultipartStreamReader reader = new MultipartStreamReader(new ByteArrayInputStream(new byte[0]), CONTENT_TYPE);
+
+        assertThrows(EOFException.class, reader::nextPart);
+    }
+
+    private static String field(String name, String value) {
+        return "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + name + "\"\r\n\r\n"
+                + value + "\r\n";
+    }
+
+    private static byte[] file(String name, String filename, String contentType, byte[] content) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(bytes("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"" + name + "\"; filename=\"" + filename + "\"\r\n"
+                + "Content-Type: " + contentType + "\r\n\r\n"));
+        out.writeBytes(content);
+        out.writeBytes(bytes("\r\n"));
+        return out.toByteArray();
+    }
+
+    private static byte[] body(Object... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (Object part : parts) {
+            out.writeBytes(part instanceof byte[] raw ? raw : bytes((String) part));
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private static String text(InputStream in) throws IOException {
+        return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    // Hands out at most chunk bytes per read, like a slow network connection
+    private static final class TrickleInputStream extends InputStream {
+        private final byte[] data;
+        private final int chunk;
+        private int position;
+
+        private TrickleInputStream(byte[] data, int chunk) {
+            this.data = data;
+            this.chunk = chunk;
+        }
+
+        @Override
+        public int read() {
+            return position < data.length ? data[position++] & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (position >= data.length) {
+                return -1;
+            }
+            int count = Math.min(Math.min(len, chunk), data.length - position);
+            System.arraycopy(data, position, b, off, count);
+            position += count;
+            return count;
+        }
+    }
+}
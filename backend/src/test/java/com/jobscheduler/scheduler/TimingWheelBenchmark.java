@@ -0,0 +1,124 @@
+package com.jobscheduler.scheduler;
+
+import org.quartz.*;
+import org.quartz.impl.StdSchedulerFactory;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedule, cancel and fire throughput of the timing wheel with a large pending set, plus
+ * schedule and cancel throughput of an unstarted Quartz RAMJobStore for comparison.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.jobscheduler.scheduler.TimingWheelBenchmark -Dexec.args="1000000 100000"
+ * </pre>
+ */
+public class TimingWheelBenchmark {
+
+    private static final long TICK_MS = 100;
+    private static final int WHEEL_SIZE = 512;
+    private static final long HORIZON_MS = TimeUnit.DAYS.toMillis(7);
+    private static final double CANCEL_RATIO = 0.1;
+
+    public static void main(String[] args) throws Exception {
+        int pending = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int quartzPending = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+
+        // Warm up the JIT before measuring
+        runTimingWheel(pending / 10, false);
+        runTimingWheel(pending, true);
+
+        if (quartzPending > 0) {
+            runQuartz(quartzPending);
+        }
+    }
+
+    private static void runTimingWheel(int pending, boolean report) {
+        Random random = new Random(42);
+        long start = 0;
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(TICK_MS, WHEEL_SIZE, 4, start);
+        List<HierarchicalTimingWheel.Timeout<Long>> timeouts = new ArrayList<>(pending);
+
+        long t0 = System.nanoTime();
+        for (long id = 0; id < pending; id++) {
+            long deadline = start + TICK_MS + (long) (random.nextDouble() * HORIZON_MS);
+            timeouts.add(wheel.schedule(deadline, id));
+        }
+        long scheduleNanos = System.nanoTime() - t0;
+
+        int toCancel = (int) (pending * CANCEL_RATIO);
+        t0 = System.nanoTime();
+        for (int i = 0; i < toCancel; i++) {
+            wheel.cancel(timeouts.get(random.nextInt(pending)));
+        }
+        long cancelNanos = System.nanoTime() - t0;
+        long remaining = wheel.size();
+
+        long[] fired = new long[1];
+        t0 = System.nanoTime();
+        wheel.advanceTo(start + HORIZON_MS + 2 * TICK_MS, timeout -> fired[0]++);
+        long fireNanos = System.nanoTime() - t0;
+
+        if (report) {
+            System.out.printf("timing-wheel  pending=%,d%n", pending);
+            print("schedule", pending, scheduleNanos);
+            print("cancel", toCancel, cancelNanos);
+            print("fire", fired[0], fireNanos);
+            System.out.printf("  %,d of %,d remaining entries fired, %,d ticks advanced%n",
+                    fired[0], remaining, (HORIZON_MS + 2 * TICK_MS) / TICK_MS);
+        }
+    }
+
+    private static void runQuartz(int pending) throws SchedulerException {
+        Properties props = new Properties();
+        props.setProperty("org.quartz.scheduler.instanceName", "benchmark");
+        props.setProperty("org.quartz.threadPool.threadCount", "1");
+        props.setProperty("org.quartz.jobStore.class", "org.quartz.simpl.RAMJobStore");
+        Scheduler scheduler = new StdSchedulerFactory(props).getScheduler();
+
+        Random random = new Random(42);
+        long now = System.currentTimeMillis();
+
+        long t0 = System.nanoTime();
+        for (int id = 0; id < pending; id++) {
+            JobDetail jobDetail = JobBuilder.newJob(NoopJob.class)
+                    .withIdentity("job-" + id, "job-group")
+                    .build();
+            Trigger trigger = TriggerBuilder.newTrigger()
+                    .withIdentity("trigger-" + id, "trigger-group")
+                    .startAt(new Date(now + 60_000 + (long) (random.nextDouble() * HORIZON_MS)))
+                    .build();
+            scheduler.scheduleJob(jobDetail, trigger);
+        }
+        long scheduleNanos = System.nanoTime() - t0;
+
+        int toCancel = (int) (pending * CANCEL_RATIO);
+        t0 = System.nanoTime();
+        for (int i = 0; i < toCancel; i++) {
+            scheduler.deleteJob(new JobKey("job-" + random.nextInt(pending), "job-group"));
+        }
+        long cancelNanos = System.nanoTime() - t0;
+
+        System.out.printf("quartz-ram    pending=%,d%n", pending);
+        print("schedule", pending, scheduleNanos);
+        print("cancel", toCancel, cancelNanos);
+        scheduler.shutdown();
+    }
+
+    private static void print(String operation, long count, long nanos) {
+        double seconds = nanos / 1e9;
+        System.out.printf("  %-9s %,12d ops in %8.3fs  %,14.0f ops/s%n", operation, count, seconds, count / seconds);
+    }
+
+    public static class NoopJob implements org.quartz.Job {
+        @Override
+        public void execute(JobExecutionContext context) {
+        }
+    }
+}
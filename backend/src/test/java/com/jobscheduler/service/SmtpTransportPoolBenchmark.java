@@ -0,0 +1,185 @@
+package com.jobscheduler.service;
+
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Email throughput of a new SMTP connection per message, as {@link JavaMailSenderImpl} does,
+ * versus pooled connections from {@link SmtpTransportPool}. The server is a local stand-in that
+ * accepts everything; it delays its greeting by the given number of milliseconds to stand for the
+ * TCP, STARTTLS and AUTH round trips of a real provider.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.jobscheduler.service.SmtpTransportPoolBenchmark -Dexec.args="2000 8 20"
+ * </pre>
+ */
+public class SmtpTransportPoolBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int messages = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        long handshakeMs = args.length > 2 ? Long.parseLong(args[2]) : 20;
+
+        try (FakeSmtpServer server = new FakeSmtpServer(handshakeMs)) {
+            JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+            mailSender.setHost("127.0.0.1");
+            mailSender.setPort(server.getPort());
+            Properties properties = new Properties();
+            properties.setProperty("mail.smtp.auth", "false");
+            mailSender.setJavaMailProperties(properties);
+
+            ExecutorService senders = Executors.newFixedThreadPool(threads);
+            try {
+                // Warm up both paths before measuring
+                run(senders, mailSender, Math.min(messages, 100), mailSender::send);
+                long connections = server.connections.get();
+                long unpooledNanos = run(senders, mailSender, messages, mailSender::send);
+                long unpooledConnections = server.connections.get() - connections;
+
+                SmtpTransportPool pool = new SmtpTransportPool(mailSender, threads, 100, 60_000, 1_000, 30_000);
+                try {
+                    run(senders, mailSender, Math.min(messages, 100), pool::send);
+                    connections = server.connections.get();
+                    long pooledNanos = run(senders, mailSender, messages, pool::send);
+                    long pooledConnections = server.connections.get() - connections;
+
+                    System.out.printf("%d messages from %d threads, %d ms handshake%n", messages, threads, handshakeMs);
+                    report("connection per message", messages, unpooledNanos, unpooledConnections);
+                    report("pooled connections", messages, pooledNanos, pooledConnections);
+                } finally {
+                    pool.close();
+                }
+            } finally {
+                senders.shutdownNow();
+            }
+        }
+    }
+
+    private interface Sender {
+        void send(MimeMessage message) throws Exception;
+    }
+
+    private static long run(ExecutorService senders, JavaMailSenderImpl mailSender, int messages, Sender sender)
+            throws Exception {
+        List<Future<?>> sends = new ArrayList<>(messages);
+        long start = System.nanoTime();
+        for (int i = 0; i < messages; i++) {
+            int n = i;
+            sends.add(senders.submit(() -> {
+                MimeMessage message = mailSender.createMimeMessage();
+                message.setFrom(new InternetAddress("scheduler@example.com"));
+                message.setRecipient(MimeMessage.RecipientType.TO, new InternetAddress("user" + n + "@example.com"));
+                message.setSubject("Benchmark " + n);
+                message.setText("Message " + n + " of the SMTP pool benchmark.");
+                sender.send(message);
+                return null;
+            }));
+        }
+        for (Future<?> send : sends) {
+            send.get();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static void report(String label, int messages, long nanos, long connections) {
+        double seconds = nanos / 1e9;
+        System.out.printf("%-24s %8.0f messages/s  %6d connections  %7.1f ms total%n",
+                label, messages / seconds, connections, nanos / 1e6);
+    }
+
+    /**
+     * Minimal SMTP server that accepts every message and throws it away.
+     */
+    private static final class FakeSmtpServer implements AutoCloseable {
+        private final ServerSocket serverSocket;
+        private final long handshakeMs;
+        private final AtomicLong connections = new AtomicLong();
+
+        private FakeSmtpServer(long handshakeMs) throws IOException {
+            this.handshakeMs = handshakeMs;
+            this.serverSocket = new ServerSocket(0, 512, InetAddress.getLoopbackAddress());
+            Thread acceptor = new Thread(this::accept, "fake-smtp-accept");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        private int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        private void accept() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    connections.incrementAndGet();
+                    Thread session = new Thread(() -> serve(socket), "fake-smtp-session");
+                    session.setDaemon(true);
+                    session.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void serve(Socket socket) {
+            try (socket;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                 OutputStream out = socket.getOutputStream()) {
+                Thread.sleep(handshakeMs);
+                reply(out, "220 localhost fake SMTP");
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                    switch (command) {
+                        case "EHLO" -> reply(out, "250-localhost\r\n250 8BITMIME");
+                        case "HELO", "MAIL", "RCPT", "RSET", "NOOP" -> reply(out, "250 OK");
+                        case "DATA" -> {
+                            reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                            while ((line = in.readLine()) != null && !line.equals(".")) {
+                                // Discard the message
+                            }
+                            reply(out, "250 OK queued");
+                        }
+                        case "QUIT" -> {
+                            reply(out, "221 Bye");
+                            return;
+                        }
+                        default -> reply(out, "502 Command not implemented");
+                    }
+                }
+            } catch (IOException e) {
+                // Client went away
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private static void reply(OutputStream out, String reply) throws IOException {
+            out.write((reply + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.jobscheduler.worker;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+/**
+ * Per-run latency of a short {@code .jar} job launched as a new {@code java -jar} process
+ * versus run in a warm {@link JvmWorkerPool} worker. The job is generated and compiled on the fly.
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.jobscheduler.worker.JvmWorkerPoolBenchmark -Dexec.args="50"
+ * </pre>
+ */
+public class JvmWorkerPoolBenchmark {
+
+    private static final String JOB_SOURCE =
+            "public class ShortJob {\n" +
+            "    public static void main(String[] args) {\n" +
+            "        java.util.Map<String, Integer> counts = new java.util.TreeMap<>();\n" +
+            "        java.util.regex.Pattern word = java.util.regex.Pattern.compile(\"[a-z]+\");\n" +
+            "        java.util.regex.Matcher m = word.matcher(\"the quick brown fox jumps over the lazy dog the end\");\n" +
+            "        while (m.find()) counts.merge(m.group(), 1, Integer::sum);\n" +
+            "        counts.forEach((k, v) -> System.out.println(String.format(\"%s=%d\", k, v)));\n" +
+            "    }\n" +
+            "}\n";
+
+    public static void main(String[] args) throws Exception {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        Path jar = buildJar();
+
+        // Warm up both paths before measuring
+        runCold(jar, 3);
+        long[] cold = runCold(jar, runs);
+
+        JvmWorkerPool pool = new JvmWorkerPool(1, Integer.MAX_VALUE, "");
+        pool.start();
+        try {
+            awaitIdleWorker(pool);
+            runWarm(pool, jar, 3);
+            long[] warm = runWarm(pool, jar, runs);
+            report("cold java -jar", cold);
+            report("warm worker JVM", warm);
+        } finally {
+            pool.close();
+        }
+    }
+
+    private static long[] runCold(Path jar, int runs) throws Exception {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        long[] nanos = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long t0 = System.nanoTime();
+            Process process = new ProcessBuilder(java, "-jar", jar.toString()).redirectErrorStream(true).start();
+            drain(process.getInputStream());
+            int exitCode = process.waitFor();
+            nanos[i] = System.nanoTime() - t0;
+            check(exitCode);
+        }
+        return nanos;
+    }
+
+    private static long[] runWarm(JvmWorkerPool pool, Path jar, int runs) throws Exception {
+        long[] nanos = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long t0 = System.nanoTime();
+            JvmWorkerPool.Worker worker = pool.borrow();
+            if (worker == null) {
+                throw new IllegalStateException("No idle worker");
+            }
+            Integer exitCode;
+            try (worker) {
+                drain(worker.run(jar));
+                exitCode = worker.awaitExit(1, TimeUnit.MINUTES);
+            }
+            nanos[i] = System.nanoTime() - t0;
+            check(exitCode);
+        }
+        return nanos;
+    }
+
+    private static void awaitIdleWorker(JvmWorkerPool pool) throws InterruptedException {
+        while (((Number) pool.getStatistics().get("idle")).intValue() == 0) {
+            Thread.sleep(50);
+        }
+    }
+
+    private static void drain(InputStream in) throws Exception {
+        in.transferTo(OutputStream.nullOutputStream());
+    }
+
+    private static void check(Integer exitCode) {
+        if (exitCode == null || exitCode != 0) {
+            throw new IllegalStateException("Job exited with " + exitCode);
+        }
+    }
+
+    private static void report(String label, long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        double mean = Arrays.stream(sorted).average().orElse(0) / 1e6;
+        System.out.printf("%-16s runs=%d mean=%.1f ms p50=%.1f ms p95=%.1f ms%n", label, sorted.length, mean,
+                sorted[sorted.length / 2] / 1e6, sorted[(int) (sorted.length * 0.95)] / 1e6);
+    }
+
+    private static Path buildJar() throws Exception {
+        Path dir = Files.createTempDirectory("jvm-pool-benchmark-");
+        Path source = dir.resolve("ShortJob.java");
+        Files.writeString(source, JOB_SOURCE, StandardCharsets.UTF_8);
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler.run(null, null, null, "-d", dir.toString(), source.toString()) != 0) {
+            throw new IllegalStateException("Could not compile the benchmark job");
+        }
+
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().put(Attributes.Name.MAIN_CLASS, "ShortJob");
+        Path jar = dir.resolve("short-job.jar");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar), manifest)) {
+            out.putNextEntry(new JarEntry("ShortJob.class"));
+            out.write(Files.readAllBytes(dir.resolve("ShortJob.class")));
+            out.closeEntry();
+        }
+        return jar;
+    }
+}